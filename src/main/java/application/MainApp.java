@@ -6,6 +6,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 
 import javafx.stage.Stage;
+import util.AsyncExecutor;
 import util.DatabaseConnection;
 
 /**
@@ -22,7 +23,8 @@ public class MainApp extends Application {
                 afficherErreurConnexion();
                 // On continue quand même pour afficher l'interface (mode dégradé)
             } else {
-                // Initialiser les données par défaut si nécessaire
+                // Mettre le schéma à jour puis initialiser les données par défaut si nécessaire
+                util.MigrationRunner.migrer();
                 util.DatabaseInit.initializeDefaultData();
             }
 
@@ -74,6 +76,7 @@ public class MainApp extends Application {
     @Override
     public void stop() {
         // Fermer la connexion à la base de données lors de la fermeture
+        AsyncExecutor.shutdown();
         DatabaseConnection.getInstance().closeConnection();
         System.out.println("✓ Application fermée proprement");
     }
@@ -14,10 +14,18 @@ import javafx.stage.Stage;
 import model.*;
 import dao.*;
 import util.AlertHelper;
+import service.LivreService;
+import service.StatistiquesService;
+import util.AsyncExecutor;
+import util.ListDiff;
+import util.StringHelper;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -69,16 +77,21 @@ public class AdminController implements Initializable {
     @FXML private Label labelStatTotalAuteurs;
     @FXML private Label labelStatTotalCategories;
     @FXML private Label labelStatTotalTelechargements;
+    @FXML private Label labelStatTotalVentes;
 
     // DAOs
     private LivreDAO livreDAO;
     private AuteurDAO auteurDAO;
     private CategorieDAO categorieDAO;
-    private TelechargementDAO telechargementDAO;
+    private LivreService livreService;
+    private StatistiquesService statistiquesService;
 
-    private ObservableList<Livre> livresObservable;
-    private ObservableList<Auteur> auteursObservable;
-    private ObservableList<Categorie> categoriesObservable;
+    // Livres et auteurs lus par fenêtres, triés et filtrés par la base (voir ListePaginee)
+    private ListePaginee<Livre> livresPagines;
+    private ListePaginee<Auteur> auteursPagines;
+    private final Map<TableColumn<Livre, ?>, TriLivre> trisLivres = new HashMap<>();
+    private final Map<TableColumn<Auteur, ?>, TriAuteur> trisAuteurs = new HashMap<>();
+    private final ObservableList<Categorie> categoriesObservable = FXCollections.observableArrayList();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -86,7 +99,8 @@ public class AdminController implements Initializable {
         livreDAO = new LivreDAO();
         auteurDAO = new AuteurDAO();
         categorieDAO = new CategorieDAO();
-        telechargementDAO = new TelechargementDAO();
+        livreService = new LivreService();
+        statistiquesService = StatistiquesService.getInstance();
 
         // Configurer les tables
         configurerTableLivres();
@@ -138,6 +152,41 @@ public class AdminController implements Initializable {
 
         colPrix.setCellValueFactory(new PropertyValueFactory<>("prix"));
         colDisponible.setCellValueFactory(new PropertyValueFactory<>("disponible"));
+
+        // Un clic sur un en-tête relit la table triée par la base au lieu de trier en mémoire
+        trisLivres.put(colId, TriLivre.ID);
+        trisLivres.put(colIsbn, TriLivre.ISBN);
+        trisLivres.put(colTitre, TriLivre.TITRE);
+        trisLivres.put(colAuteur, TriLivre.AUTEUR);
+        trisLivres.put(colCategorie, TriLivre.CATEGORIE);
+        trisLivres.put(colAnnee, TriLivre.ANNEE);
+        trisLivres.put(colType, TriLivre.TYPE);
+        trisLivres.put(colPrix, TriLivre.PRIX);
+        trisLivres.put(colDisponible, TriLivre.DISPONIBLE);
+
+        livresPagines = new ListePaginee<>(AdminController::memeLigneLivre);
+        tableLivres.setItems(livresPagines);
+        tableLivres.setSortPolicy(table -> {
+            chargerLivres();
+            return true;
+        });
+    }
+
+    /**
+     * Vrai si les deux livres donnent la même ligne de table : l'ancienne peut rester affichée
+     */
+    private static boolean memeLigneLivre(Livre a, Livre b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getIsbn(), b.getIsbn())
+                && Objects.equals(a.getTitre(), b.getTitre())
+                && Objects.equals(a.getAuteur() != null ? a.getAuteur().getNomComplet() : null,
+                        b.getAuteur() != null ? b.getAuteur().getNomComplet() : null)
+                && Objects.equals(a.getCategorie() != null ? a.getCategorie().getNom() : null,
+                        b.getCategorie() != null ? b.getCategorie().getNom() : null)
+                && Objects.equals(a.getAnneePublication(), b.getAnneePublication())
+                && a.getTypeLivre() == b.getTypeLivre()
+                && Objects.equals(a.getPrix(), b.getPrix())
+                && Objects.equals(a.getDisponible(), b.getDisponible());
     }
 
     /**
@@ -148,6 +197,21 @@ public class AdminController implements Initializable {
         colAuteurNom.setCellValueFactory(new PropertyValueFactory<>("nom"));
         colAuteurPrenom.setCellValueFactory(new PropertyValueFactory<>("prenom"));
         colAuteurBio.setCellValueFactory(new PropertyValueFactory<>("biographie"));
+
+        trisAuteurs.put(colAuteurId, TriAuteur.ID);
+        trisAuteurs.put(colAuteurNom, TriAuteur.NOM);
+        trisAuteurs.put(colAuteurPrenom, TriAuteur.PRENOM);
+        colAuteurBio.setSortable(false);
+
+        auteursPagines = new ListePaginee<>((a, b) -> Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getNom(), b.getNom())
+                && Objects.equals(a.getPrenom(), b.getPrenom())
+                && Objects.equals(a.getBiographie(), b.getBiographie()));
+        tableAuteurs.setItems(auteursPagines);
+        tableAuteurs.setSortPolicy(table -> {
+            chargerAuteurs();
+            return true;
+        });
     }
 
     /**
@@ -157,6 +221,7 @@ public class AdminController implements Initializable {
         colCategorieId.setCellValueFactory(new PropertyValueFactory<>("id"));
         colCategorieNom.setCellValueFactory(new PropertyValueFactory<>("nom"));
         colCategorieDesc.setCellValueFactory(new PropertyValueFactory<>("description"));
+        tableCategories.setItems(categoriesObservable);
     }
 
     /**
@@ -186,81 +251,92 @@ public class AdminController implements Initializable {
     }
 
     /**
-     * Charger tous les livres
+     * Charger les livres avec le filtre et le tri affichés ; seules les lignes visibles sont lues
      */
     private void chargerLivres() {
-        try {
-            List<Livre> livres = livreDAO.findAll();
-            livresObservable = FXCollections.observableArrayList(livres);
-            tableLivres.setItems(livresObservable);
-
-            // Mettre à jour les statistiques
-            int gratuits = (int) livres.stream().filter(Livre::isGratuit).count();
-            int payants = livres.size() - gratuits;
-
-            labelTotalLivres.setText("Total : " + livres.size() + " livres");
-            labelLivresGratuits.setText("Gratuits : " + gratuits);
-            labelLivresPayants.setText("Payants : " + payants);
-
-        } catch (Exception e) {
-            AlertHelper.showError("Erreur", "Erreur lors du chargement des livres", e.getMessage());
-            e.printStackTrace();
+        String filtre = txtRechercheAdmin.getText().trim();
+        TriLivre tri = TriLivre.TITRE;
+        boolean croissant = true;
+        if (!tableLivres.getSortOrder().isEmpty()) {
+            TableColumn<Livre, ?> colonne = tableLivres.getSortOrder().get(0);
+            tri = trisLivres.getOrDefault(colonne, TriLivre.TITRE);
+            croissant = colonne.getSortType() == TableColumn.SortType.ASCENDING;
         }
+
+        TriLivre triChoisi = tri;
+        boolean sensChoisi = croissant;
+        livresPagines.recharger(ListePaginee.Source.de(
+                () -> livreService.compterLivres(filtre),
+                (decalage, limite) -> livreService.recupererFenetreLivres(filtre, triChoisi, sensChoisi, decalage, limite)),
+                total -> labelTotalLivres.setText("Total : " + total + " livres"));
     }
 
     /**
-     * Charger tous les auteurs
+     * Charger les auteurs dans l'ordre affiché ; seules les lignes visibles sont lues
      */
     private void chargerAuteurs() {
-        try {
-            List<Auteur> auteurs = auteurDAO.findAll();
-            auteursObservable = FXCollections.observableArrayList(auteurs);
-            tableAuteurs.setItems(auteursObservable);
-        } catch (Exception e) {
-            AlertHelper.showError("Erreur", "Erreur lors du chargement des auteurs", e.getMessage());
-            e.printStackTrace();
+        TriAuteur tri = TriAuteur.NOM;
+        boolean croissant = true;
+        if (!tableAuteurs.getSortOrder().isEmpty()) {
+            TableColumn<Auteur, ?> colonne = tableAuteurs.getSortOrder().get(0);
+            tri = trisAuteurs.getOrDefault(colonne, TriAuteur.NOM);
+            croissant = colonne.getSortType() == TableColumn.SortType.ASCENDING;
         }
+
+        TriAuteur triChoisi = tri;
+        boolean sensChoisi = croissant;
+        auteursPagines.recharger(ListePaginee.Source.de(
+                auteurDAO::count,
+                (decalage, limite) -> auteurDAO.findFenetre(triChoisi, sensChoisi, decalage, limite)),
+                total -> { });
     }
 
     /**
      * Charger toutes les catégories
      */
     private void chargerCategories() {
-        try {
-            List<Categorie> categories = categorieDAO.findAll();
-            categoriesObservable = FXCollections.observableArrayList(categories);
-            tableCategories.setItems(categoriesObservable);
-        } catch (Exception e) {
-            AlertHelper.showError("Erreur", "Erreur lors du chargement des catégories", e.getMessage());
-            e.printStackTrace();
-        }
+        AsyncExecutor.supply(categorieDAO::findAll).whenCompleteAsync((categories, erreur) -> {
+            if (erreur != null) {
+                AlertHelper.showError("Erreur", "Erreur lors du chargement des catégories",
+                        AsyncExecutor.cause(erreur).getMessage());
+                erreur.printStackTrace();
+                return;
+            }
+            // Seules les lignes ajoutées, retirées ou modifiées sont mises à jour ; la sélection est gardée
+            ListDiff.appliquer(categoriesObservable, categories, Categorie::getId,
+                    (ancienne, nouvelle) -> Objects.equals(ancienne.getNom(), nouvelle.getNom())
+                            && Objects.equals(ancienne.getDescription(), nouvelle.getDescription()));
+        }, AsyncExecutor.FX);
     }
 
     /**
      * Charger les statistiques
      */
     private void chargerStatistiques() {
-        try {
-            List<Livre> livres = livreDAO.findAll();
-            int totalLivres = livres.size();
-            int gratuits = (int) livres.stream().filter(Livre::isGratuit).count();
-            int payants = totalLivres - gratuits;
-
-            int totalAuteurs = auteurDAO.findAll().size();
-            int totalCategories = categorieDAO.findAll().size();
-            int totalTelechargements = telechargementDAO.countTotal();
-
-            labelStatTotalLivres.setText(String.valueOf(totalLivres));
-            labelStatLivresGratuits.setText(String.valueOf(gratuits));
-            labelStatLivresPayants.setText(String.valueOf(payants));
-            labelStatTotalAuteurs.setText(String.valueOf(totalAuteurs));
-            labelStatTotalCategories.setText(String.valueOf(totalCategories));
-            labelStatTotalTelechargements.setText(String.valueOf(totalTelechargements));
-
-        } catch (Exception e) {
-            System.err.println("Erreur lors du chargement des statistiques: " + e.getMessage());
-            e.printStackTrace();
-        }
+        statistiquesService.recupererStatistiquesAsync().whenCompleteAsync((stats, erreur) -> {
+            if (erreur != null || stats == null) {
+                System.err.println("Erreur lors du chargement des statistiques: "
+                        + (erreur != null ? AsyncExecutor.cause(erreur).getMessage() : "base inaccessible"));
+                return;
+            }
+            labelStatTotalLivres.setText(String.valueOf(stats.getTotalLivres()));
+            labelStatLivresGratuits.setText(String.valueOf(stats.getLivresGratuits()));
+            labelStatLivresPayants.setText(String.valueOf(stats.getLivresPayants()));
+            labelLivresGratuits.setText("Gratuits : " + stats.getLivresGratuits());
+            labelLivresPayants.setText("Payants : " + stats.getLivresPayants());
+            labelStatTotalAuteurs.setText(String.valueOf(stats.getTotalAuteurs()));
+            labelStatTotalCategories.setText(String.valueOf(stats.getTotalCategories()));
+            labelStatTotalTelechargements.setText(String.valueOf(stats.getTotalTelechargements()));
+            labelStatTotalVentes.setText(StringHelper.formatPrice(stats.getTotalVentes()));
+        }, AsyncExecutor.FX);
+    }
+
+    /**
+     * Recharger les statistiques après une modification (le cache est ignoré)
+     */
+    private void rechargerStatistiques() {
+        statistiquesService.invalider();
+        chargerStatistiques();
     }
 
     // ==================== GESTION DES LIVRES ====================
@@ -274,7 +350,10 @@ public class AdminController implements Initializable {
     private void handleModifierLivre() {
         Livre livreSelectionne = tableLivres.getSelectionModel().getSelectedItem();
         if (livreSelectionne != null) {
-            ouvrirFormulairelivre(livreSelectionne);
+            // Fiche relue : une ligne inchangée à l'écran peut cacher une description modifiée
+            livreService.recupererLivreAsync(livreSelectionne.getId()).whenCompleteAsync((livre, erreur) ->
+                    ouvrirFormulairelivre(erreur == null && livre != null ? livre : livreSelectionne),
+                    AsyncExecutor.FX);
         }
     }
 
@@ -293,20 +372,21 @@ public class AdminController implements Initializable {
         );
 
         if (confirme) {
-            try {
-                boolean success = livreDAO.delete(livreSelectionne.getId());
-                if (success) {
-                    livresObservable.remove(livreSelectionne);
-                    AlertHelper.showSuccess("Suppression du livre");
-                    chargerStatistiques();
-                } else {
-                    AlertHelper.showError("Erreur", "Échec de la suppression",
-                            "Le livre n'a pas pu être supprimé");
-                }
-            } catch (Exception e) {
-                AlertHelper.showError("Erreur", "Erreur lors de la suppression", e.getMessage());
-                e.printStackTrace();
-            }
+            AsyncExecutor.supply(() -> livreService.supprimerLivre(livreSelectionne.getId()))
+                    .whenCompleteAsync((success, erreur) -> {
+                        if (erreur != null) {
+                            AlertHelper.showError("Erreur", "Erreur lors de la suppression",
+                                    AsyncExecutor.cause(erreur).getMessage());
+                            erreur.printStackTrace();
+                        } else if (success) {
+                            chargerLivres();
+                            AlertHelper.showSuccess("Suppression du livre");
+                            rechargerStatistiques();
+                        } else {
+                            AlertHelper.showError("Erreur", "Échec de la suppression",
+                                    "Le livre n'a pas pu être supprimé");
+                        }
+                    }, AsyncExecutor.FX);
         }
     }
 
@@ -337,22 +417,13 @@ public class AdminController implements Initializable {
         }
     }
 
+    /**
+     * Filtrer la table : livres dont le titre, l'ISBN ou le nom de l'auteur commence par le texte
+     * saisi, ou dont le titre, la description ou l'auteur contient ses mots
+     */
     @FXML
     private void handleRechercherAdmin() {
-        String keyword = txtRechercheAdmin.getText().trim();
-
-        if (keyword.isEmpty()) {
-            chargerLivres();
-            return;
-        }
-
-        try {
-            List<Livre> livres = livreDAO.search(keyword);
-            livresObservable = FXCollections.observableArrayList(livres);
-            tableLivres.setItems(livresObservable);
-        } catch (Exception e) {
-            AlertHelper.showError("Erreur", "Erreur lors de la recherche", e.getMessage());
-        }
+        chargerLivres();
     }
 
     @FXML
@@ -360,7 +431,7 @@ public class AdminController implements Initializable {
         chargerLivres();
         chargerAuteurs();
         chargerCategories();
-        chargerStatistiques();
+        rechargerStatistiques();
         AlertHelper.showInfo("Actualisation", "Données actualisées",
                 "Toutes les données ont été rechargées");
     }
@@ -384,16 +455,15 @@ public class AdminController implements Initializable {
 
         Auteur auteur = new Auteur(resultNom.get(), resultPrenom.get());
 
-        try {
-            Auteur created = auteurDAO.create(auteur);
-            if (created != null) {
-                auteursObservable.add(created);
+        AsyncExecutor.supply(() -> auteurDAO.create(auteur)).whenCompleteAsync((created, erreur) -> {
+            if (erreur != null) {
+                AlertHelper.showError("Erreur", "Erreur lors de l'ajout", AsyncExecutor.cause(erreur).getMessage());
+            } else if (created != null) {
+                chargerAuteurs();
                 AlertHelper.showSuccess("Ajout de l'auteur");
-                chargerStatistiques();
+                rechargerStatistiques();
             }
-        } catch (Exception e) {
-            AlertHelper.showError("Erreur", "Erreur lors de l'ajout", e.getMessage());
-        }
+        }, AsyncExecutor.FX);
     }
 
     @FXML
@@ -418,17 +488,19 @@ public class AdminController implements Initializable {
         );
 
         if (confirme) {
-            try {
-                boolean success = auteurDAO.delete(auteurSelectionne.getId());
-                if (success) {
-                    auteursObservable.remove(auteurSelectionne);
-                    chargerLivres(); // Recharger les livres
-                    AlertHelper.showSuccess("Suppression de l'auteur");
-                    chargerStatistiques();
-                }
-            } catch (Exception e) {
-                AlertHelper.showError("Erreur", "Erreur lors de la suppression", e.getMessage());
-            }
+            // Le service oublie aussi les livres supprimés en cascade
+            AsyncExecutor.supply(() -> livreService.supprimerAuteur(auteurSelectionne.getId()))
+                    .whenCompleteAsync((success, erreur) -> {
+                        if (erreur != null) {
+                            AlertHelper.showError("Erreur", "Erreur lors de la suppression",
+                                    AsyncExecutor.cause(erreur).getMessage());
+                        } else if (success) {
+                            chargerAuteurs();
+                            chargerLivres(); // Recharger les livres
+                            AlertHelper.showSuccess("Suppression de l'auteur");
+                            rechargerStatistiques();
+                        }
+                    }, AsyncExecutor.FX);
         }
     }
 
@@ -445,16 +517,15 @@ public class AdminController implements Initializable {
         if (result.isPresent()) {
             Categorie categorie = new Categorie(result.get());
 
-            try {
-                Categorie created = categorieDAO.create(categorie);
-                if (created != null) {
+            AsyncExecutor.supply(() -> categorieDAO.create(categorie)).whenCompleteAsync((created, erreur) -> {
+                if (erreur != null) {
+                    AlertHelper.showError("Erreur", "Erreur lors de l'ajout", AsyncExecutor.cause(erreur).getMessage());
+                } else if (created != null) {
                     categoriesObservable.add(created);
                     AlertHelper.showSuccess("Ajout de la catégorie");
-                    chargerStatistiques();
+                    rechargerStatistiques();
                 }
-            } catch (Exception e) {
-                AlertHelper.showError("Erreur", "Erreur lors de l'ajout", e.getMessage());
-            }
+            }, AsyncExecutor.FX);
         }
     }
 
@@ -476,17 +547,19 @@ public class AdminController implements Initializable {
         );
 
         if (confirme) {
-            try {
-                boolean success = categorieDAO.delete(categorieSelectionnee.getId());
-                if (success) {
-                    categoriesObservable.remove(categorieSelectionnee);
-                    chargerLivres();
-                    AlertHelper.showSuccess("Suppression de la catégorie");
-                    chargerStatistiques();
-                }
-            } catch (Exception e) {
-                AlertHelper.showError("Erreur", "Erreur lors de la suppression", e.getMessage());
-            }
+            // Le service oublie aussi les livres supprimés en cascade
+            AsyncExecutor.supply(() -> livreService.supprimerCategorie(categorieSelectionnee.getId()))
+                    .whenCompleteAsync((success, erreur) -> {
+                        if (erreur != null) {
+                            AlertHelper.showError("Erreur", "Erreur lors de la suppression",
+                                    AsyncExecutor.cause(erreur).getMessage());
+                        } else if (success) {
+                            categoriesObservable.remove(categorieSelectionnee);
+                            chargerLivres();
+                            AlertHelper.showSuccess("Suppression de la catégorie");
+                            rechargerStatistiques();
+                        }
+                    }, AsyncExecutor.FX);
         }
     }
 
@@ -501,6 +574,6 @@ public class AdminController implements Initializable {
      */
     public void refreshLivres() {
         chargerLivres();
-        chargerStatistiques();
+        rechargerStatistiques();
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package controller;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import model.Message;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Bulle d'un message du chat : en-tête (auteur, heure) et texte.
+ *
+ * Les nœuds sont créés une seule fois ; afficher() change les textes et la
+ * pseudo-classe :mien (bulle à droite, en bleu), pour qu'une bulle retirée soit
+ * réutilisée par un autre message (voir PoolNoeuds). L'apparence vient des
+ * classes message-* de style.css, sans style en ligne.
+ */
+class BulleMessage extends HBox {
+
+    private static final PseudoClass MIEN = PseudoClass.getPseudoClass("mien");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final Label entete = new Label();
+    private final Text texte = new Text();
+
+    BulleMessage() {
+        getStyleClass().add("message-ligne");
+        entete.getStyleClass().add("message-entete");
+
+        texte.getStyleClass().add("message-texte");
+        texte.setWrappingWidth(400);
+
+        Label bulle = new Label();
+        bulle.getStyleClass().add("message-bulle");
+        bulle.setGraphic(texte);
+
+        VBox contenu = new VBox();
+        contenu.getStyleClass().add("message-contenu");
+        contenu.getChildren().addAll(entete, bulle);
+        getChildren().add(contenu);
+    }
+
+    /**
+     * Montrer un autre message dans cette bulle ; l'id du message est gardé pour le rafraîchissement
+     */
+    void afficher(Message message, boolean mien) {
+        setUserData(message.getId());
+        String heure = (message.getDateEnvoi() != null) ? message.getDateEnvoi().format(TIME_FORMATTER) : "--:--";
+        entete.setText(message.getNomUtilisateur() + " • " + heure);
+        texte.setText(message.getContenu());
+        pseudoClassStateChanged(MIEN, mien);
+    }
+}
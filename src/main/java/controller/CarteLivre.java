@@ -0,0 +1,115 @@
+package controller;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import model.LivreResume;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Carte d'un livre dans le catalogue : icône, titre, auteur, catégorie, année,
+ * badge gratuit/payant et boutons d'action.
+ *
+ * Les nœuds sont créés une seule fois ; afficher() ne fait que changer les
+ * textes, pour qu'une carte soit réutilisée d'un livre à l'autre pendant le
+ * défilement (voir LigneLivresCell). L'apparence vient des classes de style.css
+ * (livre-card-*) : aucun style en ligne à analyser par carte, et le survol est
+ * géré par .livre-card:hover.
+ */
+class CarteLivre extends HBox {
+
+    private final Label titre = new Label();
+    private final Label auteur = new Label();
+    private final Label categorie = new Label();
+    private final Label annee = new Label();
+    private final Label badgeType = new Label();
+
+    private LivreResume livre;
+
+    CarteLivre(Consumer<LivreResume> voirDetails, Consumer<LivreResume> lire) {
+        super(20);
+        getStyleClass().add("livre-card");
+        setAlignment(Pos.CENTER_LEFT);
+        setPadding(new Insets(15));
+        setMaxWidth(Double.MAX_VALUE);
+
+        // Icône du livre
+        Label iconeLivre = new Label("📖");
+        iconeLivre.getStyleClass().add("livre-card-icone");
+
+        // Informations du livre
+        VBox infoBox = new VBox(8);
+        infoBox.setAlignment(Pos.CENTER_LEFT);
+        HBox.setHgrow(infoBox, Priority.ALWAYS);
+
+        titre.getStyleClass().add("livre-card-titre");
+        auteur.getStyleClass().add("livre-card-auteur");
+
+        // Catégorie et année ; l'année est retirée de la mise en page quand elle est inconnue
+        HBox detailsBox = new HBox(15);
+        categorie.getStyleClass().add("livre-card-categorie");
+        annee.getStyleClass().add("livre-card-annee");
+        annee.managedProperty().bind(annee.visibleProperty());
+        detailsBox.getChildren().addAll(categorie, annee);
+
+        infoBox.getChildren().addAll(titre, auteur, detailsBox, badgeType);
+
+        // Boutons d'action : ils agissent sur le livre affiché au moment du clic
+        VBox actionsBox = new VBox(10);
+        actionsBox.setAlignment(Pos.CENTER_RIGHT);
+
+        Button btnVoir = new Button("👁️ Voir détails");
+        btnVoir.getStyleClass().add("btn-primary");
+        btnVoir.setOnAction(e -> voirDetails.accept(livre));
+
+        Button btnLire = new Button("📖 Lire");
+        btnLire.getStyleClass().add("btn-success");
+        btnLire.setOnAction(e -> lire.accept(livre));
+
+        actionsBox.getChildren().addAll(btnVoir, btnLire);
+
+        getChildren().addAll(iconeLivre, infoBox, actionsBox);
+    }
+
+    /**
+     * Montrer un autre livre dans cette carte
+     */
+    void afficher(LivreResume livre) {
+        this.livre = livre;
+        titre.setText(livre.getTitre());
+        auteur.setText("Par " + (livre.getAuteur() != null ? livre.getAuteur().getNomComplet() : "Inconnu"));
+        categorie.setText(livre.getCategorie() != null ? livre.getCategorie().getNom() : "N/A");
+
+        annee.setVisible(livre.getAnneePublication() != null);
+        annee.setText(livre.getAnneePublication() != null ? livre.getAnneePublication().toString() : "");
+
+        badgeType.setText(livre.isGratuit() ? "GRATUIT" : "PAYANT - " + livre.getPrix() + " DH");
+        // Classe changée seulement quand le type change : sinon la carte n'a pas de style à recalculer
+        String classeBadge = livre.isGratuit() ? "badge-gratuit" : "badge-payant";
+        if (!badgeType.getStyleClass().contains(classeBadge)) {
+            badgeType.getStyleClass().removeAll("badge-gratuit", "badge-payant");
+            badgeType.getStyleClass().add(classeBadge);
+        }
+    }
+
+    /**
+     * Vrai si les deux livres donnent la même carte : l'ancienne peut rester affichée
+     */
+    static boolean memeAffichage(LivreResume a, LivreResume b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getTitre(), b.getTitre())
+                && Objects.equals(a.getAuteur() != null ? a.getAuteur().getNomComplet() : null,
+                        b.getAuteur() != null ? b.getAuteur().getNomComplet() : null)
+                && Objects.equals(a.getCategorie() != null ? a.getCategorie().getNom() : null,
+                        b.getCategorie() != null ? b.getCategorie().getNom() : null)
+                && Objects.equals(a.getAnneePublication(), b.getAnneePublication())
+                && a.isGratuit() == b.isGratuit()
+                && Objects.equals(a.getPrix(), b.getPrix());
+    }
+}
@@ -2,17 +2,15 @@ package controller;
 
 import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
-import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.text.Text;
 import model.Message;
 import model.Utilisateur;
 import service.ChatService;
+import util.AsyncExecutor;
+import util.ListDiff;
 
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -34,14 +32,17 @@ public class ChatController {
     private ChatService chatService;
     private Utilisateur utilisateurConnecte;
     private Timer refreshTimer;
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    // Autant de bulles que de messages affichés : le plus ancien message libère la bulle du suivant
+    private static final int MESSAGES_AFFICHES = 100;
+    private final PoolNoeuds<BulleMessage> bulles = new PoolNoeuds<>(BulleMessage::new, MESSAGES_AFFICHES);
 
     @FXML
     public void initialize() {
         chatService = new ChatService();
 
-        // Charger les messages existants
+        // Charger les messages existants, en construisant les bulles pendant la requête
         chargerMessages();
+        bulles.prechauffer(MESSAGES_AFFICHES);
 
         // Auto-scroll vers le bas
         Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
@@ -64,74 +65,43 @@ public class ChatController {
      * Charger tous les messages
      */
     private void chargerMessages() {
-        chatMessagesContainer.getChildren().clear();
-
-        List<Message> messages = chatService.recupererMessagesRecents(100);
+        chatService.recupererMessagesRecentsAsync(MESSAGES_AFFICHES)
+                .thenAcceptAsync(this::afficherMessages, AsyncExecutor.FX);
+    }
 
-        for (Message message : messages) {
-            ajouterMessageALaffichage(message);
+    /**
+     * Mettre à jour les messages affichés (thread JavaFX) : seules les bulles des messages
+     * nouveaux ou retirés sont ajoutées ou enlevées, un rafraîchissement sans nouveau message
+     * ne touche aucun nœud ; les bulles enlevées servent aux messages suivants
+     */
+    private void afficherMessages(List<Message> messages) {
+        int changements = ListDiff.appliquer(chatMessagesContainer.getChildren(), messages,
+                Node::getUserData, Message::getId, this::creerBulle, null,
+                noeud -> bulles.rendre((BulleMessage) noeud));
+
+        // Si de nouveaux messages, scroll vers le bas
+        if (changements > 0) {
+            Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
         }
-
-        // Scroll vers le bas après chargement
-        Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
     }
 
     /**
      * Ajouter un message à l'affichage
      */
     private void ajouterMessageALaffichage(Message message) {
-        HBox messageBox = new HBox(10);
-        messageBox.setPadding(new Insets(5, 10, 5, 10));
+        chatMessagesContainer.getChildren().add(creerBulle(message));
+    }
 
+    /**
+     * Bulle d'un message, reprise dans la réserve si possible
+     */
+    private BulleMessage creerBulle(Message message) {
         boolean estMonMessage = utilisateurConnecte != null &&
                 message.getIdUtilisateur().equals(utilisateurConnecte.getId());
 
-        if (estMonMessage) {
-            messageBox.setAlignment(Pos.CENTER_RIGHT);
-        } else {
-            messageBox.setAlignment(Pos.CENTER_LEFT);
-        }
-
-        VBox messageContent = new VBox(3);
-
-        // Nom de l'utilisateur et heure
-        String heure = (message.getDateEnvoi() != null) ? message.getDateEnvoi().format(TIME_FORMATTER) : "--:--";
-        Label header = new Label(message.getNomUtilisateur() + " • " + heure);
-        header.setStyle("-fx-font-size: 10px; -fx-text-fill: #666;");
-
-        // Contenu du message
-        Text messageText = new Text(message.getContenu());
-        messageText.setWrappingWidth(400);
-        messageText.setStyle("-fx-font-size: 13px;");
-
-        Label messageLabel = new Label();
-        messageLabel.setGraphic(messageText);
-        messageLabel.setWrapText(true);
-        messageLabel.setMaxWidth(400);
-        messageLabel.setPadding(new Insets(8, 12, 8, 12));
-
-        if (estMonMessage) {
-            messageLabel.setStyle(
-                    "-fx-background-color: #0084ff; " +
-                            "-fx-text-fill: white; " +
-                            "-fx-background-radius: 18; " +
-                            "-fx-font-size: 13px;");
-            messageText.setStyle("-fx-fill: white; -fx-font-size: 13px;");
-            messageContent.setAlignment(Pos.CENTER_RIGHT);
-        } else {
-            messageLabel.setStyle(
-                    "-fx-background-color: #e4e6eb; " +
-                            "-fx-text-fill: black; " +
-                            "-fx-background-radius: 18; " +
-                            "-fx-font-size: 13px;");
-            messageText.setStyle("-fx-fill: black; -fx-font-size: 13px;");
-            messageContent.setAlignment(Pos.CENTER_LEFT);
-        }
-
-        messageContent.getChildren().addAll(header, messageLabel);
-        messageBox.getChildren().add(messageContent);
-
-        chatMessagesContainer.getChildren().add(messageBox);
+        BulleMessage bulle = bulles.prendre();
+        bulle.afficher(message, estMonMessage);
+        return bulle;
     }
 
     /**
@@ -150,60 +120,63 @@ public class ChatController {
             return;
         }
 
-        try {
-            // Envoyer le message de l'utilisateur
-            Message message = chatService.envoyerMessage(utilisateurConnecte.getId(), contenu);
-
-            if (message != null) {
-                message.setNomUtilisateur(utilisateurConnecte.getNomComplet());
-                ajouterMessageALaffichage(message);
-                messageInput.clear();
-
-                // Scroll vers le bas
-                Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
-
-                // Demander une réponse à l'IA pour chaque message
-                String question = contenu.trim();
-
-                // Créer une tâche asynchrone pour l'appel à DeepSeek
-                javafx.concurrent.Task<String> task = new javafx.concurrent.Task<>() {
-                    @Override
-                    protected String call() {
-                        return chatService.askDeepSeek(question, utilisateurConnecte.getRole());
+        // Envoyer le message de l'utilisateur hors du thread JavaFX
+        chatService.envoyerMessageAsync(utilisateurConnecte.getId(), contenu)
+                .whenCompleteAsync((message, erreur) -> {
+                    if (erreur != null) {
+                        Throwable cause = AsyncExecutor.cause(erreur);
+                        afficherErreur("Erreur lors de l'envoi du message : " + cause.getMessage());
+                        cause.printStackTrace();
+                        return;
                     }
-                };
-
-                task.setOnSucceeded(e -> {
-                    String aiResponse = task.getValue();
-
-                    // Créer un message IA (utiliser un ID système, par exemple 1)
-                    Message aiMessage = chatService.envoyerMessage(1L, aiResponse);
-                    if (aiMessage != null) {
-                        aiMessage.setNomUtilisateur("DeepSeek AI");
-                        Platform.runLater(() -> {
-                            ajouterMessageALaffichage(aiMessage);
-                            chatScrollPane.setVvalue(1.0);
-                        });
-                    } else {
-                        System.err.println(
-                                "Erreur : Impossible d'enregistrer la réponse de l'IA dans la base de données.");
+                    if (message == null) {
+                        afficherErreur("Impossible d'envoyer le message. Vérifiez la connexion à la base de données.");
+                        return;
                     }
-                });
 
-                task.setOnFailed(e -> {
-                    Platform.runLater(() -> afficherErreur(
-                            "Erreur lors de la communication avec l'IA : " + task.getException().getMessage()));
-                });
+                    message.setNomUtilisateur(utilisateurConnecte.getNomComplet());
+                    ajouterMessageALaffichage(message);
+                    messageInput.clear();
+
+                    // Scroll vers le bas
+                    Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
 
-                new Thread(task).start();
+                    // Demander une réponse à l'IA pour chaque message
+                    demanderReponseIA(contenu.trim());
+                }, AsyncExecutor.FX);
+    }
+
+    /**
+     * Obtenir la réponse de l'IA et l'enregistrer, le tout en arrière-plan
+     */
+    private void demanderReponseIA(String question) {
+        javafx.concurrent.Task<Message> task = new javafx.concurrent.Task<>() {
+            @Override
+            protected Message call() {
+                String aiResponse = chatService.askDeepSeek(question, utilisateurConnecte.getRole());
+                // Créer un message IA (utiliser un ID système, par exemple 1)
+                return chatService.envoyerMessage(1L, aiResponse);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            Message aiMessage = task.getValue();
+            if (aiMessage != null) {
+                aiMessage.setNomUtilisateur("DeepSeek AI");
+                ajouterMessageALaffichage(aiMessage);
+                chatScrollPane.setVvalue(1.0);
             } else {
-                afficherErreur("Impossible d'envoyer le message. Vérifiez la connexion à la base de données.");
+                System.err.println(
+                        "Erreur : Impossible d'enregistrer la réponse de l'IA dans la base de données.");
             }
+        });
 
-        } catch (Exception e) {
-            afficherErreur("Erreur lors de l'envoi du message : " + e.getMessage());
-            e.printStackTrace();
-        }
+        task.setOnFailed(e -> afficherErreur(
+                "Erreur lors de la communication avec l'IA : " + task.getException().getMessage()));
+
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -214,15 +187,8 @@ public class ChatController {
         refreshTimer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
-                Platform.runLater(() -> {
-                    int ancienNombreMessages = chatMessagesContainer.getChildren().size();
-                    chargerMessages();
-
-                    // Si de nouveaux messages, scroll vers le bas
-                    if (chatMessagesContainer.getChildren().size() > ancienNombreMessages) {
-                        chatScrollPane.setVvalue(1.0);
-                    }
-                });
+                // La requête part du thread du timer, seul l'affichage passe par le thread JavaFX
+                chargerMessages();
             }
         }, 3000, 3000); // Rafraîchir toutes les 3 secondes
     }
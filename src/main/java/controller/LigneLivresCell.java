@@ -0,0 +1,96 @@
+package controller;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import model.LivreResume;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Une ligne de la grille du catalogue : deux cartes côte à côte.
+ *
+ * La ListView ne crée des cellules que pour les lignes visibles et les
+ * recycle au défilement : le nombre de nœuds et le temps de mise en page ne
+ * dépendent pas de la taille du catalogue. Les deux cartes d'une cellule sont
+ * construites une fois puis remplies avec les livres de la ligne affichée.
+ * Chaque ligne affichée est signalée, pour charger la suite du catalogue au défilement.
+ */
+class LigneLivresCell extends ListCell<List<LivreResume>> {
+
+    /** Livres par ligne de la grille */
+    static final int LIVRES_PAR_LIGNE = 2;
+
+    private final GridPane grille = new GridPane();
+    private final CarteLivre[] cartes = new CarteLivre[LIVRES_PAR_LIGNE];
+    private final IntConsumer ligneAffichee;
+
+    LigneLivresCell(Consumer<LivreResume> voirDetails, Consumer<LivreResume> lire, IntConsumer ligneAffichee) {
+        this.ligneAffichee = ligneAffichee;
+        grille.setHgap(20);
+        for (int colonne = 0; colonne < LIVRES_PAR_LIGNE; colonne++) {
+            ColumnConstraints contrainte = new ColumnConstraints();
+            contrainte.setPercentWidth(100.0 / LIVRES_PAR_LIGNE);
+            contrainte.setHgrow(Priority.ALWAYS);
+            grille.getColumnConstraints().add(contrainte);
+
+            cartes[colonne] = new CarteLivre(voirDetails, lire);
+            GridPane.setHgrow(cartes[colonne], Priority.ALWAYS);
+            grille.add(cartes[colonne], colonne, 0);
+        }
+        getStyleClass().add("ligne-livres");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // La cellule ne doit pas imposer sa largeur préférée à la liste
+        setPrefWidth(0);
+    }
+
+    /**
+     * Ids des livres d'une ligne : clé de la ligne quand la grille est mise à jour (voir ListDiff)
+     */
+    static List<Long> cle(List<LivreResume> ligne) {
+        List<Long> ids = new ArrayList<>(ligne.size());
+        for (LivreResume livre : ligne) {
+            ids.add(livre.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Vrai si les deux lignes donnent les mêmes cartes
+     */
+    static boolean memeLigne(List<LivreResume> a, List<LivreResume> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!CarteLivre.memeAffichage(a.get(i), b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void updateItem(List<LivreResume> ligne, boolean vide) {
+        super.updateItem(ligne, vide);
+        if (vide || ligne == null) {
+            setGraphic(null);
+            return;
+        }
+        for (int colonne = 0; colonne < LIVRES_PAR_LIGNE; colonne++) {
+            boolean occupee = colonne < ligne.size();
+            if (occupee) {
+                cartes[colonne].afficher(ligne.get(colonne));
+            }
+            // Dernière ligne incomplète : la case reste vide mais garde sa largeur
+            cartes[colonne].setVisible(occupee);
+        }
+        setGraphic(grille);
+        ligneAffichee.accept(getIndex());
+    }
+}
@@ -0,0 +1,207 @@
+package controller;
+
+import javafx.collections.ObservableListBase;
+import util.AsyncExecutor;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Liste d'une table d'administration qui ne lit en base que les lignes affichées.
+ *
+ * La table ne demande que les lignes visibles : une ligne absente du cache vaut null
+ * (ligne vide) et sa fenêtre de TAILLE_FENETRE lignes est lue en arrière-plan, avec
+ * les deux fenêtres voisines pour que le défilement ne les attende pas. Les dernières
+ * fenêtres lues sont gardées (LRU) ; les autres sont relues si l'on y revient.
+ *
+ * Le tri et le filtre sont ceux de la source, appliqués par la base : changer de tri
+ * ou de filtre, c'est recharger avec une autre source. Les fenêtres d'une ancienne
+ * source qui arrivent après un rechargement sont ignorées.
+ *
+ * Au rechargement, les lignes déjà affichées restent visibles jusqu'à l'arrivée des
+ * nouvelles ; seules les lignes qui diffèrent sont signalées à la table, qui ne
+ * redessine pas les autres. Relire une vue inchangée ne touche aucune cellule.
+ * Utilisée uniquement sur le thread JavaFX.
+ */
+class ListePaginee<T> extends ObservableListBase<T> {
+
+    /** Lignes lues par requête */
+    static final int TAILLE_FENETRE = 100;
+
+    /** Fenêtres gardées en mémoire */
+    private static final int FENETRES_EN_CACHE = 20;
+
+    /**
+     * Lignes d'une vue triée et filtrée ; appelée hors du thread JavaFX
+     */
+    interface Source<T> {
+        int compter();
+
+        List<T> fenetre(int decalage, int limite);
+
+        static <T> Source<T> de(IntSupplier compter, BiFunction<Integer, Integer, List<T>> fenetre) {
+            return new Source<T>() {
+                @Override
+                public int compter() {
+                    return compter.getAsInt();
+                }
+
+                @Override
+                public List<T> fenetre(int decalage, int limite) {
+                    return fenetre.apply(decalage, limite);
+                }
+            };
+        }
+    }
+
+    // Fenêtres de la source actuelle, et celles de la source précédente encore affichées
+    private final Map<Integer, List<T>> fenetres = fenetresLru();
+    private final Map<Integer, List<T>> anciennes = fenetresLru();
+    private final Set<Integer> enCours = new HashSet<>();
+    private final BiPredicate<? super T, ? super T> identiques;
+
+    private Source<T> source;
+    private int taille;
+    private boolean compte;
+    // Incrémentée à chaque rechargement : une lecture commencée avant n'est pas gardée
+    private long generation;
+
+    /**
+     * @param identiques Vrai si deux lignes s'affichent de la même façon (la cellule n'est pas redessinée)
+     */
+    ListePaginee(BiPredicate<? super T, ? super T> identiques) {
+        this.identiques = identiques;
+    }
+
+    // Ordre d'accès : la première fenêtre est la moins récemment affichée
+    private static <T> Map<Integer, List<T>> fenetresLru() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > FENETRES_EN_CACHE;
+            }
+        };
+    }
+
+    /**
+     * Changer de source (tri, filtre) ou relire la même après une écriture
+     *
+     * @param source        Nouvelle vue
+     * @param apresComptage Reçoit le nombre de lignes de la vue
+     */
+    void recharger(Source<T> source, IntConsumer apresComptage) {
+        long generationDebut = ++generation;
+        this.source = source;
+        compte = false;
+        // Les lignes affichées restent visibles jusqu'à l'arrivée de leur nouvelle fenêtre
+        anciennes.putAll(fenetres);
+        fenetres.clear();
+        enCours.clear();
+
+        // La première fenêtre est lue pendant le comptage
+        charger(0);
+        AsyncExecutor.supply(source::compter).whenCompleteAsync((total, erreur) -> {
+            if (generationDebut != generation) {
+                return;
+            }
+            if (erreur != null) {
+                System.err.println("Erreur lors du comptage des lignes: " + AsyncExecutor.cause(erreur).getMessage());
+                total = 0;
+            }
+            int ancienne = taille;
+            taille = total;
+            compte = true;
+
+            // Seule la différence de taille est signalée ; le contenu arrive avec les fenêtres
+            if (taille != ancienne) {
+                beginChange();
+                if (taille < ancienne) {
+                    nextRemove(taille, Collections.nCopies(ancienne - taille, null));
+                } else {
+                    nextAdd(ancienne, taille);
+                }
+                endChange();
+            }
+            apresComptage.accept(taille);
+        }, AsyncExecutor.FX);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= taille) {
+            throw new IndexOutOfBoundsException("Ligne " + index + " hors de la liste (" + taille + " lignes)");
+        }
+        int numero = index / TAILLE_FENETRE;
+        List<T> fenetre = fenetres.get(numero);
+        if (fenetre == null) {
+            charger(numero);
+            fenetre = anciennes.get(numero);
+        }
+        charger(numero - 1);
+        charger(numero + 1);
+        return ligne(fenetre, index - numero * TAILLE_FENETRE);
+    }
+
+    @Override
+    public int size() {
+        return taille;
+    }
+
+    private static <T> T ligne(List<T> fenetre, int position) {
+        return fenetre != null && position < fenetre.size() ? fenetre.get(position) : null;
+    }
+
+    private void charger(int numero) {
+        int decalage = numero * TAILLE_FENETRE;
+        if (numero < 0 || (compte && decalage >= taille)
+                || fenetres.containsKey(numero) || !enCours.add(numero)) {
+            return;
+        }
+        long generationDebut = generation;
+        Source<T> lue = source;
+        AsyncExecutor.supply(() -> lue.fenetre(decalage, TAILLE_FENETRE)).whenCompleteAsync((lignes, erreur) -> {
+            if (generationDebut != generation) {
+                return;
+            }
+            enCours.remove(numero);
+            if (erreur != null) {
+                System.err.println("Erreur lors du chargement des lignes: " + AsyncExecutor.cause(erreur).getMessage());
+                return;
+            }
+            List<T> affichees = anciennes.remove(numero);
+            fenetres.put(numero, lignes);
+            signalerDifferences(decalage, affichees, lignes);
+        }, AsyncExecutor.FX);
+    }
+
+    /**
+     * Signaler à la table les seules lignes de la fenêtre dont l'affichage change
+     */
+    private void signalerDifferences(int decalage, List<T> affichees, List<T> lignes) {
+        int fin = Math.min(taille - decalage, TAILLE_FENETRE);
+        boolean ouvert = false;
+        for (int position = 0; position < fin; position++) {
+            T avant = ligne(affichees, position);
+            T apres = ligne(lignes, position);
+            if (avant == apres || (avant != null && apres != null && identiques.test(avant, apres))) {
+                continue;
+            }
+            if (!ouvert) {
+                beginChange();
+                ouvert = true;
+            }
+            nextSet(decalage + position, avant);
+        }
+        if (ouvert) {
+            endChange();
+        }
+    }
+}
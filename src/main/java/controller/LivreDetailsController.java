@@ -11,6 +11,7 @@ import javafx.stage.Stage;
 import model.*;
 import dao.*;
 import util.AlertHelper;
+import util.AsyncExecutor;
 import util.StringHelper;
 import util.PDFManager;
 import javafx.stage.FileChooser;
@@ -111,13 +112,18 @@ public class LivreDetailsController {
             labelPrix.setText(StringHelper.formatPrice(livre.getPrix()));
             labelPrix.setVisible(true);
 
-            // Vérifier si l'utilisateur a déjà payé
-            if (utilisateur != null && paiementDAO.hasUserPaidForBook(utilisateur.getId(), livre.getId())) {
-                labelMessagePaiement.setText("✓ Vous avez déjà acheté ce livre");
-                labelMessagePaiement.setStyle("-fx-text-fill: #27ae60;");
-                labelMessagePaiement.setVisible(true);
-            } else {
-                labelMessagePaiement.setVisible(true);
+            // Vérifier si l'utilisateur a déjà payé (requête hors du thread JavaFX)
+            labelMessagePaiement.setVisible(true);
+            if (utilisateur != null) {
+                Long idUtilisateur = utilisateur.getId();
+                Long idLivre = livre.getId();
+                AsyncExecutor.supply(() -> paiementDAO.hasUserPaidForBook(idUtilisateur, idLivre))
+                        .thenAcceptAsync(aPaye -> {
+                            if (aPaye && livre != null && idLivre.equals(livre.getId())) {
+                                labelMessagePaiement.setText("✓ Vous avez déjà acheté ce livre");
+                                labelMessagePaiement.setStyle("-fx-text-fill: #27ae60;");
+                            }
+                        }, AsyncExecutor.FX);
             }
         }
 
@@ -163,7 +169,7 @@ public class LivreDetailsController {
         // Enregistrer la consultation si un utilisateur est connecté
         if (utilisateur != null) {
             Consultation consultation = new Consultation(utilisateur.getId(), livre.getId());
-            consultationDAO.create(consultation);
+            AsyncExecutor.run(() -> consultationDAO.create(consultation));
         }
 
         // Ouvrir le PDF avec le lecteur système
@@ -215,20 +221,42 @@ public class LivreDetailsController {
                 return;
             }
 
-            // 2. Vérifier si l'utilisateur a déjà payé
-            boolean aPaye = paiementDAO.hasUserPaidForBook(utilisateur.getId(), livre.getId());
-
-            if (!aPaye) {
-                AlertHelper.showInfo("Paiement requis",
-                        "Ce livre est payant (" + StringHelper.formatPrice(livre.getPrix()) + ").",
-                        "Vous allez être redirigé vers la page de paiement.");
-
-                ouvrirPagePaiement();
-                return; // Bloquer le téléchargement
-            }
+            // 2. Vérifier si l'utilisateur a déjà payé (requête hors du thread JavaFX)
+            Livre livreDemande = livre;
+            Long idUtilisateur = utilisateur.getId();
+            btnTelecharger.setDisable(true);
+            AsyncExecutor.supply(() -> paiementDAO.hasUserPaidForBook(idUtilisateur, livreDemande.getId()))
+                    .whenCompleteAsync((aPaye, erreur) -> {
+                        btnTelecharger.setDisable(false);
+                        if (erreur != null) {
+                            AlertHelper.showError("Erreur", "Vérification du paiement impossible",
+                                    AsyncExecutor.cause(erreur).getMessage());
+                            return;
+                        }
+                        if (livre != livreDemande) {
+                            return; // un autre livre est affiché entre-temps
+                        }
+                        if (!aPaye) {
+                            AlertHelper.showInfo("Paiement requis",
+                                    "Ce livre est payant (" + StringHelper.formatPrice(livre.getPrix()) + ").",
+                                    "Vous allez être redirigé vers la page de paiement.");
+
+                            ouvrirPagePaiement();
+                            return; // Bloquer le téléchargement
+                        }
+                        telechargerPdf();
+                    }, AsyncExecutor.FX);
+            return;
         }
         // --- FIN MODIFICATION PAIEMENT ---
 
+        telechargerPdf();
+    }
+
+    /**
+     * Copier le PDF à l'emplacement choisi par l'utilisateur
+     */
+    private void telechargerPdf() {
         System.out.println("✓ Livre : " + livre.getTitre());
         System.out.println("✓ Chemin PDF : " + livre.getCheminPdf());
 
@@ -322,13 +350,14 @@ public class LivreDetailsController {
 
             // Enregistrer dans la BD (optionnel)
             if (utilisateur != null && telechargementDAO != null) {
-                try {
-                    Telechargement tel = new Telechargement(utilisateur.getId(), livre.getId(), true);
-                    telechargementDAO.create(tel);
-                    System.out.println("✓ Téléchargement enregistré en BD");
-                } catch (Exception e) {
-                    System.err.println("⚠️ Erreur BD (non bloquant): " + e.getMessage());
-                }
+                Telechargement tel = new Telechargement(utilisateur.getId(), livre.getId(), true);
+                AsyncExecutor.run(() -> telechargementDAO.create(tel)).whenComplete((ignore, erreur) -> {
+                    if (erreur != null) {
+                        System.err.println("⚠️ Erreur BD (non bloquant): " + AsyncExecutor.cause(erreur).getMessage());
+                    } else {
+                        System.out.println("✓ Téléchargement enregistré en BD");
+                    }
+                });
             }
 
         } catch (Exception e) {
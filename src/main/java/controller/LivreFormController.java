@@ -9,13 +9,14 @@ import javafx.stage.Stage;
 import javafx.scene.layout.HBox;
 import model.*;
 import dao.*;
+import service.LivreService;
 import util.AlertHelper;
+import util.AsyncExecutor;
 import util.FileHelper;
 import util.Validation;
 
 import java.io.File;
 import java.net.URL;
-import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -61,14 +62,15 @@ public class LivreFormController implements Initializable {
     private Livre livreAModifier;
     private AdminController adminController;
 
-    private LivreDAO livreDAO;
+    private LivreService livreService;
     private AuteurDAO auteurDAO;
     private CategorieDAO categorieDAO;
+    private boolean enregistrementEnCours;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Initialiser les DAOs
-        livreDAO = new LivreDAO();
+        livreService = new LivreService();
         auteurDAO = new AuteurDAO();
         categorieDAO = new CategorieDAO();
 
@@ -85,24 +87,35 @@ public class LivreFormController implements Initializable {
      * Charger les auteurs dans le ComboBox
      */
     private void chargerAuteurs() {
-        try {
-            List<Auteur> auteurs = auteurDAO.findAll();
+        AsyncExecutor.supply(auteurDAO::findAll).whenCompleteAsync((auteurs, erreur) -> {
+            if (erreur != null) {
+                System.err.println("Erreur lors du chargement des auteurs: " + AsyncExecutor.cause(erreur).getMessage());
+                return;
+            }
+            // Le livre à modifier a pu être posé avant la fin du chargement : garder son auteur
+            Auteur choisi = comboAuteur.getValue();
             comboAuteur.setItems(FXCollections.observableArrayList(auteurs));
-        } catch (Exception e) {
-            System.err.println("Erreur lors du chargement des auteurs: " + e.getMessage());
-        }
+            if (choisi != null) {
+                comboAuteur.getSelectionModel().select(choisi);
+            }
+        }, AsyncExecutor.FX);
     }
 
     /**
      * Charger les catégories dans le ComboBox
      */
     private void chargerCategories() {
-        try {
-            List<Categorie> categories = categorieDAO.findAll();
+        AsyncExecutor.supply(categorieDAO::findAll).whenCompleteAsync((categories, erreur) -> {
+            if (erreur != null) {
+                System.err.println("Erreur lors du chargement des catégories: " + AsyncExecutor.cause(erreur).getMessage());
+                return;
+            }
+            Categorie choisie = comboCategorie.getValue();
             comboCategorie.setItems(FXCollections.observableArrayList(categories));
-        } catch (Exception e) {
-            System.err.println("Erreur lors du chargement des catégories: " + e.getMessage());
-        }
+            if (choisie != null) {
+                comboCategorie.getSelectionModel().select(choisie);
+            }
+        }, AsyncExecutor.FX);
     }
 
     /**
@@ -209,6 +222,10 @@ public class LivreFormController implements Initializable {
      */
     @FXML
     private void handleEnregistrer() {
+        if (enregistrementEnCours) {
+            return; // un double clic ne doit pas créer le livre deux fois
+        }
+
         // Valider les données
         if (!validerFormulaire()) {
             return;
@@ -249,28 +266,30 @@ public class LivreFormController implements Initializable {
 
             livre.setDisponible(checkDisponible.isSelected());
 
-            // Enregistrer dans la base de données
-            Livre result;
-            if (livreAModifier != null) {
-                result = livreDAO.update(livre);
-            } else {
-                result = livreDAO.create(livre);
-            }
-
-            if (result != null) {
-                AlertHelper.showSuccess(livreAModifier != null ? "Modification du livre" : "Ajout du livre");
-
-                // Rafraîchir la liste dans AdminController
-                if (adminController != null) {
-                    adminController.refreshLivres();
-                }
-
-                // Fermer la fenêtre
-                Stage stage = (Stage) txtTitre.getScene().getWindow();
-                stage.close();
-            } else {
-                afficherErreur("Erreur lors de l'enregistrement du livre");
-            }
+            // Enregistrer dans la base de données, hors du thread JavaFX
+            boolean modification = livreAModifier != null;
+            enregistrementEnCours = true;
+            AsyncExecutor.supply(() -> modification ? livreService.modifierLivre(livre) : livreService.ajouterLivre(livre))
+                    .whenCompleteAsync((result, erreur) -> {
+                        enregistrementEnCours = false;
+                        if (erreur != null) {
+                            afficherErreur("Erreur : " + AsyncExecutor.cause(erreur).getMessage());
+                            erreur.printStackTrace();
+                        } else if (result != null) {
+                            AlertHelper.showSuccess(modification ? "Modification du livre" : "Ajout du livre");
+
+                            // Rafraîchir la liste dans AdminController
+                            if (adminController != null) {
+                                adminController.refreshLivres();
+                            }
+
+                            // Fermer la fenêtre
+                            Stage stage = (Stage) txtTitre.getScene().getWindow();
+                            stage.close();
+                        } else {
+                            afficherErreur("Erreur lors de l'enregistrement du livre");
+                        }
+                    }, AsyncExecutor.FX);
 
         } catch (Exception e) {
             afficherErreur("Erreur : " + e.getMessage());
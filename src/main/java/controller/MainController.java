@@ -1,31 +1,46 @@
 package controller;
 
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import model.*;
 import dao.*;
+import service.AutocompletionService;
+import service.CurseurCatalogue;
+import service.LivreService;
+import util.AsyncExecutor;
+import util.ListDiff;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class MainController implements Initializable {
 
     @FXML
     private TextField txtRecherche;
     @FXML
-    private GridPane conteneurLivres; // Changed from VBox to GridPane
+    private ListView<List<LivreResume>> conteneurLivres; // une ligne de cartes par élément
     @FXML
     private Label labelStatut;
     @FXML
@@ -36,153 +51,332 @@ public class MainController implements Initializable {
     private MenuItem menuDeconnexion;
     @FXML
     private Button btnAdmin;
+    @FXML
+    private VBox conteneurFacettes;
+
+    /** Temps sans frappe avant de proposer des suggestions */
+    private static final Duration DELAI_SUGGESTIONS = Duration.millis(150);
+
+    /** Temps sans frappe avant de lancer la recherche */
+    private static final Duration DELAI_RECHERCHE = Duration.millis(300);
 
-    private LivreDAO livreDAO;
+    /** Livres chargés à la fois (-Dbibliotheque.taillePage), arrondi à des lignes complètes */
+    private static final int TAILLE_PAGE = taillePage();
+
+    /** Lignes restantes sous la dernière visible avant de demander la page suivante */
+    private static final int LIGNES_AVANT_CHARGEMENT = 5;
+
+    private LivreService livreService;
+    private AutocompletionService autocompletion;
     private Utilisateur utilisateurConnecte;
 
+    private final ContextMenu menuSuggestions = new ContextMenu();
+    private PauseTransition attenteSuggestions;
+    private PauseTransition attenteRecherche;
+
+    // Recherche affichée et valeurs cochées dans le panneau des filtres
+    private String critereCourant = "";
+    private final Map<Facette, Set<String>> filtresFacettes = new EnumMap<>(Facette.class);
+
+    // Numéro du dernier chargement lancé : une réponse plus ancienne est ignorée
+    private long dernierChargement;
+    private CompletableFuture<?> chargementEnCours;
+
+    // Parcours affiché et page suivante demandée mais pas encore reçue
+    private CurseurCatalogue curseur;
+    private boolean pageEnCours;
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        livreDAO = new LivreDAO();
+        livreService = new LivreService();
+        autocompletion = AutocompletionService.getInstance();
+        autocompletion.preparer();
 
-        // Configurer la grille pour 2 colonnes égales
-        ColumnConstraints col1 = new ColumnConstraints();
-        col1.setPercentWidth(50);
-        ColumnConstraints col2 = new ColumnConstraints();
-        col2.setPercentWidth(50);
-        conteneurLivres.getColumnConstraints().addAll(col1, col2);
+        // Grille virtualisée : seules les lignes visibles ont des cartes, recyclées au défilement
+        conteneurLivres.setCellFactory(liste ->
+                new LigneLivresCell(this::ouvrirDetailsLivre, this::lireLivre, this::ligneAffichee));
+        Label lblVide = new Label("Aucun livre trouvé");
+        lblVide.getStyleClass().add("catalogue-vide");
+        conteneurLivres.setPlaceholder(lblVide);
 
         chargerTousLesLivres();
 
-        // Ajouter un écouteur pour la recherche en temps réel
+        configurerRecherche();
+        configurerSuggestions();
+    }
+
+    /**
+     * Recherche au fil de la frappe : l'écouteur ne fait que relancer l'attente,
+     * la recherche part quand la frappe marque une pause et s'exécute hors du
+     * thread JavaFX ; seule la réponse à la dernière saisie est affichée
+     */
+    private void configurerRecherche() {
+        attenteRecherche = new PauseTransition(DELAI_RECHERCHE);
+        attenteRecherche.setOnFinished(e -> {
+            String critere = txtRecherche.getText().trim();
+            if (!critere.isEmpty() && !critere.equals(critereCourant)) {
+                handleRechercheRapide();
+            }
+        });
+
         txtRecherche.textProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal.isEmpty()) {
+                attenteRecherche.stop();
                 chargerTousLesLivres();
+            } else {
+                attenteRecherche.playFromStart();
             }
         });
     }
 
     /**
-     * Charger tous les livres disponibles
+     * Suggestions sous la barre de recherche, calculées quand la frappe marque une pause
      */
-    private void chargerTousLesLivres() {
-        try {
-            List<Livre> livres = livreDAO.findAll();
-            afficherLivres(livres);
-            labelStatut.setText("Prêt");
-            labelNombreLivres.setText(livres.size() + " livres disponibles");
-        } catch (Exception e) {
-            afficherErreur("Erreur lors du chargement des livres", e.getMessage());
-        }
+    private void configurerSuggestions() {
+        attenteSuggestions = new PauseTransition(DELAI_SUGGESTIONS);
+        attenteSuggestions.setOnFinished(e -> afficherSuggestions());
+
+        txtRecherche.textProperty().addListener((obs, oldVal, newVal) -> attenteSuggestions.playFromStart());
+        txtRecherche.focusedProperty().addListener((obs, avait, aLeFocus) -> {
+            if (!aLeFocus) {
+                menuSuggestions.hide();
+            }
+        });
     }
 
-    /**
-     * Afficher une liste de livres
-     */
-    private void afficherLivres(List<Livre> livres) {
-        conteneurLivres.getChildren().clear();
-
-        if (livres.isEmpty()) {
-            Label lblVide = new Label("Aucun livre trouvé");
-            lblVide.setStyle("-fx-font-size: 16px; -fx-text-fill: #7f8c8d; -fx-padding: 50;");
-            VBox box = new VBox(lblVide);
-            box.setAlignment(Pos.CENTER);
-            // Add to first cell if empty
-            conteneurLivres.add(box, 0, 0, 2, 1);
+    private void afficherSuggestions() {
+        String saisie = txtRecherche.getText();
+        List<String> suggestions = autocompletion.suggerer(saisie);
+        if (suggestions.isEmpty() || !txtRecherche.isFocused()) {
+            menuSuggestions.hide();
             return;
         }
 
-        int column = 0;
-        int row = 0;
+        List<MenuItem> items = new ArrayList<>();
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setOnAction(e -> choisirSuggestion(suggestion));
+            items.add(item);
+        }
+        menuSuggestions.getItems().setAll(items);
+        if (!menuSuggestions.isShowing()) {
+            menuSuggestions.show(txtRecherche, Side.BOTTOM, 0, 0);
+        }
+    }
 
-        for (Livre livre : livres) {
-            HBox card = creerCarteLivre(livre);
+    private void choisirSuggestion(String suggestion) {
+        txtRecherche.setText(suggestion);
+        attenteSuggestions.stop(); // pas de nouvelles suggestions pour le texte choisi
+        txtRecherche.positionCaret(suggestion.length());
+        menuSuggestions.hide();
+        handleRechercheRapide();
+    }
 
-            // Adjust card width to ensure it fills the grid cell
-            card.setMaxWidth(Double.MAX_VALUE);
-            GridPane.setHgrow(card, Priority.ALWAYS);
+    /**
+     * Charger tous les livres disponibles
+     */
+    private void chargerTousLesLivres() {
+        critereCourant = "";
+        filtresFacettes.clear();
+        chargerCatalogue("Prêt", " livres disponibles", "Erreur lors du chargement des livres");
+    }
 
-            conteneurLivres.add(card, column, row);
+    /**
+     * Exécuter la recherche courante avec les filtres cochés : la première page
+     * s'affiche dès qu'elle est lue, les suivantes au défilement, et les comptes
+     * de chaque facette quand ils sont calculés
+     */
+    private void chargerCatalogue(String statut, String suffixeNombre, String titreErreur) {
+        Map<Facette, Set<String>> filtres = new EnumMap<>(Facette.class);
+        filtresFacettes.forEach((facette, valeurs) -> filtres.put(facette, new HashSet<>(valeurs)));
 
-            column++;
-            if (column >= 2) { // 2 items per row
-                column = 0;
-                row++;
-            }
+        if (curseur != null) {
+            curseur.fermer();
         }
+        CurseurCatalogue ouvert = livreService.ouvrirCatalogue(critereCourant, filtres, TAILLE_PAGE);
+        curseur = ouvert;
+        pageEnCours = true;
+
+        chargerEnArrierePlan(ouvert.pageSuivanteAsync(), page -> {
+            pageEnCours = false;
+            afficherLivres(page);
+            labelStatut.setText(statut);
+        }, titreErreur);
+
+        ouvert.facettesAsync().whenCompleteAsync((resultat, erreur) -> {
+            if (ouvert != curseur) {
+                return;
+            }
+            if (erreur != null) {
+                System.err.println("Erreur lors du calcul des facettes: " + AsyncExecutor.cause(erreur).getMessage());
+                return;
+            }
+            afficherFacettes(resultat);
+            labelNombreLivres.setText(resultat.getNombreLivres() + suffixeNombre);
+        }, AsyncExecutor.FX);
     }
 
     /**
-     * Créer une carte visuelle pour un livre
+     * Appelée par chaque ligne affichée : près de la fin, demander la page suivante
      */
-    private HBox creerCarteLivre(Livre livre) {
-        HBox card = new HBox(20);
-        card.getStyleClass().add("livre-card");
-        card.setAlignment(Pos.CENTER_LEFT);
-        card.setPadding(new Insets(15));
-
-        // Icône du livre
-        Label iconeLivre = new Label("📖");
-        iconeLivre.setStyle("-fx-font-size: 40px;");
-
-        // Informations du livre
-        VBox infoBox = new VBox(8);
-        infoBox.setAlignment(Pos.CENTER_LEFT);
-        HBox.setHgrow(infoBox, Priority.ALWAYS);
-
-        // Titre
-        Label titre = new Label(livre.getTitre());
-        titre.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
-
-        // Auteur
-        Label auteur = new Label("Par " + (livre.getAuteur() != null ? livre.getAuteur().getNomComplet() : "Inconnu"));
-        auteur.setStyle("-fx-font-size: 14px; -fx-text-fill: #7f8c8d;");
-
-        // Catégorie et année
-        HBox detailsBox = new HBox(15);
-        Label categorie = new Label(livre.getCategorie() != null ? livre.getCategorie().getNom() : "N/A");
-        categorie.setStyle(
-                "-fx-background-color: #3498db; -fx-text-fill: white; -fx-padding: 3 8; -fx-background-radius: 3; -fx-font-size: 11px;");
-
-        if (livre.getAnneePublication() != null) {
-            Label annee = new Label(livre.getAnneePublication().toString());
-            annee.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 12px;");
-            detailsBox.getChildren().addAll(categorie, annee);
-        } else {
-            detailsBox.getChildren().add(categorie);
+    private void ligneAffichee(int index) {
+        if (index >= conteneurLivres.getItems().size() - LIGNES_AVANT_CHARGEMENT) {
+            chargerPageSuivante();
         }
+    }
+
+    private void chargerPageSuivante() {
+        if (curseur == null || pageEnCours || curseur.estTermine()) {
+            return;
+        }
+        CurseurCatalogue courant = curseur;
+        pageEnCours = true;
+        courant.pageSuivanteAsync().whenCompleteAsync((page, erreur) -> {
+            if (courant != curseur) {
+                return;
+            }
+            pageEnCours = false;
+            if (erreur != null) {
+                labelStatut.setText("Erreur");
+                afficherErreur("Erreur lors du chargement des livres", AsyncExecutor.cause(erreur).getMessage());
+                return;
+            }
+            ajouterLivres(page);
+        }, AsyncExecutor.FX);
+    }
 
-        // Badge gratuit/payant
-        Label badgeType = new Label(livre.isGratuit() ? "GRATUIT" : "PAYANT - " + livre.getPrix() + " DH");
-        badgeType.getStyleClass().add(livre.isGratuit() ? "badge-gratuit" : "badge-payant");
+    private static int taillePage() {
+        int taille = Math.max(1, Integer.getInteger("bibliotheque.taillePage", 40));
+        int parLigne = LigneLivresCell.LIVRES_PAR_LIGNE;
+        return (taille + parLigne - 1) / parLigne * parLigne;
+    }
 
-        infoBox.getChildren().addAll(titre, auteur, detailsBox, badgeType);
+    /**
+     * Une case par valeur de facette avec son nombre de livres ; une valeur cochée
+     * reste affichée même si plus aucun livre ne la porte, pour pouvoir la décocher
+     */
+    private void afficherFacettes(ResultatFacettes resultat) {
+        conteneurFacettes.getChildren().clear();
+        for (Facette facette : Facette.values()) {
+            Map<String, Integer> comptes = new LinkedHashMap<>(resultat.getComptes(facette));
+            Set<String> coches = filtresFacettes.getOrDefault(facette, Collections.emptySet());
+            for (String valeur : coches) {
+                comptes.putIfAbsent(valeur, 0);
+            }
+            if (comptes.isEmpty()) {
+                continue;
+            }
 
-        // Boutons d'action
-        VBox actionsBox = new VBox(10);
-        actionsBox.setAlignment(Pos.CENTER_RIGHT);
+            Label titre = new Label(facette.getLibelle());
+            titre.getStyleClass().add("facette-titre");
+            conteneurFacettes.getChildren().add(titre);
+
+            comptes.forEach((valeur, nombre) -> {
+                CheckBox caseFacette = new CheckBox(libelleValeur(facette, valeur) + " (" + nombre + ")");
+                caseFacette.getStyleClass().add("facette-case");
+                caseFacette.setSelected(coches.contains(valeur));
+                caseFacette.setOnAction(e -> basculerFacette(facette, valeur, caseFacette.isSelected()));
+                conteneurFacettes.getChildren().add(caseFacette);
+            });
+        }
+    }
 
-        Button btnVoir = new Button("👁️ Voir détails");
-        btnVoir.getStyleClass().add("btn-primary");
-        btnVoir.setOnAction(e -> ouvrirDetailsLivre(livre));
+    private void basculerFacette(Facette facette, String valeur, boolean cochee) {
+        Set<String> valeurs = filtresFacettes.computeIfAbsent(facette, f -> new HashSet<>());
+        if (cochee) {
+            valeurs.add(valeur);
+        } else {
+            valeurs.remove(valeur);
+        }
+        String statut = critereCourant.isEmpty() ? "Filtres appliqués" : "Recherche : \"" + critereCourant + "\"";
+        chargerCatalogue(statut, " livre(s)", "Erreur de filtrage");
+    }
 
-        Button btnLire = new Button("📖 Lire");
-        btnLire.getStyleClass().add("btn-success");
-        btnLire.setOnAction(e -> lireLivre(livre));
+    private static String libelleValeur(Facette facette, String valeur) {
+        if (facette == Facette.TYPE) {
+            return TypeLivre.PAYANT.name().equals(valeur) ? "Payant" : "Gratuit";
+        }
+        if (facette == Facette.DECENNIE && valeur.endsWith("s")) {
+            return "Années " + valeur.substring(0, valeur.length() - 1);
+        }
+        return valeur;
+    }
 
-        actionsBox.getChildren().addAll(btnVoir, btnLire);
+    /**
+     * Exécuter une requête hors du thread JavaFX puis afficher son résultat.
+     * Le chargement précédent est annulé : s'il n'a pas encore démarré il
+     * n'interroge pas la base, sinon son résultat est ignoré.
+     */
+    private <T> void chargerEnArrierePlan(CompletableFuture<T> requete,
+                                          Consumer<T> affichage,
+                                          String titreErreur) {
+        long numero = ++dernierChargement;
+        if (chargementEnCours != null) {
+            chargementEnCours.cancel(false);
+        }
+        chargementEnCours = requete;
+        labelStatut.setText("Chargement...");
 
-        card.getChildren().addAll(iconeLivre, infoBox, actionsBox);
+        requete.whenCompleteAsync((resultat, erreur) -> {
+            if (numero != dernierChargement) {
+                return;
+            }
+            if (erreur != null) {
+                labelStatut.setText("Erreur");
+                afficherErreur(titreErreur, AsyncExecutor.cause(erreur).getMessage());
+                return;
+            }
+            affichage.accept(resultat);
+        }, AsyncExecutor.FX);
+    }
 
-        // Ajouter un effet au survol
-        card.setOnMouseEntered(e -> card.setStyle("-fx-cursor: hand;"));
-        card.setOnMouseExited(e -> card.setStyle("-fx-cursor: default;"));
+    /**
+     * Afficher la première page d'une liste de livres
+     */
+    private void afficherLivres(List<LivreResume> livres) {
+        // Seules les lignes qui changent sont remplacées : un rafraîchissement identique ne redessine rien
+        int changements = ListDiff.appliquer(conteneurLivres.getItems(), lignes(livres),
+                LigneLivresCell::cle, LigneLivresCell::memeLigne);
+        if (changements > 0) {
+            conteneurLivres.scrollTo(0);
+        }
+    }
+
+    /**
+     * Ajouter une page sous les lignes déjà affichées
+     */
+    private void ajouterLivres(List<LivreResume> livres) {
+        conteneurLivres.getItems().addAll(lignes(livres));
+    }
 
-        return card;
+    /**
+     * Regrouper une page en lignes de cartes ; les pages ayant un nombre pair de
+     * livres, seule la dernière ligne du catalogue peut être incomplète
+     */
+    static List<List<LivreResume>> lignes(List<LivreResume> livres) {
+        int parLigne = LigneLivresCell.LIVRES_PAR_LIGNE;
+        List<List<LivreResume>> lignes = new ArrayList<>((livres.size() + parLigne - 1) / parLigne);
+        for (int debut = 0; debut < livres.size(); debut += parLigne) {
+            lignes.add(List.copyOf(livres.subList(debut, Math.min(debut + parLigne, livres.size()))));
+        }
+        return lignes;
     }
 
     /**
-     * Ouvrir la page de détails d'un livre
+     * Ouvrir la page de détails d'un livre : la fiche complète n'est chargée qu'à ce moment
      */
+    private void ouvrirDetailsLivre(LivreResume resume) {
+        labelStatut.setText("Chargement de \"" + resume.getTitre() + "\"...");
+        livreService.recupererLivreAsync(resume.getId()).whenCompleteAsync((livre, erreur) -> {
+            labelStatut.setText("Prêt");
+            if (erreur != null || livre == null) {
+                afficherErreur("Erreur", "Impossible de charger le livre : " + resume.getTitre());
+                return;
+            }
+            ouvrirDetailsLivre(livre);
+        }, AsyncExecutor.FX);
+    }
+
     private void ouvrirDetailsLivre(Livre livre) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/LivreDetailsView.fxml"));
@@ -207,12 +401,11 @@ public class MainController implements Initializable {
     /**
      * Lire un livre en ligne
      */
-    private void lireLivre(Livre livre) {
-        // Enregistrer la consultation
+    private void lireLivre(LivreResume livre) {
+        // Enregistrer la consultation sans bloquer l'affichage
         if (utilisateurConnecte != null) {
-            ConsultationDAO consultationDAO = new ConsultationDAO();
             Consultation consultation = new Consultation(utilisateurConnecte.getId(), livre.getId());
-            consultationDAO.create(consultation);
+            AsyncExecutor.run(() -> new ConsultationDAO().create(consultation));
         }
 
         // Ouvrir le lecteur PDF (à implémenter)
@@ -225,6 +418,7 @@ public class MainController implements Initializable {
 
     @FXML
     private void handleRechercheRapide() {
+        attenteRecherche.stop(); // Entrée ou suggestion : inutile d'attendre la fin de la frappe
         String critere = txtRecherche.getText().trim();
 
         if (critere.isEmpty()) {
@@ -232,14 +426,9 @@ public class MainController implements Initializable {
             return;
         }
 
-        try {
-            List<Livre> livres = livreDAO.search(critere);
-            afficherLivres(livres);
-            labelStatut.setText("Recherche : \"" + critere + "\"");
-            labelNombreLivres.setText(livres.size() + " résultat(s) trouvé(s)");
-        } catch (Exception e) {
-            afficherErreur("Erreur de recherche", e.getMessage());
-        }
+        critereCourant = critere;
+        filtresFacettes.clear();
+        chargerCatalogue("Recherche : \"" + critere + "\"", " résultat(s) trouvé(s)", "Erreur de recherche");
     }
 
     @FXML
@@ -287,25 +476,14 @@ public class MainController implements Initializable {
         filtrerParCategorie("Droit");
     }
 
+    /**
+     * Les boutons de catégorie cochent la facette correspondante sur tout le catalogue
+     */
     private void filtrerParCategorie(String nomCategorie) {
-        try {
-            // 1. D'abord trouver l'ID de la catégorie par son nom
-            CategorieDAO categorieDAO = new CategorieDAO();
-            Categorie categorie = categorieDAO.findByNom(nomCategorie);
-
-            if (categorie != null) {
-                // 2. Utiliser l'ID pour trouver les livres
-                List<Livre> livres = livreDAO.findByCategorie(categorie.getId());
-                afficherLivres(livres);
-                labelStatut.setText("Catégorie : " + nomCategorie);
-                labelNombreLivres.setText(livres.size() + " livre(s) dans cette catégorie");
-            } else {
-                afficherErreur("Erreur", "Catégorie non trouvée : " + nomCategorie);
-            }
-        } catch (Exception e) {
-            afficherErreur("Erreur", "Impossible de filtrer par catégorie");
-            e.printStackTrace();
-        }
+        critereCourant = "";
+        filtresFacettes.clear();
+        filtresFacettes.put(Facette.CATEGORIE, new HashSet<>(Collections.singleton(nomCategorie)));
+        chargerCatalogue("Catégorie : " + nomCategorie, " livre(s) dans cette catégorie", "Erreur");
     }
 
     @FXML
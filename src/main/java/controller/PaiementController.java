@@ -8,6 +8,7 @@ import javafx.stage.Stage;
 import model.*;
 import dao.*;
 import util.AlertHelper;
+import util.AsyncExecutor;
 import util.StringHelper;
 import util.Validation;
 
@@ -15,6 +16,7 @@ import java.net.URL;
 import java.time.Year;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.ResourceBundle;
 
 /**
@@ -72,6 +74,7 @@ public class PaiementController implements Initializable {
 
     private PaiementDAO paiementDAO;
     private TelechargementDAO telechargementDAO;
+    private boolean paiementEnCours;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -178,59 +181,65 @@ public class PaiementController implements Initializable {
             return;
         }
 
-        try {
-            // Créer le paiement
-            Paiement paiement = new Paiement(
-                    utilisateur.getId(),
-                    livre.getId(),
-                    livre.getPrix(),
-                    comboModePaiement.getValue());
-
-            // Simuler le traitement du paiement
-            boolean paiementReussi = traiterPaiement(paiement);
-
-            if (paiementReussi) {
-                // Marquer le paiement comme payé
-                paiement.marquerCommePaye();
-
-                // Enregistrer le paiement dans la base de données
-                Paiement paiementCree = paiementDAO.create(paiement);
-
-                if (paiementCree != null) {
-                    // Enregistrer le droit de téléchargement
-                    telechargementDAO.enregistrerTelechargement(
-                            utilisateur.getId(),
-                            livre.getId(),
-                            paiementCree.getId());
-
-                    // Afficher la confirmation
-                    afficherConfirmationPaiement(paiementCree);
-
-                    // Rafraîchir la page de détails si elle existe
-                    if (livreDetailsController != null) {
-                        livreDetailsController.rafraichir();
-                    }
-
-                    // Fermer la fenêtre de paiement
-                    Stage stage = (Stage) txtNumeroCarte.getScene().getWindow();
-                    stage.close();
-                } else {
-                    afficherErreur("Erreur lors de l'enregistrement du paiement");
-                }
-            } else {
-                afficherErreur("Le paiement a été refusé. Veuillez vérifier vos informations.");
+        if (paiementEnCours) {
+            return; // un double clic ne doit pas débiter deux fois
+        }
+
+        // Créer le paiement
+        Paiement paiement = new Paiement(
+                utilisateur.getId(),
+                livre.getId(),
+                livre.getPrix(),
+                comboModePaiement.getValue());
+        String numeroCarte = txtNumeroCarte.getText();
+        Long idUtilisateur = utilisateur.getId();
+        Long idLivre = livre.getId();
+
+        // Traitement et enregistrement hors du thread JavaFX : null si le paiement est refusé
+        paiementEnCours = true;
+        AsyncExecutor.supply(() -> {
+            if (!traiterPaiement(paiement, numeroCarte)) {
+                return null;
             }
+            // Marquer le paiement comme payé
+            paiement.marquerCommePaye();
+
+            // Enregistrer le paiement dans la base de données
+            Paiement paiementCree = paiementDAO.create(paiement);
+            if (paiementCree != null) {
+                // Enregistrer le droit de téléchargement
+                telechargementDAO.enregistrerTelechargement(idUtilisateur, idLivre, paiementCree.getId());
+            }
+            return Optional.ofNullable(paiementCree);
+        }).whenCompleteAsync((resultat, erreur) -> {
+            paiementEnCours = false;
+            if (erreur != null) {
+                afficherErreur("Erreur lors du traitement du paiement : " + AsyncExecutor.cause(erreur).getMessage());
+                erreur.printStackTrace();
+            } else if (resultat == null) {
+                afficherErreur("Le paiement a été refusé. Veuillez vérifier vos informations.");
+            } else if (resultat.isEmpty()) {
+                afficherErreur("Erreur lors de l'enregistrement du paiement");
+            } else {
+                // Afficher la confirmation
+                afficherConfirmationPaiement(resultat.get());
 
-        } catch (Exception e) {
-            afficherErreur("Erreur lors du traitement du paiement : " + e.getMessage());
-            e.printStackTrace();
-        }
+                // Rafraîchir la page de détails si elle existe
+                if (livreDetailsController != null) {
+                    livreDetailsController.rafraichir();
+                }
+
+                // Fermer la fenêtre de paiement
+                Stage stage = (Stage) txtNumeroCarte.getScene().getWindow();
+                stage.close();
+            }
+        }, AsyncExecutor.FX);
     }
 
     /**
-     * Simuler le traitement du paiement
+     * Simuler le traitement du paiement (appelé hors du thread JavaFX)
      */
-    private boolean traiterPaiement(Paiement paiement) {
+    private boolean traiterPaiement(Paiement paiement, String numeroCarte) {
         // Simulation d'un délai de traitement
         try {
             Thread.sleep(1000);
@@ -242,10 +251,8 @@ public class PaiementController implements Initializable {
         // Pour la simulation, nous acceptons tous les paiements
 
         // Validation basique du numéro de carte (algorithme de Luhn simplifié)
-        String numeroCarte = txtNumeroCarte.getText().replaceAll("\\s+", "");
-
         // Vérifier que ce n'est pas une carte de test invalide (commence par 0000)
-        if (numeroCarte.startsWith("0000")) {
+        if (numeroCarte.replaceAll("\\s+", "").startsWith("0000")) {
             return false;
         }
 
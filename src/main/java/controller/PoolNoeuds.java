@@ -0,0 +1,52 @@
+package controller;
+
+import javafx.scene.Node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Réserve de nœuds déjà construits, remis en service avec de nouvelles données
+ * au lieu d'être recréés (voir BulleMessage).
+ *
+ * Un nœud rendu ne doit plus être dans la scène ; au-delà de la capacité, il est
+ * abandonné au ramasse-miettes. Utilisée uniquement sur le thread JavaFX.
+ */
+class PoolNoeuds<N extends Node> {
+
+    private final Supplier<N> fabrique;
+    private final int capacite;
+    private final Deque<N> libres = new ArrayDeque<>();
+
+    PoolNoeuds(Supplier<N> fabrique, int capacite) {
+        this.fabrique = fabrique;
+        this.capacite = capacite;
+    }
+
+    /**
+     * Un nœud libre, ou un nouveau si la réserve est vide
+     */
+    N prendre() {
+        N noeud = libres.pollFirst();
+        return noeud != null ? noeud : fabrique.get();
+    }
+
+    /**
+     * Remettre en réserve un nœud retiré de la scène
+     */
+    void rendre(N noeud) {
+        if (noeud.getParent() == null && libres.size() < capacite) {
+            libres.addFirst(noeud);
+        }
+    }
+
+    /**
+     * Construire d'avance des nœuds, par exemple avant un premier affichage
+     */
+    void prechauffer(int nombre) {
+        while (libres.size() < Math.min(nombre, capacite)) {
+            libres.addFirst(fabrique.get());
+        }
+    }
+}
@@ -13,16 +13,15 @@ public class AuteurDAO implements DAO<Auteur> {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private static final String SQL_INSERT = "INSERT INTO Auteur (nom, prenom, biographie) VALUES (?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE Auteur SET nom = ?, prenom = ?, biographie = ? WHERE id = ?";
+
     @Override
     public Auteur create(Auteur auteur) {
-        String sql = "INSERT INTO Auteur (nom, prenom, biographie) VALUES (?, ?, ?)";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, auteur.getNom());
-            stmt.setString(2, auteur.getPrenom());
-            stmt.setString(3, auteur.getBiographie());
+            bindInsert(stmt, auteur);
 
             int affected = stmt.executeUpdate();
 
@@ -82,17 +81,13 @@ public class AuteurDAO implements DAO<Auteur> {
 
     @Override
     public Auteur update(Auteur auteur) {
-        String sql = "UPDATE Auteur SET nom = ?, prenom = ?, biographie = ? WHERE id = ?";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
-            stmt.setString(1, auteur.getNom());
-            stmt.setString(2, auteur.getPrenom());
-            stmt.setString(3, auteur.getBiographie());
-            stmt.setLong(4, auteur.getId());
+            bindUpdate(stmt, auteur);
 
             int affected = stmt.executeUpdate();
+            ReferenceMap.invaliderAuteur(auteur.getId());
             if (affected > 0) {
                 return auteur;
             }
@@ -106,6 +101,7 @@ public class AuteurDAO implements DAO<Auteur> {
     @Override
     public boolean delete(Long id) {
         String sql = "DELETE FROM Auteur WHERE id = ?";
+        ReferenceMap.invaliderAuteur(id);
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -119,6 +115,23 @@ public class AuteurDAO implements DAO<Auteur> {
         return false;
     }
 
+    @Override
+    public List<Auteur> createAll(List<Auteur> auteurs, int tailleLot) {
+        return JdbcBatch.insert(SQL_INSERT, auteurs, tailleLot, AuteurDAO::bindInsert, Auteur::setId, "des auteurs");
+    }
+
+    @Override
+    public int updateAll(List<Auteur> auteurs, int tailleLot) {
+        ReferenceMap.viderAuteurs();
+        return JdbcBatch.update(SQL_UPDATE, auteurs, tailleLot, AuteurDAO::bindUpdate, "des auteurs");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        ReferenceMap.viderAuteurs();
+        return JdbcBatch.deleteByIds("Auteur", ids, tailleLot, "des auteurs");
+    }
+
     public List<Auteur> searchByName(String keyword) {
         List<Auteur> auteurs = new ArrayList<>();
         String sql = "SELECT * FROM Auteur WHERE nom LIKE ? OR prenom LIKE ? ORDER BY nom, prenom";
@@ -141,6 +154,62 @@ public class AuteurDAO implements DAO<Auteur> {
         return auteurs;
     }
 
+    /**
+     * Nombre total d'auteurs
+     */
+    public int count() {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Auteur")) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du comptage des auteurs: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Fenêtre de la table d'administration : les auteurs de rang decalage à decalage + limite
+     * dans l'ordre demandé, lus par jointure différée sur les seuls id
+     */
+    public List<Auteur> findFenetre(TriAuteur tri, boolean croissant, int decalage, int limite) {
+        List<Auteur> auteurs = new ArrayList<>();
+        String sql = "SELECT a.* FROM (SELECT id FROM Auteur " + tri.orderBy("", croissant) + " LIMIT ? OFFSET ?) p " +
+                "JOIN Auteur a ON a.id = p.id " + tri.orderBy("a.", croissant);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, Page.bornerLimite(limite));
+            stmt.setInt(2, Math.max(0, decalage));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    auteurs.add(mapResultSetToAuteur(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du chargement d'une fenêtre des auteurs: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return auteurs;
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Auteur auteur) throws SQLException {
+        stmt.setString(1, auteur.getNom());
+        stmt.setString(2, auteur.getPrenom());
+        stmt.setString(3, auteur.getBiographie());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Auteur auteur) throws SQLException {
+        bindInsert(stmt, auteur);
+        stmt.setLong(4, auteur.getId());
+    }
+
     private Auteur mapResultSetToAuteur(ResultSet rs) throws SQLException {
         Auteur auteur = new Auteur();
         auteur.setId(rs.getLong("id"));
@@ -13,15 +13,15 @@ public class CategorieDAO implements DAO<Categorie> {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private static final String SQL_INSERT = "INSERT INTO Categorie (nom, description) VALUES (?, ?)";
+    private static final String SQL_UPDATE = "UPDATE Categorie SET nom = ?, description = ? WHERE id = ?";
+
     @Override
     public Categorie create(Categorie categorie) {
-        String sql = "INSERT INTO Categorie (nom, description) VALUES (?, ?)";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, categorie.getNom());
-            stmt.setString(2, categorie.getDescription());
+            bindInsert(stmt, categorie);
 
             int affected = stmt.executeUpdate();
 
@@ -81,16 +81,13 @@ public class CategorieDAO implements DAO<Categorie> {
 
     @Override
     public Categorie update(Categorie categorie) {
-        String sql = "UPDATE Categorie SET nom = ?, description = ? WHERE id = ?";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
-            stmt.setString(1, categorie.getNom());
-            stmt.setString(2, categorie.getDescription());
-            stmt.setLong(3, categorie.getId());
+            bindUpdate(stmt, categorie);
 
             int affected = stmt.executeUpdate();
+            ReferenceMap.invaliderCategorie(categorie.getId());
             if (affected > 0) {
                 return categorie;
             }
@@ -104,6 +101,7 @@ public class CategorieDAO implements DAO<Categorie> {
     @Override
     public boolean delete(Long id) {
         String sql = "DELETE FROM Categorie WHERE id = ?";
+        ReferenceMap.invaliderCategorie(id);
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -117,6 +115,24 @@ public class CategorieDAO implements DAO<Categorie> {
         return false;
     }
 
+    @Override
+    public List<Categorie> createAll(List<Categorie> categories, int tailleLot) {
+        return JdbcBatch.insert(SQL_INSERT, categories, tailleLot, CategorieDAO::bindInsert, Categorie::setId,
+                "des catégories");
+    }
+
+    @Override
+    public int updateAll(List<Categorie> categories, int tailleLot) {
+        ReferenceMap.viderCategories();
+        return JdbcBatch.update(SQL_UPDATE, categories, tailleLot, CategorieDAO::bindUpdate, "des catégories");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        ReferenceMap.viderCategories();
+        return JdbcBatch.deleteByIds("Categorie", ids, tailleLot, "des catégories");
+    }
+
     public Categorie findByNom(String nom) {
         String sql = "SELECT * FROM Categorie WHERE nom = ?";
 
@@ -136,6 +152,16 @@ public class CategorieDAO implements DAO<Categorie> {
         return null;
     }
 
+    private static void bindInsert(PreparedStatement stmt, Categorie categorie) throws SQLException {
+        stmt.setString(1, categorie.getNom());
+        stmt.setString(2, categorie.getDescription());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Categorie categorie) throws SQLException {
+        bindInsert(stmt, categorie);
+        stmt.setLong(3, categorie.getId());
+    }
+
     private Categorie mapResultSetToCategorie(ResultSet rs) throws SQLException {
         Categorie categorie = new Categorie();
         categorie.setId(rs.getLong("id"));
@@ -6,6 +6,8 @@ import util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class ConsultationDAO implements DAO<Consultation> {
 
@@ -13,17 +15,15 @@ public class ConsultationDAO implements DAO<Consultation> {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private static final String SQL_INSERT = "INSERT INTO Consultation (id_utilisateur, id_livre, date_consultation, duree_lecture) VALUES (?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE Consultation SET duree_lecture = ? WHERE id = ?";
+
     @Override
     public Consultation create(Consultation consultation) {
-        String sql = "INSERT INTO Consultation (id_utilisateur, id_livre, date_consultation, duree_lecture) VALUES (?, ?, ?, ?)";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setLong(1, consultation.getIdUtilisateur());
-            stmt.setLong(2, consultation.getIdLivre());
-            stmt.setTimestamp(3, Timestamp.valueOf(consultation.getDateConsultation()));
-            stmt.setInt(4, consultation.getDureeLecture() != null ? consultation.getDureeLecture() : 0);
+            bindInsert(stmt, consultation);
 
             int affected = stmt.executeUpdate();
 
@@ -81,15 +81,38 @@ public class ConsultationDAO implements DAO<Consultation> {
         return consultations;
     }
 
+    /**
+     * Page de l'historique triée par id décroissant (plus récents d'abord),
+     * sans OFFSET : la clé primaire sert de point de reprise
+     * @param apresCle Jeton renvoyé par la page précédente, null pour la première
+     */
+    public Page<Consultation> findPage(String apresCle, int limite) {
+        return JdbcPage.parIdDecroissant("Consultation", apresCle, limite, this::mapResultSetToConsultation, Consultation::getId, "des consultations");
+    }
+
+    /**
+     * Parcourir toute la table en flux, par id croissant, sans la charger en mémoire.
+     * Le flux garde une connexion du pool : le fermer avec un try-with-resources.
+     */
+    public Stream<Consultation> stream() {
+        return JdbcStream.stream("SELECT * FROM Consultation ORDER BY id", this::mapResultSetToConsultation, "des consultations");
+    }
+
+    /**
+     * Appliquer une action à chaque ligne de la table, lue en flux
+     */
+    public void forEach(Consumer<Consultation> action) {
+        try (Stream<Consultation> consultations = stream()) {
+            consultations.forEach(action);
+        }
+    }
+
     @Override
     public Consultation update(Consultation consultation) {
-        String sql = "UPDATE Consultation SET duree_lecture = ? WHERE id = ?";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
-            stmt.setInt(1, consultation.getDureeLecture() != null ? consultation.getDureeLecture() : 0);
-            stmt.setLong(2, consultation.getId());
+            bindUpdate(stmt, consultation);
 
             int affected = stmt.executeUpdate();
             if (affected > 0) {
@@ -118,6 +141,23 @@ public class ConsultationDAO implements DAO<Consultation> {
         return false;
     }
 
+    @Override
+    public List<Consultation> createAll(List<Consultation> consultations, int tailleLot) {
+        return JdbcBatch.insert(SQL_INSERT, consultations, tailleLot, ConsultationDAO::bindInsert,
+                Consultation::setId, "des consultations");
+    }
+
+    @Override
+    public int updateAll(List<Consultation> consultations, int tailleLot) {
+        return JdbcBatch.update(SQL_UPDATE, consultations, tailleLot, ConsultationDAO::bindUpdate,
+                "des consultations");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        return JdbcBatch.deleteByIds("Consultation", ids, tailleLot, "des consultations");
+    }
+
     public List<Consultation> findByUtilisateur(Long idUtilisateur) {
         List<Consultation> consultations = new ArrayList<>();
         String sql = "SELECT * FROM Consultation WHERE id_utilisateur = ? ORDER BY date_consultation DESC";
@@ -217,6 +257,18 @@ public class ConsultationDAO implements DAO<Consultation> {
         return 0;
     }
 
+    private static void bindInsert(PreparedStatement stmt, Consultation consultation) throws SQLException {
+        stmt.setLong(1, consultation.getIdUtilisateur());
+        stmt.setLong(2, consultation.getIdLivre());
+        stmt.setTimestamp(3, Timestamp.valueOf(consultation.getDateConsultation()));
+        stmt.setInt(4, consultation.getDureeLecture() != null ? consultation.getDureeLecture() : 0);
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Consultation consultation) throws SQLException {
+        stmt.setInt(1, consultation.getDureeLecture() != null ? consultation.getDureeLecture() : 0);
+        stmt.setLong(2, consultation.getId());
+    }
+
     private Consultation mapResultSetToConsultation(ResultSet rs) throws SQLException {
         Consultation consultation = new Consultation();
         consultation.setId(rs.getLong("id"));
@@ -1,11 +1,79 @@
 package dao;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface DAO<T> {
+
+    /** Nombre de lignes envoyées par aller-retour dans les opérations en lot */
+    int TAILLE_LOT_DEFAUT = 500;
+
     T create(T entity);
     T findById(Long id);
     List<T> findAll();
     T update(T entity);
     boolean delete(Long id);
+
+    /**
+     * Créer plusieurs entités. Les DAO qui redéfinissent createAll(entities, tailleLot)
+     * le font en une seule transaction (voir JdbcBatch) ; l'implémentation par défaut
+     * crée les entités une par une, chacune validée séparément.
+     * @return Les entités créées avec leur ID, ou une liste vide en cas d'échec
+     */
+    default List<T> createAll(List<T> entities) {
+        return createAll(entities, TAILLE_LOT_DEFAUT);
+    }
+
+    /**
+     * Implémentation par défaut ligne par ligne, sans transaction commune : un échec
+     * laisse les lignes déjà créées. Redéfinie par les DAO qui utilisent le batch JDBC
+     */
+    default List<T> createAll(List<T> entities, int tailleLot) {
+        List<T> crees = new ArrayList<>();
+        for (T entity : entities) {
+            T cree = create(entity);
+            if (cree != null) {
+                crees.add(cree);
+            }
+        }
+        return crees;
+    }
+
+    /**
+     * Mettre à jour plusieurs entités, en une seule transaction si le DAO redéfinit
+     * updateAll(entities, tailleLot) ; sinon une par une, chacune validée séparément
+     * @return Le nombre de lignes modifiées
+     */
+    default int updateAll(List<T> entities) {
+        return updateAll(entities, TAILLE_LOT_DEFAUT);
+    }
+
+    default int updateAll(List<T> entities, int tailleLot) {
+        int modifiees = 0;
+        for (T entity : entities) {
+            if (update(entity) != null) {
+                modifiees++;
+            }
+        }
+        return modifiees;
+    }
+
+    /**
+     * Supprimer plusieurs entités, en une seule transaction si le DAO redéfinit
+     * deleteAll(ids, tailleLot) ; sinon une par une, chacune validée séparément
+     * @return Le nombre de lignes supprimées
+     */
+    default int deleteAll(List<Long> ids) {
+        return deleteAll(ids, TAILLE_LOT_DEFAUT);
+    }
+
+    default int deleteAll(List<Long> ids, int tailleLot) {
+        int supprimees = 0;
+        for (Long id : ids) {
+            if (delete(id)) {
+                supprimees++;
+            }
+        }
+        return supprimees;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package dao;
+
+import util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Exécution des écritures en lot (batch JDBC) dans une seule transaction.
+ * En cas d'erreur, toute la transaction est annulée.
+ */
+final class JdbcBatch {
+
+    /**
+     * Remplit les paramètres du statement pour une entité
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T entity) throws SQLException;
+    }
+
+    private JdbcBatch() {
+    }
+
+    /**
+     * Insérer les entités et leur affecter les clés générées (après le commit)
+     */
+    static <T> List<T> insert(String sql, List<T> entities, int tailleLot, Binder<T> binder,
+                              BiConsumer<T, Long> idSetter, String libelle) {
+        if (entities == null || entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+        verifierTailleLot(tailleLot);
+        List<Long> ids = new ArrayList<>(entities.size());
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int enAttente = 0;
+                for (T entity : entities) {
+                    binder.bind(stmt, entity);
+                    stmt.addBatch();
+                    if (++enAttente == tailleLot) {
+                        executerInsertion(stmt, enAttente, ids);
+                        enAttente = 0;
+                    }
+                }
+                if (enAttente > 0) {
+                    executerInsertion(stmt, enAttente, ids);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la création en lot " + libelle + ": " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        for (int i = 0; i < entities.size(); i++) {
+            idSetter.accept(entities.get(i), ids.get(i));
+        }
+        return new ArrayList<>(entities);
+    }
+
+    /**
+     * Exécuter une mise à jour pour chaque entité
+     * @return Le nombre de lignes modifiées, 0 en cas d'échec
+     */
+    static <T> int update(String sql, List<T> entities, int tailleLot, Binder<T> binder, String libelle) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        verifierTailleLot(tailleLot);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int total = 0;
+                int enAttente = 0;
+                for (T entity : entities) {
+                    binder.bind(stmt, entity);
+                    stmt.addBatch();
+                    if (++enAttente == tailleLot) {
+                        total += compterLignes(stmt.executeBatch());
+                        enAttente = 0;
+                    }
+                }
+                if (enAttente > 0) {
+                    total += compterLignes(stmt.executeBatch());
+                }
+                conn.commit();
+                return total;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la mise à jour en lot " + libelle + ": " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Supprimer les lignes d'une table par leurs IDs
+     * @return Le nombre de lignes supprimées, 0 en cas d'échec
+     */
+    static int deleteByIds(String table, List<Long> ids, int tailleLot, String libelle) {
+        String sql = "DELETE FROM " + table + " WHERE id = ?";
+        return update(sql, ids, tailleLot, (stmt, id) -> stmt.setLong(1, id), libelle);
+    }
+
+    private static void executerInsertion(PreparedStatement stmt, int attendues, List<Long> ids) throws SQLException {
+        stmt.executeBatch();
+        int avant = ids.size();
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        if (ids.size() - avant != attendues) {
+            throw new SQLException("Clés générées inattendues : " + (ids.size() - avant)
+                    + " reçues pour " + attendues + " lignes");
+        }
+    }
+
+    private static int compterLignes(int[] resultats) {
+        int total = 0;
+        for (int r : resultats) {
+            if (r > 0) {
+                total += r;
+            } else if (r == Statement.SUCCESS_NO_INFO) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static void verifierTailleLot(int tailleLot) {
+        if (tailleLot <= 0) {
+            throw new IllegalArgumentException("La taille de lot doit être positive : " + tailleLot);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dao;
+
+import util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagination par clé (keyset) sur l'identifiant : pas d'OFFSET, l'id de la dernière
+ * ligne servie est le point de reprise. Une ligne de plus que la limite est lue pour
+ * savoir si une page suivante existe (voir Page.depuis).
+ */
+final class JdbcPage {
+
+    private JdbcPage() {
+    }
+
+    /**
+     * Page d'une table d'historique, les plus récents d'abord (id décroissant)
+     *
+     * @param table    Table lue (SELECT *)
+     * @param apresCle Jeton renvoyé par la page précédente, null pour la première
+     * @param id       Identifiant d'une ligne lue, repris dans le jeton suivant
+     * @param libelle  Complément du message d'erreur (« des paiements »)
+     */
+    static <T> Page<T> parIdDecroissant(String table, String apresCle, int limite,
+                                        JdbcStream.Mapper<T> mapper, Function<T, Long> id, String libelle) {
+        return parId("SELECT * FROM " + table + " ", "id", false, apresCle, limite, mapper, id, libelle);
+    }
+
+    /**
+     * Page d'une requête triée par identifiant
+     *
+     * @param select     Requête sans WHERE ni ORDER BY, terminée par une espace
+     * @param colonneId  Colonne de l'identifiant (préfixée par l'alias si besoin)
+     * @param croissant  Sens du tri, donc de la reprise (id > ou id <)
+     * @return La page, vide en cas d'erreur
+     */
+    static <T> Page<T> parId(String select, String colonneId, boolean croissant, String apresCle, int limite,
+                             JdbcStream.Mapper<T> mapper, Function<T, Long> id, String libelle) {
+        limite = Page.bornerLimite(limite);
+        Long apresId = Page.decoderId(apresCle);
+        String sql = select +
+                (apresId == null ? "" : "WHERE " + colonneId + (croissant ? " > ? " : " < ? ")) +
+                "ORDER BY " + colonneId + (croissant ? " ASC" : " DESC") + " LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (apresId != null) {
+                stmt.setLong(index++, apresId);
+            }
+            stmt.setInt(index, limite + 1);
+
+            List<T> lignes = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lignes.add(mapper.map(rs));
+                }
+            }
+            return Page.depuis(lignes, limite, ligne -> String.valueOf(id.apply(ligne)));
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la pagination " + libelle + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return Page.vide();
+    }
+}
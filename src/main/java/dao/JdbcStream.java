@@ -0,0 +1,104 @@
+package dao;
+
+import util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecture en flux d'une requête : ResultSet en avant seulement, lecture seule,
+ * et streaming ligne à ligne du driver MySQL (fetch size Integer.MIN_VALUE).
+ * Une seule ligne est matérialisée à la fois, quelle que soit la taille de la table.
+ */
+final class JdbcStream {
+
+    /**
+     * Convertit la ligne courante du ResultSet en entité
+     */
+    @FunctionalInterface
+    interface Mapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private JdbcStream() {
+    }
+
+    /**
+     * Ouvrir un flux sur la requête. La connexion reste empruntée jusqu'à la
+     * fermeture du flux : il doit être utilisé dans un try-with-resources.
+     * Une erreur SQL pendant la lecture est journalisée et termine le flux.
+     */
+    static <T> Stream<T> stream(String sql, Mapper<T> mapper, String libelle) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'ouverture du flux " + libelle + ": " + e.getMessage());
+            e.printStackTrace();
+            fermer(rs, stmt, conn, libelle);
+            return Stream.empty();
+        }
+
+        final Connection connexion = conn;
+        final PreparedStatement statement = stmt;
+        final ResultSet resultSet = rs;
+
+        Spliterator<T> lignes = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean termine;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (termine) {
+                    return false;
+                }
+                try {
+                    if (!resultSet.next()) {
+                        termine = true;
+                        return false;
+                    }
+                    action.accept(mapper.map(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    System.err.println("Erreur lors de la lecture du flux " + libelle + ": " + e.getMessage());
+                    e.printStackTrace();
+                    termine = true;
+                    return false;
+                }
+            }
+        };
+
+        return StreamSupport.stream(lignes, false)
+                .onClose(() -> fermer(resultSet, statement, connexion, libelle));
+    }
+
+    /**
+     * Fermeture dans l'ordre inverse : ResultSet, Statement puis connexion ;
+     * l'échec d'une fermeture n'empêche pas les suivantes
+     */
+    private static void fermer(ResultSet rs, Statement stmt, Connection conn, String libelle) {
+        fermer(rs, libelle);
+        fermer(stmt, libelle);
+        fermer(conn, libelle);
+    }
+
+    private static void fermer(AutoCloseable ressource, String libelle) {
+        if (ressource == null) {
+            return;
+        }
+        try {
+            ressource.close();
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la fermeture du flux " + libelle + ": " + e.getMessage());
+        }
+    }
+}
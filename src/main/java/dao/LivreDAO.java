@@ -5,8 +5,16 @@ import util.DatabaseConnection;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class LivreDAO implements DAO<Livre> {
 
@@ -14,28 +22,81 @@ public class LivreDAO implements DAO<Livre> {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private static final String SQL_SELECT = "SELECT l.*, a.nom as auteur_nom, a.prenom as auteur_prenom, " +
+            "c.nom as categorie_nom FROM Livre l " +
+            "LEFT JOIN Auteur a ON l.id_auteur = a.id " +
+            "LEFT JOIN Categorie c ON l.id_categorie = c.id ";
+
+    // Colonnes affichées sur les cartes du catalogue (sans description ni ISBN)
+    private static final String SQL_SELECT_RESUME = "SELECT l.id, l.titre, l.annee_publication, l.type_livre, " +
+            "l.prix, l.disponible, l.chemin_pdf, l.id_auteur, l.id_categorie, " +
+            "a.nom as auteur_nom, a.prenom as auteur_prenom, c.nom as categorie_nom FROM Livre l " +
+            "LEFT JOIN Auteur a ON l.id_auteur = a.id " +
+            "LEFT JOIN Categorie c ON l.id_categorie = c.id ";
+
+    // Livres trouvés par l'index FULLTEXT du livre ou par celui de son auteur, pertinences additionnées.
+    // Deux requêtes réunies plutôt qu'un OR entre tables, qui empêcherait MySQL d'utiliser les index
+    private static final String SQL_PLEIN_TEXTE = "JOIN (SELECT id, SUM(score) AS pertinence FROM (" +
+            "SELECT id, MATCH (titre, description) AGAINST (? %1$s) AS score FROM Livre " +
+            "WHERE MATCH (titre, description) AGAINST (? %1$s) " +
+            "UNION ALL " +
+            "SELECT la.id, MATCH (aa.nom, aa.prenom) AGAINST (? %1$s) FROM Auteur aa " +
+            "JOIN Livre la ON la.id_auteur = aa.id " +
+            "WHERE MATCH (aa.nom, aa.prenom) AGAINST (? %1$s)" +
+            ") correspondances GROUP BY id) r ON r.id = l.id " +
+            "ORDER BY r.pertinence DESC, l.titre, l.id";
+    private static final String SQL_NATUREL = String.format(SQL_PLEIN_TEXTE, "IN NATURAL LANGUAGE MODE");
+    private static final String SQL_BOOLEEN = String.format(SQL_PLEIN_TEXTE, "IN BOOLEAN MODE");
+
+    // Opérateurs du mode booléen saisis par l'utilisateur : ils sont gardés si l'expression est valide
+    private static final Pattern OPERATEURS_BOOLEENS = Pattern.compile("(^|\\s)[+\\-~<>(]|[\"*]");
+
+    // Jetons d'une expression booléenne : phrase, parenthèse ouvrante avec son opérateur,
+    // parenthèse fermante, terme avec ses opérateurs, guillemet non fermé
+    private static final Pattern JETON_BOOLEEN = Pattern.compile("\"[^\"]*\"|[+\\-~<>]?\\(|\\)|[+\\-~<>]*[^\\s()\"]+|\"");
+
+    // Ce qui sépare les mots pour MySQL : un terme qui en contient est cherché comme une phrase
+    private static final Pattern SEPARATEURS_MOTS = Pattern.compile("[^\\p{L}\\p{N}_']+");
+
+    /** Mode partagé par toutes les instances, modifiable à chaud pour comparer les moteurs */
+    private static volatile ModeRecherche modeRecherche = modeParDefaut();
+
+    private static final String SQL_INSERT = "INSERT INTO Livre (isbn, titre, annee_publication, description, langue, " +
+            "nombre_pages, chemin_pdf, disponible, type_livre, prix, " +
+            "id_auteur, id_categorie, date_ajout) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_UPDATE = "UPDATE Livre SET isbn = ?, titre = ?, annee_publication = ?, " +
+            "description = ?, langue = ?, nombre_pages = ?, chemin_pdf = ?, " +
+            "disponible = ?, type_livre = ?, prix = ?, " +
+            "id_auteur = ?, id_categorie = ? WHERE id = ?";
+
+    public static ModeRecherche getModeRecherche() {
+        return modeRecherche;
+    }
+
+    public static void setModeRecherche(ModeRecherche mode) {
+        modeRecherche = mode != null ? mode : ModeRecherche.INDEX;
+    }
+
+    private static ModeRecherche modeParDefaut() {
+        String valeur = System.getProperty("bibliotheque.recherche");
+        if (valeur == null || valeur.trim().isEmpty()) {
+            return ModeRecherche.INDEX;
+        }
+        try {
+            return ModeRecherche.valueOf(valeur.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Mode de recherche inconnu '" + valeur + "', index en mémoire utilisé");
+            return ModeRecherche.INDEX;
+        }
+    }
+
     @Override
     public Livre create(Livre livre) {
-        String sql = "INSERT INTO Livre (isbn, titre, annee_publication, description, langue, " +
-                "nombre_pages, chemin_pdf, disponible, type_livre, prix, date_ajout, " +
-                "id_auteur, id_categorie) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, livre.getIsbn());
-            stmt.setString(2, livre.getTitre());
-            stmt.setObject(3, livre.getAnneePublication());
-            stmt.setString(4, livre.getDescription());
-            stmt.setString(5, livre.getLangue());
-            stmt.setObject(6, livre.getNombrePages());
-            stmt.setString(7, livre.getCheminPdf());
-            stmt.setBoolean(8, livre.getDisponible() != null ? livre.getDisponible() : true);
-            stmt.setString(9, livre.getTypeLivre().name());
-            stmt.setDouble(10, livre.getPrix() != null ? livre.getPrix() : 0.0);
-            stmt.setTimestamp(11, Timestamp.valueOf(LocalDateTime.now()));
-            stmt.setLong(12, livre.getIdAuteur());
-            stmt.setLong(13, livre.getIdCategorie());
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindInsert(stmt, livre);
 
             int affected = stmt.executeUpdate();
 
@@ -101,29 +162,55 @@ public class LivreDAO implements DAO<Livre> {
         return livres;
     }
 
-    @Override
-    public Livre update(Livre livre) {
-        String sql = "UPDATE Livre SET isbn = ?, titre = ?, annee_publication = ?, " +
-                "description = ?, langue = ?, nombre_pages = ?, chemin_pdf = ?, " +
-                "disponible = ?, type_livre = ?, prix = ?, " +
-                "id_auteur = ?, id_categorie = ? WHERE id = ?";
+    /**
+     * Page du catalogue triée par (titre, id), sans OFFSET : la requête reprend
+     * directement après la dernière clé lue et reste en temps constant par page
+     * @param apresCle Jeton renvoyé par la page précédente, null pour la première
+     */
+    public Page<Livre> findPage(String apresCle, int limite) {
+        limite = Page.bornerLimite(limite);
+        String sql = SQL_SELECT +
+                (apresCle == null ? "" : "WHERE (l.titre > ? OR (l.titre = ? AND l.id > ?)) ") +
+                "ORDER BY l.titre, l.id LIMIT ?";
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, livre.getIsbn());
-            stmt.setString(2, livre.getTitre());
-            stmt.setObject(3, livre.getAnneePublication());
-            stmt.setString(4, livre.getDescription());
-            stmt.setString(5, livre.getLangue());
-            stmt.setObject(6, livre.getNombrePages());
-            stmt.setString(7, livre.getCheminPdf());
-            stmt.setBoolean(8, livre.getDisponible() != null ? livre.getDisponible() : true);
-            stmt.setString(9, livre.getTypeLivre().name());
-            stmt.setDouble(10, livre.getPrix() != null ? livre.getPrix() : 0.0);
-            stmt.setLong(11, livre.getIdAuteur());
-            stmt.setLong(12, livre.getIdCategorie());
-            stmt.setLong(13, livre.getId());
+            int index = 1;
+            if (apresCle != null) {
+                // Jeton "id:titre" ; l'id ne contient jamais ':' donc le titre peut en contenir
+                int separateur = apresCle.indexOf(':');
+                if (separateur < 0) {
+                    throw new IllegalArgumentException("Jeton de pagination invalide : " + apresCle);
+                }
+                Long id = Page.decoderId(apresCle.substring(0, separateur));
+                String titre = apresCle.substring(separateur + 1);
+                stmt.setString(index++, titre);
+                stmt.setString(index++, titre);
+                stmt.setLong(index++, id);
+            }
+            stmt.setInt(index, limite + 1);
+
+            List<Livre> livres = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    livres.add(mapResultSetToLivre(rs));
+                }
+            }
+            return Page.depuis(livres, limite, livre -> livre.getId() + ":" + livre.getTitre());
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la pagination des livres: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return Page.vide();
+    }
+
+    @Override
+    public Livre update(Livre livre) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+
+            bindUpdate(stmt, livre);
 
             int affected = stmt.executeUpdate();
             if (affected > 0) {
@@ -152,7 +239,38 @@ public class LivreDAO implements DAO<Livre> {
         return false;
     }
 
+    @Override
+    public List<Livre> createAll(List<Livre> livres, int tailleLot) {
+        return JdbcBatch.insert(SQL_INSERT, livres, tailleLot, LivreDAO::bindInsert, Livre::setId, "des livres");
+    }
+
+    @Override
+    public int updateAll(List<Livre> livres, int tailleLot) {
+        return JdbcBatch.update(SQL_UPDATE, livres, tailleLot, LivreDAO::bindUpdate, "des livres");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        return JdbcBatch.deleteByIds("Livre", ids, tailleLot, "des livres");
+    }
+
+    /**
+     * Recherche avec le mode courant (voir setModeRecherche)
+     */
     public List<Livre> search(String keyword) {
+        return search(keyword, modeRecherche);
+    }
+
+    /**
+     * Recherche par mot-clé avec un mode donné ; INDEX et LIKE interrogent la base en LIKE,
+     * NATUREL et BOOLEEN utilisent les index FULLTEXT et classent par pertinence
+     */
+    public List<Livre> search(String keyword, ModeRecherche mode) {
+        if (mode == ModeRecherche.NATUREL || mode == ModeRecherche.BOOLEEN) {
+            return lister(SQL_SELECT + sqlPleinTexte(mode), this::mapResultSetToLivre,
+                    "Erreur lors de la recherche de livres", parametresPleinTexte(keyword, mode));
+        }
+
         List<Livre> livres = new ArrayList<>();
         String sql = "SELECT l.*, a.nom as auteur_nom, a.prenom as auteur_prenom, " +
                 "c.nom as categorie_nom FROM Livre l " +
@@ -273,6 +391,426 @@ public class LivreDAO implements DAO<Livre> {
         return livres;
     }
 
+    /**
+     * Livres qui satisfont une condition construite par le service (FiltreLivre.versSql),
+     * triés par titre. La condition ne contient que des ? pour les valeurs, jamais de
+     * texte saisi par l'utilisateur.
+     *
+     * @param condition  Expression SQL sur la table Livre d'alias l
+     * @param parametres Valeurs des ? de la condition
+     */
+    public List<Livre> findByCondition(String condition, Object... parametres) {
+        return lister(SQL_SELECT + "WHERE " + condition + " ORDER BY l.titre", this::mapResultSetToLivre,
+                "Erreur lors du filtrage des livres", parametres);
+    }
+
+    // ==================== PROJECTIONS POUR LE CATALOGUE ====================
+
+    public List<LivreResume> findAllResumes() {
+        return lister(SQL_SELECT_RESUME + "ORDER BY l.titre", this::mapResultSetToResume,
+                "Erreur lors de la récupération des livres");
+    }
+
+    public List<LivreResume> searchResumes(String keyword) {
+        return searchResumes(keyword, modeRecherche);
+    }
+
+    public List<LivreResume> searchResumes(String keyword, ModeRecherche mode) {
+        if (mode == ModeRecherche.NATUREL || mode == ModeRecherche.BOOLEEN) {
+            return lister(SQL_SELECT_RESUME + sqlPleinTexte(mode), this::mapResultSetToResume,
+                    "Erreur lors de la recherche de livres", parametresPleinTexte(keyword, mode));
+        }
+        String pattern = "%" + keyword + "%";
+        return lister(SQL_SELECT_RESUME +
+                        "WHERE l.titre LIKE ? OR l.description LIKE ? OR a.nom LIKE ? OR a.prenom LIKE ? " +
+                        "ORDER BY l.titre", this::mapResultSetToResume,
+                "Erreur lors de la recherche de livres", pattern, pattern, pattern, pattern);
+    }
+
+    public List<LivreResume> findResumesByCategorie(Long idCategorie) {
+        return lister(SQL_SELECT_RESUME + "WHERE l.id_categorie = ? ORDER BY l.titre", this::mapResultSetToResume,
+                "Erreur lors de la recherche par catégorie", idCategorie);
+    }
+
+    /**
+     * Page du catalogue par clé (keyset) : les livres qui suivent (apresTitre, apresId)
+     * dans l'ordre titre puis id. Chaque page coûte une descente dans l'index du titre,
+     * quelle que soit sa position dans le catalogue.
+     *
+     * @param keyword             Mot-clé cherché en LIKE, null pour tout le catalogue
+     * @param condition           Condition construite par le service sur les alias l, a, c ; null pour aucune
+     * @param parametresCondition Valeurs des ? de la condition
+     * @param apresTitre          Titre du dernier livre de la page précédente, null pour la première page
+     * @param apresId             Id du dernier livre de la page précédente
+     * @param limite              Taille de la page
+     */
+    public List<LivreResume> findResumesApres(String keyword, String condition, List<Object> parametresCondition,
+                                              String apresTitre, Long apresId, int limite) {
+        List<Object> parametres = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SQL_SELECT_RESUME)
+                .append(whereVue(keyword, condition, parametresCondition, parametres));
+        if (apresTitre != null) {
+            // Forme développée plutôt que (titre, id) > (?, ?), que MySQL n'utilise pas toujours comme intervalle d'index
+            sql.append("AND (l.titre > ? OR (l.titre = ? AND l.id > ?)) ");
+            Collections.addAll(parametres, apresTitre, apresTitre, apresId);
+        }
+        sql.append("ORDER BY l.titre, l.id LIMIT ?");
+        parametres.add(limite);
+        return lister(sql.toString(), this::mapResultSetToResume,
+                "Erreur lors du chargement d'une page du catalogue", parametres.toArray());
+    }
+
+    /**
+     * Nombre de livres de la vue que parcourt findResumesApres
+     *
+     * @return Le nombre de livres, 0 en cas d'erreur
+     */
+    public int countVue(String keyword, String condition, List<Object> parametresCondition) {
+        List<Object> parametres = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM Livre l " + SQL_JOINTURES_TRI
+                + whereVue(keyword, condition, parametresCondition, parametres);
+        List<Integer> total = lister(sql, rs -> rs.getInt(1), "Erreur lors du comptage des livres", parametres.toArray());
+        return total.isEmpty() ? 0 : total.get(0);
+    }
+
+    /**
+     * Nombre de livres de la vue par valeur d'une expression (une facette), en un GROUP BY
+     *
+     * @param valeur           Expression SQL construite par le service sur les alias l, a, c
+     * @param parametresValeur Valeurs des ? de l'expression
+     * @return Valeur -> nombre de livres, vide en cas d'erreur
+     */
+    public Map<String, Integer> countParValeur(String valeur, List<Object> parametresValeur, String keyword,
+                                               String condition, List<Object> parametresCondition) {
+        List<Object> parametres = new ArrayList<>(parametresValeur);
+        String sql = "SELECT " + valeur + " AS valeur, COUNT(*) AS nombre FROM Livre l " + SQL_JOINTURES_TRI
+                + whereVue(keyword, condition, parametresCondition, parametres) + "GROUP BY valeur";
+        Map<String, Integer> comptes = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> compte : lister(sql,
+                rs -> new AbstractMap.SimpleEntry<>(rs.getString("valeur"), rs.getInt("nombre")),
+                "Erreur lors du comptage des facettes", parametres.toArray())) {
+            comptes.put(compte.getKey(), compte.getValue());
+        }
+        return comptes;
+    }
+
+    /**
+     * Clause WHERE d'une vue du catalogue : le mot-clé en LIKE puis la condition du service
+     */
+    private static String whereVue(String keyword, String condition, List<Object> parametresCondition,
+                                   List<Object> parametres) {
+        StringBuilder sql = new StringBuilder("WHERE 1 = 1 ");
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            String pattern = "%" + keyword.trim() + "%";
+            sql.append("AND (l.titre LIKE ? OR l.description LIKE ? OR a.nom LIKE ? OR a.prenom LIKE ?) ");
+            Collections.addAll(parametres, pattern, pattern, pattern, pattern);
+        }
+        if (condition != null) {
+            sql.append("AND (").append(condition).append(") ");
+            parametres.addAll(parametresCondition);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Page d'une recherche FULLTEXT, par décalage : l'ordre de pertinence n'offre pas de clé stable
+     */
+    public List<LivreResume> searchResumes(String keyword, ModeRecherche mode, int limite, int decalage) {
+        Object[] expression = parametresPleinTexte(keyword, mode);
+        Object[] parametres = Arrays.copyOf(expression, expression.length + 2);
+        parametres[expression.length] = limite;
+        parametres[expression.length + 1] = decalage;
+        return lister(SQL_SELECT_RESUME + sqlPleinTexte(mode) + " LIMIT ? OFFSET ?", this::mapResultSetToResume,
+                "Erreur lors de la recherche de livres", parametres);
+    }
+
+    // ==================== TABLE D'ADMINISTRATION ====================
+
+    // Jointure différée : le tri et le décalage parcourent les seuls id (index couvrant),
+    // puis les colonnes complètes ne sont lues que pour les lignes de la fenêtre
+    private static final String SQL_FENETRE = "SELECT l.*, a.nom as auteur_nom, a.prenom as auteur_prenom, " +
+            "c.nom as categorie_nom FROM (%s) p JOIN Livre l ON l.id = p.id " +
+            "LEFT JOIN Auteur a ON l.id_auteur = a.id " +
+            "LEFT JOIN Categorie c ON l.id_categorie = c.id ";
+
+    private static final String SQL_JOINTURES_TRI = "LEFT JOIN Auteur a ON l.id_auteur = a.id " +
+            "LEFT JOIN Categorie c ON l.id_categorie = c.id ";
+
+    // Filtre par préfixe du titre, de l'ISBN ou du nom de l'auteur (trois intervalles d'index),
+    // et par mots du titre, de la description ou de l'auteur (index FULLTEXT) : « misérables »
+    // trouve « Les Misérables » comme l'ancienne recherche LIKE '%...%'. Les requêtes sont
+    // réunies plutôt que liées par un OR entre tables, qui forcerait un parcours complet
+    private static final String SQL_FILTRE = "WHERE l.id IN (" +
+            "SELECT id FROM Livre WHERE titre LIKE ? " +
+            "UNION SELECT id FROM Livre WHERE isbn LIKE ? " +
+            "UNION SELECT la.id FROM Livre la JOIN Auteur aa ON la.id_auteur = aa.id WHERE aa.nom LIKE ? " +
+            "UNION SELECT id FROM Livre WHERE MATCH (titre, description) AGAINST (? IN BOOLEAN MODE) " +
+            "UNION SELECT la.id FROM Livre la JOIN Auteur aa ON la.id_auteur = aa.id " +
+            "WHERE MATCH (aa.nom, aa.prenom) AGAINST (? IN BOOLEAN MODE)) ";
+
+    /**
+     * Nombre de livres qui passent le filtre de la table d'administration
+     *
+     * @param filtre Début du titre, de l'ISBN ou du nom de l'auteur, ou mots du titre, de la
+     *               description ou de l'auteur ; vide ou null pour tous
+     * @return Le nombre de livres, 0 en cas d'erreur
+     */
+    public int countByFiltre(String filtre) {
+        Object[] parametres = parametresFiltre(filtre);
+        String sql = "SELECT COUNT(*) FROM Livre l " + (parametres.length > 0 ? SQL_FILTRE : "");
+        List<Integer> total = lister(sql, rs -> rs.getInt(1), "Erreur lors du comptage des livres", parametres);
+        return total.isEmpty() ? 0 : total.get(0);
+    }
+
+    /**
+     * Fenêtre de la table d'administration : les livres de rang decalage à decalage + limite
+     * dans l'ordre demandé. Par décalage et non par clé : la barre de défilement permet de
+     * sauter directement à n'importe quelle ligne.
+     *
+     * @param filtre    Voir countByFiltre
+     * @param tri       Colonne de tri
+     * @param croissant Sens du tri
+     * @param decalage  Rang de la première ligne
+     * @param limite    Nombre de lignes, borné par Page.LIMITE_MAX
+     */
+    public List<Livre> findFenetre(String filtre, TriLivre tri, boolean croissant, int decalage, int limite) {
+        Object[] filtres = parametresFiltre(filtre);
+        String orderBy = tri.orderBy(croissant);
+        String ids = "SELECT l.id FROM Livre l " + (tri.avecJointure() ? SQL_JOINTURES_TRI : "") +
+                (filtres.length > 0 ? SQL_FILTRE : "") + orderBy + " LIMIT ? OFFSET ?";
+
+        Object[] parametres = Arrays.copyOf(filtres, filtres.length + 2);
+        parametres[filtres.length] = Page.bornerLimite(limite);
+        parametres[filtres.length + 1] = Math.max(0, decalage);
+        return lister(String.format(SQL_FENETRE, ids) + orderBy, this::mapResultSetToLivre,
+                "Erreur lors du chargement d'une fenêtre des livres", parametres);
+    }
+
+    /**
+     * Motifs LIKE du filtre (titre, ISBN, nom de l'auteur) puis expression FULLTEXT (livre,
+     * auteur) ; aucun si le filtre est vide.
+     * Les jokers saisis sont échappés : « 100% » cherche le texte « 100% ».
+     */
+    private static Object[] parametresFiltre(String filtre) {
+        if (filtre == null || filtre.trim().isEmpty()) {
+            return new Object[0];
+        }
+        String prefixe = filtre.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        String mots = expressionFiltre(filtre);
+        return new Object[]{prefixe, prefixe, prefixe, mots, mots};
+    }
+
+    /**
+     * Expression du mode booléen pour le filtre d'administration : chaque mot saisi est requis,
+     * comme début d'un mot (« hug miser » trouve « Les Misérables » de Victor Hugo). Aucun
+     * opérateur de la saisie n'est interprété. Comme pour tout index FULLTEXT, un mot plus
+     * court que innodb_ft_min_token_size ou un mot vide n'est pas cherché, et un fragment
+     * pris au milieu d'un mot (« sérables ») ne trouve rien.
+     */
+    static String expressionFiltre(String filtre) {
+        StringBuilder expression = new StringBuilder();
+        for (String mot : SEPARATEURS_MOTS.split(filtre.trim())) {
+            mot = mot.replaceAll("^'+|'+$", "");
+            if (!mot.isEmpty()) {
+                if (expression.length() > 0) {
+                    expression.append(' ');
+                }
+                expression.append('+').append(mot).append('*');
+            }
+        }
+        return expression.toString();
+    }
+
+    private <T> List<T> lister(String sql, JdbcStream.Mapper<T> mapper, String messageErreur, Object... parametres) {
+        List<T> resultats = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametres.length; i++) {
+                stmt.setObject(i + 1, parametres[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resultats.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(messageErreur + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return resultats;
+    }
+
+    private static String sqlPleinTexte(ModeRecherche mode) {
+        return mode == ModeRecherche.BOOLEEN ? SQL_BOOLEEN : SQL_NATUREL;
+    }
+
+    /**
+     * La même expression pour les quatre MATCH de SQL_PLEIN_TEXTE ; un mot-clé null ne trouve rien
+     */
+    private static Object[] parametresPleinTexte(String keyword, ModeRecherche mode) {
+        String expression = keyword != null ? keyword.trim() : "";
+        if (mode == ModeRecherche.BOOLEEN) {
+            expression = expressionBooleenne(expression);
+        }
+        return new Object[]{expression, expression, expression, expression};
+    }
+
+    /**
+     * Expression du mode booléen pour une saisie de l'utilisateur. Les opérateurs saisis
+     * sont gardés s'ils forment une expression valide ; sinon toute la saisie est cherchée
+     * comme du texte, et le dernier mot devient un préfixe (« hug » trouve « Hugo »).
+     * Un mot composé (« Jean-Paul ») devient une phrase : MySQL lirait « jean -paul ».
+     */
+    static String expressionBooleenne(String saisie) {
+        if (OPERATEURS_BOOLEENS.matcher(saisie).find()) {
+            String expression = expressionAvecOperateurs(saisie);
+            if (expression != null) {
+                return expression;
+            }
+        }
+        List<String> termes = new ArrayList<>();
+        for (String mot : saisie.trim().split("\\s+")) {
+            String terme = terme(mot);
+            if (terme != null) {
+                termes.add(terme);
+            }
+        }
+        int dernier = termes.size() - 1;
+        if (dernier >= 0 && !termes.get(dernier).startsWith("\"")) {
+            termes.set(dernier, termes.get(dernier) + "*");
+        }
+        return String.join(" ", termes);
+    }
+
+    /**
+     * L'expression avec ses opérateurs, chaque terme réduit à ses mots
+     * @return null si la syntaxe est invalide (guillemet ou parenthèse non fermé, opérateur seul)
+     */
+    private static String expressionAvecOperateurs(String saisie) {
+        List<String> jetons = new ArrayList<>();
+        int profondeur = 0;
+        Matcher matcher = JETON_BOOLEEN.matcher(saisie);
+        while (matcher.find()) {
+            String jeton = matcher.group();
+            if (jeton.equals("\"")) {
+                return null;
+            }
+            if (jeton.startsWith("\"")) {
+                String mots = String.join(" ", mots(jeton));
+                if (!mots.isEmpty()) {
+                    jetons.add("\"" + mots + "\"");
+                }
+            } else if (jeton.endsWith("(")) {
+                profondeur++;
+                jetons.add(jeton);
+            } else if (jeton.equals(")")) {
+                if (--profondeur < 0 || jetons.get(jetons.size() - 1).endsWith("(")) {
+                    return null;
+                }
+                jetons.add(jeton);
+            } else {
+                int debut = 0;
+                while (debut < jeton.length() && "+-~<>".indexOf(jeton.charAt(debut)) >= 0) {
+                    debut++;
+                }
+                String terme = terme(jeton.substring(debut));
+                if (terme == null) {
+                    return null;
+                }
+                // Un seul opérateur par terme : MySQL refuse « +-mot »
+                String operateur = debut > 0 ? jeton.substring(debut - 1, debut) : "";
+                boolean prefixe = jeton.endsWith("*") && !terme.startsWith("\"");
+                jetons.add(operateur + terme + (prefixe ? "*" : ""));
+            }
+        }
+        if (profondeur != 0 || jetons.isEmpty()) {
+            return null;
+        }
+        StringBuilder expression = new StringBuilder(jetons.get(0));
+        for (int i = 1; i < jetons.size(); i++) {
+            if (!jetons.get(i - 1).endsWith("(") && !jetons.get(i).equals(")")) {
+                expression.append(' ');
+            }
+            expression.append(jetons.get(i));
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Un mot saisi réduit à ses lettres et chiffres, entre guillemets s'il en contient plusieurs
+     * @return null s'il n'en contient aucun
+     */
+    private static String terme(String mot) {
+        List<String> mots = mots(mot);
+        if (mots.isEmpty()) {
+            return null;
+        }
+        return mots.size() == 1 ? mots.get(0) : "\"" + String.join(" ", mots) + "\"";
+    }
+
+    private static List<String> mots(String texte) {
+        List<String> mots = new ArrayList<>();
+        for (String mot : SEPARATEURS_MOTS.split(texte)) {
+            if (!mot.isEmpty()) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Livre livre) throws SQLException {
+        bindColonnes(stmt, livre);
+        stmt.setTimestamp(13, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Livre livre) throws SQLException {
+        bindColonnes(stmt, livre);
+        stmt.setLong(13, livre.getId());
+    }
+
+    /**
+     * Colonnes communes à l'insertion et à la mise à jour (paramètres 1 à 12)
+     */
+    private static void bindColonnes(PreparedStatement stmt, Livre livre) throws SQLException {
+        stmt.setString(1, livre.getIsbn());
+        stmt.setString(2, livre.getTitre());
+        stmt.setObject(3, livre.getAnneePublication());
+        stmt.setString(4, livre.getDescription());
+        stmt.setString(5, livre.getLangue());
+        stmt.setObject(6, livre.getNombrePages());
+        stmt.setString(7, livre.getCheminPdf());
+        stmt.setBoolean(8, livre.getDisponible() != null ? livre.getDisponible() : true);
+        stmt.setString(9, livre.getTypeLivre().name());
+        stmt.setDouble(10, livre.getPrix() != null ? livre.getPrix() : 0.0);
+        stmt.setLong(11, livre.getIdAuteur());
+        stmt.setLong(12, livre.getIdCategorie());
+    }
+
+    private LivreResume mapResultSetToResume(ResultSet rs) throws SQLException {
+        LivreResume resume = new LivreResume();
+        resume.setId(rs.getLong("id"));
+        resume.setTitre(rs.getString("titre"));
+
+        int annee = rs.getInt("annee_publication");
+        resume.setAnneePublication(rs.wasNull() ? null : annee);
+
+        resume.setTypeLivre(TypeLivre.valueOf(rs.getString("type_livre")));
+        resume.setPrix(rs.getDouble("prix"));
+        resume.setDisponible(rs.getBoolean("disponible"));
+        resume.setCheminPdf(rs.getString("chemin_pdf"));
+
+        Auteur auteur = ReferenceMap.auteur(rs.getLong("id_auteur"),
+                rs.getString("auteur_nom"), rs.getString("auteur_prenom"));
+        resume.setAuteur(auteur);
+
+        Categorie categorie = ReferenceMap.categorie(rs.getLong("id_categorie"), rs.getString("categorie_nom"));
+        resume.setCategorie(categorie);
+
+        return resume;
+    }
+
     private Livre mapResultSetToLivre(ResultSet rs) throws SQLException {
         Livre livre = new Livre();
         livre.setId(rs.getLong("id"));
@@ -295,16 +833,12 @@ public class LivreDAO implements DAO<Livre> {
         livre.setIdAuteur(rs.getLong("id_auteur"));
         livre.setIdCategorie(rs.getLong("id_categorie"));
 
-        // Créer les objets associés
-        Auteur auteur = new Auteur();
-        auteur.setId(rs.getLong("id_auteur"));
-        auteur.setNom(rs.getString("auteur_nom"));
-        auteur.setPrenom(rs.getString("auteur_prenom"));
+        // Objets associés partagés entre les lignes (voir ReferenceMap)
+        Auteur auteur = ReferenceMap.auteur(rs.getLong("id_auteur"),
+                rs.getString("auteur_nom"), rs.getString("auteur_prenom"));
         livre.setAuteur(auteur);
 
-        Categorie categorie = new Categorie();
-        categorie.setId(rs.getLong("id_categorie"));
-        categorie.setNom(rs.getString("categorie_nom"));
+        Categorie categorie = ReferenceMap.categorie(rs.getLong("id_categorie"), rs.getString("categorie_nom"));
         livre.setCategorie(categorie);
 
         return livre;
@@ -10,39 +10,19 @@ import java.util.List;
 
 public class MessageDAO implements DAO<Message> {
 
-    public MessageDAO() {
-        ensureTableExists();
-    }
+    // La table message est créée par MigrationRunner (V1) au démarrage
 
-    private void ensureTableExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS message (" +
-                "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
-                "id_utilisateur BIGINT NOT NULL, " +
-                "contenu TEXT NOT NULL, " +
-                "date_envoi DATETIME DEFAULT CURRENT_TIMESTAMP, " +
-                "FOREIGN KEY (id_utilisateur) REFERENCES Utilisateur(id) ON DELETE CASCADE" +
-                ")";
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-                Statement stmt = conn.createStatement()) {
-            System.out.println("DEBUG: Vérification/Création de la table 'message'...");
-            stmt.execute(sql);
-            System.out.println("DEBUG: Table 'message' opérationnelle.");
-        } catch (SQLException e) {
-            System.err.println("CRITICAL: Impossible de créer la table 'message' : " + e.getMessage());
-        }
-    }
+    private static final String SQL_INSERT = "INSERT INTO message (id_utilisateur, contenu, date_envoi) VALUES (?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE message SET contenu = ? WHERE id = ?";
 
     @Override
     public Message create(Message message) {
-        String sql = "INSERT INTO message (id_utilisateur, contenu, date_envoi) VALUES (?, ?, ?)";
         LocalDateTime now = LocalDateTime.now();
 
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setLong(1, message.getIdUtilisateur());
-            stmt.setString(2, message.getContenu());
-            stmt.setTimestamp(3, Timestamp.valueOf(now));
+            bindInsert(stmt, message, now);
 
             int affectedRows = stmt.executeUpdate();
 
@@ -141,15 +121,23 @@ public class MessageDAO implements DAO<Message> {
         return messages;
     }
 
+    /**
+     * Page de l'historique triée par id croissant (ordre chronologique),
+     * sans OFFSET : la clé primaire sert de point de reprise
+     * @param apresCle Jeton renvoyé par la page précédente, null pour la première
+     */
+    public Page<Message> findPage(String apresCle, int limite) {
+        return JdbcPage.parId("SELECT m.*, u.nom_utilisateur FROM message m " +
+                        "JOIN Utilisateur u ON m.id_utilisateur = u.id ", "m.id", true,
+                apresCle, limite, this::extractMessageFromResultSet, Message::getId, "des messages");
+    }
+
     @Override
     public Message update(Message message) {
-        String sql = "UPDATE message SET contenu = ? WHERE id = ?";
-
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+                PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
-            stmt.setString(1, message.getContenu());
-            stmt.setLong(2, message.getId());
+            bindUpdate(stmt, message);
 
             stmt.executeUpdate();
             return message;
@@ -178,6 +166,40 @@ public class MessageDAO implements DAO<Message> {
         }
     }
 
+    @Override
+    public List<Message> createAll(List<Message> messages, int tailleLot) {
+        LocalDateTime now = LocalDateTime.now();
+        return JdbcBatch.insert(SQL_INSERT, messages, tailleLot,
+                (stmt, message) -> bindInsert(stmt, message, now),
+                (message, id) -> {
+                    message.setId(id);
+                    message.setDateEnvoi(now);
+                },
+                "des messages");
+    }
+
+    @Override
+    public int updateAll(List<Message> messages, int tailleLot) {
+        return JdbcBatch.update(SQL_UPDATE, messages, tailleLot, MessageDAO::bindUpdate, "des messages");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        return JdbcBatch.deleteByIds("message", ids, tailleLot, "des messages");
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Message message, LocalDateTime dateEnvoi)
+            throws SQLException {
+        stmt.setLong(1, message.getIdUtilisateur());
+        stmt.setString(2, message.getContenu());
+        stmt.setTimestamp(3, Timestamp.valueOf(dateEnvoi));
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Message message) throws SQLException {
+        stmt.setString(1, message.getContenu());
+        stmt.setLong(2, message.getId());
+    }
+
     /**
      * Extraire un message depuis un ResultSet
      */
@@ -0,0 +1,16 @@
+package dao;
+
+/**
+ * Moteur utilisé pour la recherche du catalogue, choisi à l'exécution
+ * (LivreDAO.setModeRecherche ou -Dbibliotheque.recherche=naturel).
+ */
+public enum ModeRecherche {
+    /** Index inversé en mémoire du poste (CatalogueCache) ; la base répond en LIKE si le cache est inactif */
+    INDEX,
+    /** LIKE '%mot%' sur titre, description et auteur, sans index utilisable */
+    LIKE,
+    /** Index FULLTEXT MySQL, MATCH ... AGAINST en langage naturel, classé par pertinence */
+    NATUREL,
+    /** Index FULLTEXT MySQL en mode booléen : opérateurs + - "" * acceptés, dernier mot en préfixe */
+    BOOLEEN
+}
@@ -0,0 +1,82 @@
+package dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page de résultats obtenue par pagination par clé (keyset).
+ * Le jeton suivant est opaque pour l'appelant : il suffit de le repasser
+ * à findPage() pour obtenir la page d'après, null s'il n'y en a plus.
+ */
+public final class Page<T> {
+
+    /** Taille maximale d'une page, quelle que soit la limite demandée */
+    public static final int LIMITE_MAX = 1000;
+
+    private final List<T> elements;
+    private final String jetonSuivant;
+
+    public Page(List<T> elements, String jetonSuivant) {
+        this.elements = Collections.unmodifiableList(elements);
+        this.jetonSuivant = jetonSuivant;
+    }
+
+    public static <T> Page<T> vide() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    /**
+     * Construire une page à partir des lignes lues avec LIMIT limite + 1 :
+     * la ligne en trop indique seulement qu'une page suivante existe
+     */
+    static <T> Page<T> depuis(List<T> lignes, int limite, Function<T, String> cle) {
+        if (lignes.size() <= limite) {
+            return new Page<>(lignes, null);
+        }
+        List<T> contenu = lignes.subList(0, limite);
+        return new Page<>(contenu, cle.apply(contenu.get(limite - 1)));
+    }
+
+    /**
+     * Ramener la limite demandée dans [1, LIMITE_MAX]
+     */
+    static int bornerLimite(int limite) {
+        return Math.max(1, Math.min(limite, LIMITE_MAX));
+    }
+
+    /**
+     * Décoder un jeton réduit à un identifiant
+     * @return L'identifiant, ou null pour la première page
+     */
+    static Long decoderId(String jeton) {
+        if (jeton == null || jeton.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(jeton);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide : " + jeton, e);
+        }
+    }
+
+    public List<T> getElements() {
+        return elements;
+    }
+
+    public String getJetonSuivant() {
+        return jetonSuivant;
+    }
+
+    public boolean hasNext() {
+        return jetonSuivant != null;
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    public int size() {
+        return elements.size();
+    }
+}
@@ -15,27 +15,16 @@ public class PaiementDAO implements DAO<Paiement> {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private static final String SQL_INSERT = "INSERT INTO Paiement (id_utilisateur, id_livre, montant, date_paiement, " +
+            "statut, mode_paiement, reference_transaction) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE Paiement SET statut = ?, mode_paiement = ? WHERE id = ?";
+
     @Override
     public Paiement create(Paiement paiement) {
-        String sql = "INSERT INTO Paiement (id_utilisateur, id_livre, montant, date_paiement, " +
-                "statut, mode_paiement, reference_transaction) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            // Générer une référence si elle n'existe pas
-            if (paiement.getReferenceTransaction() == null) {
-                paiement.setReferenceTransaction("TRX-" + System.currentTimeMillis() + "-" +
-                        UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-            }
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setLong(1, paiement.getIdUtilisateur());
-            stmt.setLong(2, paiement.getIdLivre());
-            stmt.setDouble(3, paiement.getMontant());
-            stmt.setTimestamp(4, Timestamp.valueOf(paiement.getDatePaiement()));
-            stmt.setString(5, paiement.getStatut().name());
-            stmt.setString(6, paiement.getModePaiement());
-            stmt.setString(7, paiement.getReferenceTransaction());
+            bindInsert(stmt, paiement);
 
             int affected = stmt.executeUpdate();
 
@@ -93,16 +82,21 @@ public class PaiementDAO implements DAO<Paiement> {
         return paiements;
     }
 
+    /**
+     * Page de l'historique triée par id décroissant (plus récents d'abord),
+     * sans OFFSET : la clé primaire sert de point de reprise
+     * @param apresCle Jeton renvoyé par la page précédente, null pour la première
+     */
+    public Page<Paiement> findPage(String apresCle, int limite) {
+        return JdbcPage.parIdDecroissant("Paiement", apresCle, limite, this::mapResultSetToPaiement, Paiement::getId, "des paiements");
+    }
+
     @Override
     public Paiement update(Paiement paiement) {
-        String sql = "UPDATE Paiement SET statut = ?, mode_paiement = ? WHERE id = ?";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
-            stmt.setString(1, paiement.getStatut().name());
-            stmt.setString(2, paiement.getModePaiement());
-            stmt.setLong(3, paiement.getId());
+            bindUpdate(stmt, paiement);
 
             int affected = stmt.executeUpdate();
             if (affected > 0) {
@@ -131,6 +125,22 @@ public class PaiementDAO implements DAO<Paiement> {
         return false;
     }
 
+    @Override
+    public List<Paiement> createAll(List<Paiement> paiements, int tailleLot) {
+        return JdbcBatch.insert(SQL_INSERT, paiements, tailleLot, PaiementDAO::bindInsert, Paiement::setId,
+                "des paiements");
+    }
+
+    @Override
+    public int updateAll(List<Paiement> paiements, int tailleLot) {
+        return JdbcBatch.update(SQL_UPDATE, paiements, tailleLot, PaiementDAO::bindUpdate, "des paiements");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        return JdbcBatch.deleteByIds("Paiement", ids, tailleLot, "des paiements");
+    }
+
     public boolean hasUserPaidForBook(Long idUtilisateur, Long idLivre) {
         String sql = "SELECT COUNT(*) FROM Paiement WHERE id_utilisateur = ? AND id_livre = ? AND statut = 'PAYE'";
 
@@ -283,6 +293,28 @@ public class PaiementDAO implements DAO<Paiement> {
         return paiements;
     }
 
+    private static void bindInsert(PreparedStatement stmt, Paiement paiement) throws SQLException {
+        // Générer une référence si elle n'existe pas
+        if (paiement.getReferenceTransaction() == null) {
+            paiement.setReferenceTransaction("TRX-" + System.currentTimeMillis() + "-" +
+                    UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        }
+
+        stmt.setLong(1, paiement.getIdUtilisateur());
+        stmt.setLong(2, paiement.getIdLivre());
+        stmt.setDouble(3, paiement.getMontant());
+        stmt.setTimestamp(4, Timestamp.valueOf(paiement.getDatePaiement()));
+        stmt.setString(5, paiement.getStatut().name());
+        stmt.setString(6, paiement.getModePaiement());
+        stmt.setString(7, paiement.getReferenceTransaction());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Paiement paiement) throws SQLException {
+        stmt.setString(1, paiement.getStatut().name());
+        stmt.setString(2, paiement.getModePaiement());
+        stmt.setLong(3, paiement.getId());
+    }
+
     private Paiement mapResultSetToPaiement(ResultSet rs) throws SQLException {
         Paiement paiement = new Paiement();
         paiement.setId(rs.getLong("id"));
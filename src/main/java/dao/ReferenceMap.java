@@ -0,0 +1,73 @@
+package dao;
+
+import model.Auteur;
+import model.Categorie;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carte d'identité des auteurs et catégories référencés par les lignes de livres.
+ * Toutes les lignes qui pointent vers le même auteur (ou la même catégorie)
+ * partagent une seule instance au lieu d'en allouer une par ligne.
+ * Ces instances sont partagées : elles ne doivent pas être modifiées par l'appelant.
+ * AuteurDAO et CategorieDAO invalident l'entrée correspondante à chaque écriture.
+ */
+final class ReferenceMap {
+
+    private static final Map<Long, Auteur> AUTEURS = new ConcurrentHashMap<>();
+    private static final Map<Long, Categorie> CATEGORIES = new ConcurrentHashMap<>();
+
+    private ReferenceMap() {
+    }
+
+    /**
+     * Instance canonique de l'auteur. Si les colonnes lues diffèrent de l'instance
+     * en cache (modification faite hors de l'application), elle est remplacée.
+     */
+    static Auteur auteur(long id, String nom, String prenom) {
+        Auteur auteur = AUTEURS.get(id);
+        if (auteur != null && Objects.equals(auteur.getNom(), nom) && Objects.equals(auteur.getPrenom(), prenom)) {
+            return auteur;
+        }
+        auteur = new Auteur();
+        auteur.setId(id);
+        auteur.setNom(nom);
+        auteur.setPrenom(prenom);
+        AUTEURS.put(id, auteur);
+        return auteur;
+    }
+
+    static Categorie categorie(long id, String nom) {
+        Categorie categorie = CATEGORIES.get(id);
+        if (categorie != null && Objects.equals(categorie.getNom(), nom)) {
+            return categorie;
+        }
+        categorie = new Categorie();
+        categorie.setId(id);
+        categorie.setNom(nom);
+        CATEGORIES.put(id, categorie);
+        return categorie;
+    }
+
+    static void invaliderAuteur(Long id) {
+        if (id != null) {
+            AUTEURS.remove(id);
+        }
+    }
+
+    static void invaliderCategorie(Long id) {
+        if (id != null) {
+            CATEGORIES.remove(id);
+        }
+    }
+
+    static void viderAuteurs() {
+        AUTEURS.clear();
+    }
+
+    static void viderCategories() {
+        CATEGORIES.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package dao;
+
+import model.StatistiquesBibliotheque;
+import util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lecture des compteurs de la bibliothèque en un seul aller-retour :
+ * agrégation conditionnelle sur Livre et sous-requêtes scalaires pour le reste
+ */
+public class StatistiquesDAO {
+
+    private static final String SQL_STATISTIQUES = "SELECT COUNT(*) AS total_livres, " +
+            "COALESCE(SUM(CASE WHEN l.type_livre = 'GRATUIT' THEN 1 ELSE 0 END), 0) AS livres_gratuits, " +
+            "COALESCE(SUM(CASE WHEN l.type_livre = 'PAYANT' THEN 1 ELSE 0 END), 0) AS livres_payants, " +
+            "(SELECT COUNT(*) FROM Auteur) AS total_auteurs, " +
+            "(SELECT COUNT(*) FROM Categorie) AS total_categories, " +
+            "(SELECT COUNT(*) FROM Telechargement WHERE autorise = true) AS total_telechargements, " +
+            "(SELECT COALESCE(SUM(montant), 0) FROM Paiement WHERE statut = 'PAYE') AS total_ventes " +
+            "FROM Livre l";
+
+    // Une lecture compte 1, un téléchargement autorisé 2
+    private static final String SQL_POPULARITES = "SELECT id_livre, SUM(points) AS popularite FROM (" +
+            "SELECT id_livre, COUNT(*) AS points FROM Consultation GROUP BY id_livre " +
+            "UNION ALL " +
+            "SELECT id_livre, 2 * COUNT(*) FROM Telechargement WHERE autorise = true GROUP BY id_livre" +
+            ") p GROUP BY id_livre";
+
+    private Connection getConnection() throws SQLException {
+        return DatabaseConnection.getInstance().getConnection();
+    }
+
+    /**
+     * @return Les statistiques, ou null en cas d'erreur
+     */
+    public StatistiquesBibliotheque lireStatistiques() {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_STATISTIQUES);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                return new StatistiquesBibliotheque(
+                        rs.getInt("total_livres"),
+                        rs.getInt("livres_gratuits"),
+                        rs.getInt("livres_payants"),
+                        rs.getInt("total_auteurs"),
+                        rs.getInt("total_categories"),
+                        rs.getInt("total_telechargements"),
+                        rs.getDouble("total_ventes"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du calcul des statistiques: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Popularité de chaque livre consulté ou téléchargé
+     * @return id du livre -> popularité ; vide en cas d'erreur
+     */
+    public Map<Long, Integer> lirePopularites() {
+        Map<Long, Integer> popularites = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POPULARITES);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                popularites.put(rs.getLong("id_livre"), rs.getInt("popularite"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du calcul des popularités: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return popularites;
+    }
+}
\ No newline at end of file
@@ -6,6 +6,8 @@ import util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class TelechargementDAO implements DAO<Telechargement> {
 
@@ -13,23 +15,16 @@ public class TelechargementDAO implements DAO<Telechargement> {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private static final String SQL_INSERT = "INSERT INTO Telechargement (id_utilisateur, id_livre, date_telechargement, autorise, id_paiement) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE Telechargement SET autorise = ?, id_paiement = ? WHERE id = ?";
+
     @Override
     public Telechargement create(Telechargement telechargement) {
-        String sql = "INSERT INTO Telechargement (id_utilisateur, id_livre, date_telechargement, autorise, id_paiement) " +
-                "VALUES (?, ?, ?, ?, ?)";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setLong(1, telechargement.getIdUtilisateur());
-            stmt.setLong(2, telechargement.getIdLivre());
-            stmt.setTimestamp(3, Timestamp.valueOf(telechargement.getDateTelechargement()));
-            stmt.setBoolean(4, telechargement.getAutorise());
-            if (telechargement.getIdPaiement() != null) {
-                stmt.setLong(5, telechargement.getIdPaiement());
-            } else {
-                stmt.setNull(5, Types.BIGINT);
-            }
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindInsert(stmt, telechargement);
 
             int affected = stmt.executeUpdate();
 
@@ -87,20 +82,38 @@ public class TelechargementDAO implements DAO<Telechargement> {
         return telechargements;
     }
 
+    /**
+     * Page de l'historique triée par id décroissant (plus récents d'abord),
+     * sans OFFSET : la clé primaire sert de point de reprise
+     * @param apresCle Jeton renvoyé par la page précédente, null pour la première
+     */
+    public Page<Telechargement> findPage(String apresCle, int limite) {
+        return JdbcPage.parIdDecroissant("Telechargement", apresCle, limite, this::mapResultSetToTelechargement, Telechargement::getId, "des téléchargements");
+    }
+
+    /**
+     * Parcourir toute la table en flux, par id croissant, sans la charger en mémoire.
+     * Le flux garde une connexion du pool : le fermer avec un try-with-resources.
+     */
+    public Stream<Telechargement> stream() {
+        return JdbcStream.stream("SELECT * FROM Telechargement ORDER BY id", this::mapResultSetToTelechargement, "des téléchargements");
+    }
+
+    /**
+     * Appliquer une action à chaque ligne de la table, lue en flux
+     */
+    public void forEach(Consumer<Telechargement> action) {
+        try (Stream<Telechargement> telechargements = stream()) {
+            telechargements.forEach(action);
+        }
+    }
+
     @Override
     public Telechargement update(Telechargement telechargement) {
-        String sql = "UPDATE Telechargement SET autorise = ?, id_paiement = ? WHERE id = ?";
-
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
 
-            stmt.setBoolean(1, telechargement.getAutorise());
-            if (telechargement.getIdPaiement() != null) {
-                stmt.setLong(2, telechargement.getIdPaiement());
-            } else {
-                stmt.setNull(2, Types.BIGINT);
-            }
-            stmt.setLong(3, telechargement.getId());
+            bindUpdate(stmt, telechargement);
 
             int affected = stmt.executeUpdate();
             if (affected > 0) {
@@ -129,6 +142,23 @@ public class TelechargementDAO implements DAO<Telechargement> {
         return false;
     }
 
+    @Override
+    public List<Telechargement> createAll(List<Telechargement> telechargements, int tailleLot) {
+        return JdbcBatch.insert(SQL_INSERT, telechargements, tailleLot, TelechargementDAO::bindInsert,
+                Telechargement::setId, "des téléchargements");
+    }
+
+    @Override
+    public int updateAll(List<Telechargement> telechargements, int tailleLot) {
+        return JdbcBatch.update(SQL_UPDATE, telechargements, tailleLot, TelechargementDAO::bindUpdate,
+                "des téléchargements");
+    }
+
+    @Override
+    public int deleteAll(List<Long> ids, int tailleLot) {
+        return JdbcBatch.deleteByIds("Telechargement", ids, tailleLot, "des téléchargements");
+    }
+
     public boolean canUserDownload(Long idUtilisateur, Long idLivre) {
         // Vérifier d'abord s'il existe déjà un téléchargement autorisé
         String sql = "SELECT COUNT(*) FROM Telechargement WHERE id_utilisateur = ? AND id_livre = ? AND autorise = true";
@@ -276,6 +306,28 @@ public class TelechargementDAO implements DAO<Telechargement> {
         return telechargements;
     }
 
+    private static void bindInsert(PreparedStatement stmt, Telechargement telechargement) throws SQLException {
+        stmt.setLong(1, telechargement.getIdUtilisateur());
+        stmt.setLong(2, telechargement.getIdLivre());
+        stmt.setTimestamp(3, Timestamp.valueOf(telechargement.getDateTelechargement()));
+        stmt.setBoolean(4, telechargement.getAutorise());
+        if (telechargement.getIdPaiement() != null) {
+            stmt.setLong(5, telechargement.getIdPaiement());
+        } else {
+            stmt.setNull(5, Types.BIGINT);
+        }
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Telechargement telechargement) throws SQLException {
+        stmt.setBoolean(1, telechargement.getAutorise());
+        if (telechargement.getIdPaiement() != null) {
+            stmt.setLong(2, telechargement.getIdPaiement());
+        } else {
+            stmt.setNull(2, Types.BIGINT);
+        }
+        stmt.setLong(3, telechargement.getId());
+    }
+
     private Telechargement mapResultSetToTelechargement(ResultSet rs) throws SQLException {
         Telechargement telechargement = new Telechargement();
         telechargement.setId(rs.getLong("id"));
@@ -0,0 +1,30 @@
+package dao;
+
+/**
+ * Colonnes de tri de la table d'administration des auteurs (AuteurDAO.findFenetre).
+ * La biographie, texte long, n'est pas triable.
+ */
+public enum TriAuteur {
+    ID("id"),
+    NOM("nom", "prenom"),
+    PRENOM("prenom", "nom");
+
+    private final String[] colonnes;
+
+    TriAuteur(String... colonnes) {
+        this.colonnes = colonnes;
+    }
+
+    /**
+     * Clause ORDER BY, complétée par l'id pour un ordre total
+     * @param alias Préfixe des colonnes (« a. »), vide pour la table seule
+     */
+    String orderBy(String alias, boolean croissant) {
+        String sens = croissant ? " ASC" : " DESC";
+        StringBuilder sql = new StringBuilder("ORDER BY ");
+        for (String colonne : colonnes) {
+            sql.append(alias).append(colonne).append(sens).append(", ");
+        }
+        return sql.append(alias).append("id").append(sens).toString();
+    }
+}
@@ -0,0 +1,45 @@
+package dao;
+
+/**
+ * Colonnes de tri de la table d'administration des livres (LivreDAO.findFenetre).
+ * Seules ces expressions SQL peuvent être placées dans l'ORDER BY : le choix
+ * de l'utilisateur n'est jamais concaténé tel quel à la requête.
+ */
+public enum TriLivre {
+    ID(false, "l.id"),
+    ISBN(false, "l.isbn"),
+    TITRE(false, "l.titre"),
+    AUTEUR(true, "a.nom", "a.prenom"),
+    CATEGORIE(true, "c.nom"),
+    ANNEE(false, "l.annee_publication"),
+    TYPE(false, "l.type_livre"),
+    PRIX(false, "l.prix"),
+    DISPONIBLE(false, "l.disponible");
+
+    private final boolean jointure;
+    private final String[] colonnes;
+
+    TriLivre(boolean jointure, String... colonnes) {
+        this.jointure = jointure;
+        this.colonnes = colonnes;
+    }
+
+    /**
+     * @return true si le tri porte sur l'auteur ou la catégorie, à joindre avant de trier
+     */
+    boolean avecJointure() {
+        return jointure;
+    }
+
+    /**
+     * Clause ORDER BY, complétée par l'id pour un ordre total (pages sans doublon ni trou)
+     */
+    String orderBy(boolean croissant) {
+        String sens = croissant ? " ASC" : " DESC";
+        StringBuilder sql = new StringBuilder("ORDER BY ");
+        for (String colonne : colonnes) {
+            sql.append(colonne).append(sens).append(", ");
+        }
+        return sql.append("l.id").append(sens).toString();
+    }
+}
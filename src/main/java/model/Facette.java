@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Critères de filtrage du catalogue proposés à côté des résultats
+ */
+public enum Facette {
+    CATEGORIE("Catégorie"),
+    TYPE("Type"),
+    LANGUE("Langue"),
+    DISPONIBILITE("Disponibilité"),
+    DECENNIE("Décennie");
+
+    private final String libelle;
+
+    Facette(String libelle) {
+        this.libelle = libelle;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Vue allégée d'un livre pour les cartes du catalogue : seulement les colonnes
+ * affichées, sans la description ni les autres champs de la fiche détaillée.
+ * Le Livre complet est chargé à l'ouverture des détails.
+ */
+public class LivreResume {
+    private Long id;
+    private String titre;
+    private Integer anneePublication;
+    private TypeLivre typeLivre;
+    private Double prix;
+    private Boolean disponible;
+    private String cheminPdf;
+
+    // Objets associés (pour faciliter l'affichage)
+    private Auteur auteur;
+    private Categorie categorie;
+
+    public LivreResume() {
+        this.disponible = true;
+        this.typeLivre = TypeLivre.GRATUIT;
+        this.prix = 0.0;
+    }
+
+    /**
+     * Résumé d'un livre déjà chargé en entier (par exemple depuis le cache du catalogue)
+     */
+    public static LivreResume depuis(Livre livre) {
+        LivreResume resume = new LivreResume();
+        resume.setId(livre.getId());
+        resume.setTitre(livre.getTitre());
+        resume.setAnneePublication(livre.getAnneePublication());
+        resume.setTypeLivre(livre.getTypeLivre());
+        resume.setPrix(livre.getPrix());
+        resume.setDisponible(livre.getDisponible());
+        resume.setCheminPdf(livre.getCheminPdf());
+        resume.setAuteur(livre.getAuteur());
+        resume.setCategorie(livre.getCategorie());
+        return resume;
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitre() { return titre; }
+    public void setTitre(String titre) { this.titre = titre; }
+
+    public Integer getAnneePublication() { return anneePublication; }
+    public void setAnneePublication(Integer anneePublication) { this.anneePublication = anneePublication; }
+
+    public TypeLivre getTypeLivre() { return typeLivre; }
+    public void setTypeLivre(TypeLivre typeLivre) { this.typeLivre = typeLivre; }
+
+    public Double getPrix() { return prix; }
+    public void setPrix(Double prix) { this.prix = prix; }
+
+    public Boolean getDisponible() { return disponible; }
+    public void setDisponible(Boolean disponible) { this.disponible = disponible; }
+
+    public String getCheminPdf() { return cheminPdf; }
+    public void setCheminPdf(String cheminPdf) { this.cheminPdf = cheminPdf; }
+
+    public Auteur getAuteur() { return auteur; }
+    public void setAuteur(Auteur auteur) { this.auteur = auteur; }
+
+    public Categorie getCategorie() { return categorie; }
+    public void setCategorie(Categorie categorie) { this.categorie = categorie; }
+
+    public boolean isGratuit() {
+        return typeLivre == TypeLivre.GRATUIT;
+    }
+
+    public boolean isPayant() {
+        return typeLivre == TypeLivre.PAYANT;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LivreResume resume = (LivreResume) o;
+        return Objects.equals(id, resume.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "LivreResume{" +
+                "titre='" + titre + '\'' +
+                ", auteur=" + (auteur != null ? auteur.getNomComplet() : "N/A") +
+                ", type=" + typeLivre +
+                ", prix=" + prix +
+                '}';
+    }
+}
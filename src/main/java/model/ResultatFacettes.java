@@ -0,0 +1,53 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résultat d'une recherche à facettes : les livres retenus par les filtres et,
+ * pour chaque facette, le nombre de livres par valeur.
+ * Le nombre affiché pour une valeur est celui qu'on obtiendrait en la cochant
+ * en plus des filtres des autres facettes.
+ */
+public class ResultatFacettes {
+    private final List<LivreResume> livres;
+    private final int nombreLivres;
+    private final Map<Facette, Map<String, Integer>> comptes;
+
+    public ResultatFacettes(List<LivreResume> livres, Map<Facette, Map<String, Integer>> comptes) {
+        this(livres, livres.size(), comptes);
+    }
+
+    /**
+     * Comptes seuls, calculés en base : les livres sont lus page par page
+     */
+    public ResultatFacettes(int nombreLivres, Map<Facette, Map<String, Integer>> comptes) {
+        this(Collections.emptyList(), nombreLivres, comptes);
+    }
+
+    private ResultatFacettes(List<LivreResume> livres, int nombreLivres, Map<Facette, Map<String, Integer>> comptes) {
+        this.livres = livres;
+        this.nombreLivres = nombreLivres;
+        this.comptes = comptes;
+    }
+
+    /**
+     * @return Les livres retenus, vide si seuls les comptes ont été calculés
+     */
+    public List<LivreResume> getLivres() { return livres; }
+
+    /**
+     * @return Le nombre de livres retenus par les filtres
+     */
+    public int getNombreLivres() { return nombreLivres; }
+
+    public Map<Facette, Map<String, Integer>> getComptes() { return comptes; }
+
+    /**
+     * @return Valeur -> nombre de livres pour une facette, dans l'ordre d'affichage
+     */
+    public Map<String, Integer> getComptes(Facette facette) {
+        return comptes.getOrDefault(facette, Collections.emptyMap());
+    }
+}
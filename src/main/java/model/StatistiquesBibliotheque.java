@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * Compteurs du tableau de bord administrateur, calculés en une seule requête
+ */
+public class StatistiquesBibliotheque {
+    private final int totalLivres;
+    private final int livresGratuits;
+    private final int livresPayants;
+    private final int totalAuteurs;
+    private final int totalCategories;
+    private final int totalTelechargements;
+    private final double totalVentes;
+
+    public StatistiquesBibliotheque(int totalLivres, int livresGratuits, int livresPayants, int totalAuteurs,
+                                    int totalCategories, int totalTelechargements, double totalVentes) {
+        this.totalLivres = totalLivres;
+        this.livresGratuits = livresGratuits;
+        this.livresPayants = livresPayants;
+        this.totalAuteurs = totalAuteurs;
+        this.totalCategories = totalCategories;
+        this.totalTelechargements = totalTelechargements;
+        this.totalVentes = totalVentes;
+    }
+
+    public int getTotalLivres() { return totalLivres; }
+    public int getLivresGratuits() { return livresGratuits; }
+    public int getLivresPayants() { return livresPayants; }
+    public int getTotalAuteurs() { return totalAuteurs; }
+    public int getTotalCategories() { return totalCategories; }
+    public int getTotalTelechargements() { return totalTelechargements; }
+    public double getTotalVentes() { return totalVentes; }
+
+    @Override
+    public String toString() {
+        return "StatistiquesBibliotheque{" +
+                "livres=" + totalLivres +
+                ", gratuits=" + livresGratuits +
+                ", payants=" + livresPayants +
+                ", auteurs=" + totalAuteurs +
+                ", categories=" + totalCategories +
+                ", telechargements=" + totalTelechargements +
+                ", ventes=" + totalVentes +
+                '}';
+    }
+}
@@ -0,0 +1,163 @@
+package service;
+
+import dao.StatistiquesDAO;
+import model.Auteur;
+import model.Livre;
+import model.LivreResume;
+import util.AsyncExecutor;
+import util.TextNormalizer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Suggestions de la barre de recherche : titres et noms d'auteurs qui commencent
+ * par la saisie, classés par popularité (lectures et téléchargements).
+ *
+ * Le trie est construit en arrière-plan au premier besoin, complété livre par
+ * livre à chaque ajout et reconstruit après DUREE_VALIDITE_MS ou une modification.
+ * Tant qu'il n'est pas prêt, aucune suggestion n'est proposée.
+ * Elle ne contient AUCUN code JavaFX.
+ */
+public class AutocompletionService {
+
+    /** Nombre de suggestions proposées par défaut */
+    public static final int NB_SUGGESTIONS_DEFAUT = 8;
+
+    /** Délai avant reconstruction complète (popularités, titres modifiés) */
+    private static final long DUREE_VALIDITE_MS = 5 * 60_000;
+
+    private static AutocompletionService instance;
+
+    private final LivreService livreService;
+    private final StatistiquesDAO statistiquesDAO;
+
+    private volatile TriePrefixes trie; // null : jamais construit
+    private volatile long construitLe;   // 0 : à reconstruire
+    private final AtomicBoolean constructionEnCours = new AtomicBoolean();
+
+    private AutocompletionService() {
+        this.livreService = new LivreService();
+        this.statistiquesDAO = new StatistiquesDAO();
+    }
+
+    public static synchronized AutocompletionService getInstance() {
+        if (instance == null) {
+            instance = new AutocompletionService();
+        }
+        return instance;
+    }
+
+    /**
+     * Lancer la construction sans attendre, pour que les suggestions soient
+     * prêtes à la première frappe
+     */
+    public void preparer() {
+        if (trie == null || construitLe == 0) {
+            construireEnArrierePlan();
+        }
+    }
+
+    public List<String> suggerer(String saisie) {
+        return suggerer(saisie, NB_SUGGESTIONS_DEFAUT);
+    }
+
+    /**
+     * Les meilleures complétions de la saisie, sans accès à la base : appelable
+     * depuis le thread de l'interface
+     *
+     * @param saisie Texte tapé par l'utilisateur
+     * @param nombre Nombre maximal de suggestions
+     * @return Libellés à proposer, du plus populaire au moins populaire
+     */
+    public List<String> suggerer(String saisie, int nombre) {
+        TriePrefixes courant = trie;
+        if (courant == null || construitLe == 0
+                || System.currentTimeMillis() >= construitLe + DUREE_VALIDITE_MS) {
+            construireEnArrierePlan(); // l'ancien trie répond pendant la reconstruction
+        }
+        if (courant == null || saisie == null) {
+            return Collections.emptyList();
+        }
+        String prefixe = cle(saisie);
+        if (saisie.endsWith(" ") && !prefixe.isEmpty()) {
+            prefixe += " "; // « victor » puis espace : attendre le mot suivant
+        }
+        return courant.meilleurs(prefixe, nombre);
+    }
+
+    /**
+     * Ajouter les clés d'un nouveau livre au trie existant
+     */
+    public void ajouter(Livre livre) {
+        TriePrefixes courant = trie;
+        if (courant != null && livre != null) {
+            indexer(courant, livre.getTitre(), livre.getAuteur(), 0);
+        }
+    }
+
+    /**
+     * Reconstruire au prochain appel (titre modifié, livre supprimé)
+     */
+    public void invalider() {
+        construitLe = 0;
+    }
+
+    private void construireEnArrierePlan() {
+        if (constructionEnCours.compareAndSet(false, true)) {
+            AsyncExecutor.run(() -> {
+                try {
+                    construire();
+                } finally {
+                    constructionEnCours.set(false);
+                }
+            });
+        }
+    }
+
+    private void construire() {
+        List<LivreResume> livres = livreService.recupererTousLesResumes();
+        if (livres.isEmpty()) {
+            return; // base vide ou inaccessible : on réessaiera à la prochaine saisie
+        }
+        Map<Long, Integer> popularites = statistiquesDAO.lirePopularites();
+
+        TriePrefixes nouveau = new TriePrefixes();
+        for (LivreResume livre : livres) {
+            indexer(nouveau, livre.getTitre(), livre.getAuteur(), popularites.getOrDefault(livre.getId(), 0));
+        }
+        nouveau.compacter();
+        trie = nouveau;
+        construitLe = System.currentTimeMillis();
+    }
+
+    /**
+     * Clés d'un livre : le titre, le titre sans son article (« miserables »),
+     * et l'auteur dans les deux ordres ; un auteur cumule la popularité de ses livres
+     */
+    private static void indexer(TriePrefixes trie, String titre, Auteur auteur, int popularite) {
+        if (titre != null) {
+            List<String> mots = TextNormalizer.mots(titre);
+            trie.ajouter(String.join(" ", mots), titre, popularite);
+            int premier = 0;
+            while (premier < mots.size() - 1 && TextNormalizer.estMotVide(mots.get(premier))) {
+                premier++;
+            }
+            if (premier > 0) {
+                trie.ajouter(String.join(" ", mots.subList(premier, mots.size())), titre, popularite);
+            }
+        }
+        if (auteur != null && auteur.getNom() != null) {
+            String prenom = auteur.getPrenom() != null ? auteur.getPrenom() : "";
+            String nomComplet = (prenom + " " + auteur.getNom()).trim();
+            trie.ajouter(cle(prenom + " " + auteur.getNom()), nomComplet, popularite);
+            trie.ajouter(cle(auteur.getNom() + " " + prenom), nomComplet, popularite);
+        }
+    }
+
+    private static String cle(String texte) {
+        return String.join(" ", TextNormalizer.mots(texte));
+    }
+}
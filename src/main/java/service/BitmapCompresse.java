@@ -0,0 +1,491 @@
+package service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Ensemble d'entiers positifs compressé à la manière des « roaring bitmaps » :
+ * les 16 bits de poids fort choisissent un conteneur, les 16 bits de poids
+ * faible sont rangés dans ce conteneur, soit un tableau trié (peu de valeurs),
+ * soit une table de 65536 bits (beaucoup de valeurs).
+ *
+ * Un ensemble creux coûte 2 octets par valeur, un ensemble dense 1 bit par
+ * valeur, et les opérations ET / OU / SAUF travaillent conteneur par conteneur
+ * sans jamais décompresser.
+ * Non synchronisée : construite une fois puis seulement lue.
+ */
+final class BitmapCompresse {
+
+    /** Au-delà, un tableau trié coûte plus cher que la table de bits (8 Ko) */
+    private static final int MAX_TABLEAU = 4096;
+
+    private char[] cles;
+    private Conteneur[] conteneurs;
+    private int nbConteneurs;
+
+    BitmapCompresse() {
+        this(4);
+    }
+
+    private BitmapCompresse(int capacite) {
+        cles = new char[capacite];
+        conteneurs = new Conteneur[capacite];
+    }
+
+    /**
+     * Ensemble des entiers de 0 (inclus) à fin (exclu)
+     */
+    static BitmapCompresse plage(int fin) {
+        BitmapCompresse plage = new BitmapCompresse();
+        for (int debut = 0; debut < fin; debut += 1 << 16) {
+            int nombre = Math.min(1 << 16, fin - debut);
+            ConteneurBits bits = new ConteneurBits();
+            for (int mot = 0; mot < nombre >>> 6; mot++) {
+                bits.mots[mot] = -1L;
+            }
+            if ((nombre & 63) != 0) {
+                bits.mots[nombre >>> 6] = (1L << (nombre & 63)) - 1;
+            }
+            bits.cardinalite = nombre;
+            plage.ajouterConteneur((char) (debut >>> 16), bits.optimiser());
+        }
+        return plage;
+    }
+
+    void ajouter(int valeur) {
+        char cle = (char) (valeur >>> 16);
+        int i = nbConteneurs > 0 && cles[nbConteneurs - 1] == cle
+                ? nbConteneurs - 1 // ajout dans l'ordre croissant : cas de la construction
+                : Arrays.binarySearch(cles, 0, nbConteneurs, cle);
+        if (i < 0) {
+            i = -i - 1;
+            insererConteneur(i, cle, new ConteneurTableau());
+        }
+        conteneurs[i] = conteneurs[i].ajouter((char) valeur);
+    }
+
+    boolean contient(int valeur) {
+        int i = Arrays.binarySearch(cles, 0, nbConteneurs, (char) (valeur >>> 16));
+        return i >= 0 && conteneurs[i].contient((char) valeur);
+    }
+
+    int cardinalite() {
+        int total = 0;
+        for (int i = 0; i < nbConteneurs; i++) {
+            total += conteneurs[i].cardinalite();
+        }
+        return total;
+    }
+
+    boolean estVide() {
+        return nbConteneurs == 0;
+    }
+
+    BitmapCompresse et(BitmapCompresse autre) {
+        BitmapCompresse resultat = new BitmapCompresse(Math.min(nbConteneurs, autre.nbConteneurs) + 1);
+        int i = 0;
+        int j = 0;
+        while (i < nbConteneurs && j < autre.nbConteneurs) {
+            if (cles[i] < autre.cles[j]) {
+                i++;
+            } else if (cles[i] > autre.cles[j]) {
+                j++;
+            } else {
+                Conteneur commun = conteneurs[i].et(autre.conteneurs[j]);
+                if (commun.cardinalite() > 0) {
+                    resultat.ajouterConteneur(cles[i], commun);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultat;
+    }
+
+    BitmapCompresse ou(BitmapCompresse autre) {
+        BitmapCompresse resultat = new BitmapCompresse(nbConteneurs + autre.nbConteneurs + 1);
+        int i = 0;
+        int j = 0;
+        while (i < nbConteneurs || j < autre.nbConteneurs) {
+            if (j == autre.nbConteneurs || (i < nbConteneurs && cles[i] < autre.cles[j])) {
+                resultat.ajouterConteneur(cles[i], conteneurs[i]);
+                i++;
+            } else if (i == nbConteneurs || cles[i] > autre.cles[j]) {
+                resultat.ajouterConteneur(autre.cles[j], autre.conteneurs[j]);
+                j++;
+            } else {
+                resultat.ajouterConteneur(cles[i], conteneurs[i].ou(autre.conteneurs[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Les valeurs de cet ensemble absentes de l'autre
+     */
+    BitmapCompresse sauf(BitmapCompresse autre) {
+        BitmapCompresse resultat = new BitmapCompresse(nbConteneurs + 1);
+        int j = 0;
+        for (int i = 0; i < nbConteneurs; i++) {
+            while (j < autre.nbConteneurs && autre.cles[j] < cles[i]) {
+                j++;
+            }
+            if (j < autre.nbConteneurs && autre.cles[j] == cles[i]) {
+                Conteneur reste = conteneurs[i].sauf(autre.conteneurs[j]);
+                if (reste.cardinalite() > 0) {
+                    resultat.ajouterConteneur(cles[i], reste);
+                }
+            } else {
+                resultat.ajouterConteneur(cles[i], conteneurs[i]);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Parcourir les valeurs dans l'ordre croissant
+     */
+    void pourChaque(IntConsumer action) {
+        for (int i = 0; i < nbConteneurs; i++) {
+            conteneurs[i].pourChaque(cles[i] << 16, action);
+        }
+    }
+
+    /**
+     * Mémoire occupée par les conteneurs, en octets
+     */
+    long tailleOctets() {
+        long total = (long) cles.length * Character.BYTES + (long) conteneurs.length * 4;
+        for (int i = 0; i < nbConteneurs; i++) {
+            total += conteneurs[i].tailleOctets();
+        }
+        return total;
+    }
+
+    /**
+     * Les conteneurs sont partagés entre ensembles : ils ne sont jamais modifiés
+     * une fois sortis de la construction
+     */
+    private void ajouterConteneur(char cle, Conteneur conteneur) {
+        insererConteneur(nbConteneurs, cle, conteneur);
+    }
+
+    private void insererConteneur(int position, char cle, Conteneur conteneur) {
+        if (nbConteneurs == cles.length) {
+            cles = Arrays.copyOf(cles, cles.length * 2);
+            conteneurs = Arrays.copyOf(conteneurs, conteneurs.length * 2);
+        }
+        System.arraycopy(cles, position, cles, position + 1, nbConteneurs - position);
+        System.arraycopy(conteneurs, position, conteneurs, position + 1, nbConteneurs - position);
+        cles[position] = cle;
+        conteneurs[position] = conteneur;
+        nbConteneurs++;
+    }
+
+    // ==================== CONTENEURS ====================
+
+    private abstract static class Conteneur {
+        abstract Conteneur ajouter(char valeur);
+
+        abstract boolean contient(char valeur);
+
+        abstract int cardinalite();
+
+        abstract Conteneur et(Conteneur autre);
+
+        abstract Conteneur ou(Conteneur autre);
+
+        abstract Conteneur sauf(Conteneur autre);
+
+        abstract void pourChaque(int haut, IntConsumer action);
+
+        abstract long tailleOctets();
+    }
+
+    /**
+     * Valeurs triées, pour un conteneur peu rempli
+     */
+    private static final class ConteneurTableau extends Conteneur {
+        char[] valeurs;
+        int cardinalite;
+
+        ConteneurTableau() {
+            this(new char[4], 0);
+        }
+
+        ConteneurTableau(char[] valeurs, int cardinalite) {
+            this.valeurs = valeurs;
+            this.cardinalite = cardinalite;
+        }
+
+        @Override
+        Conteneur ajouter(char valeur) {
+            int i = cardinalite > 0 && valeurs[cardinalite - 1] < valeur
+                    ? -cardinalite - 1
+                    : Arrays.binarySearch(valeurs, 0, cardinalite, valeur);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinalite == MAX_TABLEAU) {
+                return versBits().ajouter(valeur);
+            }
+            i = -i - 1;
+            if (cardinalite == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, Math.min(MAX_TABLEAU, valeurs.length * 2));
+            }
+            System.arraycopy(valeurs, i, valeurs, i + 1, cardinalite - i);
+            valeurs[i] = valeur;
+            cardinalite++;
+            return this;
+        }
+
+        @Override
+        boolean contient(char valeur) {
+            return Arrays.binarySearch(valeurs, 0, cardinalite, valeur) >= 0;
+        }
+
+        @Override
+        int cardinalite() {
+            return cardinalite;
+        }
+
+        @Override
+        Conteneur et(Conteneur autre) {
+            int n = 0;
+            if (autre instanceof ConteneurBits) {
+                // Sans branchement : chaque valeur est écrite, puis gardée si son bit vaut 1.
+                // Le tableau est à la taille de ce conteneur : la table de bits peut compter moins
+                // de valeurs que lui, et chaque valeur est écrite avant le test
+                char[] resultat = new char[cardinalite];
+                long[] mots = ((ConteneurBits) autre).mots;
+                for (int i = 0; i < cardinalite; i++) {
+                    char valeur = valeurs[i];
+                    resultat[n] = valeur;
+                    n += (int) ((mots[valeur >>> 6] >>> valeur) & 1);
+                }
+                return new ConteneurTableau(resultat, n);
+            }
+            ConteneurTableau tableau = (ConteneurTableau) autre;
+            char[] resultat = new char[Math.min(cardinalite, tableau.cardinalite)];
+            int i = 0;
+            int j = 0;
+            while (i < cardinalite && j < tableau.cardinalite) {
+                if (valeurs[i] < tableau.valeurs[j]) {
+                    i++;
+                } else if (valeurs[i] > tableau.valeurs[j]) {
+                    j++;
+                } else {
+                    resultat[n++] = valeurs[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ConteneurTableau(resultat, n);
+        }
+
+        @Override
+        Conteneur ou(Conteneur autre) {
+            if (autre instanceof ConteneurBits) {
+                return autre.ou(this);
+            }
+            ConteneurTableau tableau = (ConteneurTableau) autre;
+            if (cardinalite + tableau.cardinalite > MAX_TABLEAU) {
+                return versBits().ou(tableau);
+            }
+            char[] resultat = new char[cardinalite + tableau.cardinalite];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinalite || j < tableau.cardinalite) {
+                if (j == tableau.cardinalite || (i < cardinalite && valeurs[i] < tableau.valeurs[j])) {
+                    resultat[n++] = valeurs[i++];
+                } else if (i == cardinalite || valeurs[i] > tableau.valeurs[j]) {
+                    resultat[n++] = tableau.valeurs[j++];
+                } else {
+                    resultat[n++] = valeurs[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ConteneurTableau(resultat, n);
+        }
+
+        @Override
+        Conteneur sauf(Conteneur autre) {
+            char[] resultat = new char[cardinalite];
+            int n = 0;
+            if (autre instanceof ConteneurBits) {
+                long[] mots = ((ConteneurBits) autre).mots;
+                for (int i = 0; i < cardinalite; i++) {
+                    char valeur = valeurs[i];
+                    resultat[n] = valeur;
+                    n += (int) (~(mots[valeur >>> 6] >>> valeur) & 1);
+                }
+                return new ConteneurTableau(resultat, n);
+            }
+            ConteneurTableau tableau = (ConteneurTableau) autre;
+            int j = 0;
+            for (int i = 0; i < cardinalite; i++) {
+                while (j < tableau.cardinalite && tableau.valeurs[j] < valeurs[i]) {
+                    j++;
+                }
+                if (j == tableau.cardinalite || tableau.valeurs[j] != valeurs[i]) {
+                    resultat[n++] = valeurs[i];
+                }
+            }
+            return new ConteneurTableau(resultat, n);
+        }
+
+        @Override
+        void pourChaque(int haut, IntConsumer action) {
+            for (int i = 0; i < cardinalite; i++) {
+                action.accept(haut | valeurs[i]);
+            }
+        }
+
+        @Override
+        long tailleOctets() {
+            return 16 + 16 + (long) valeurs.length * Character.BYTES;
+        }
+
+        ConteneurBits versBits() {
+            ConteneurBits bits = new ConteneurBits();
+            for (int i = 0; i < cardinalite; i++) {
+                bits.mots[valeurs[i] >>> 6] |= 1L << valeurs[i];
+            }
+            bits.cardinalite = cardinalite;
+            return bits;
+        }
+    }
+
+    /**
+     * Table de 65536 bits, pour un conteneur rempli
+     */
+    private static final class ConteneurBits extends Conteneur {
+        final long[] mots = new long[1024];
+        int cardinalite;
+
+        @Override
+        Conteneur ajouter(char valeur) {
+            long avant = mots[valeur >>> 6];
+            long apres = avant | (1L << valeur);
+            if (avant != apres) {
+                mots[valeur >>> 6] = apres;
+                cardinalite++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contient(char valeur) {
+            return (mots[valeur >>> 6] & (1L << valeur)) != 0;
+        }
+
+        @Override
+        int cardinalite() {
+            return cardinalite;
+        }
+
+        @Override
+        Conteneur et(Conteneur autre) {
+            if (autre instanceof ConteneurTableau) {
+                return autre.et(this);
+            }
+            ConteneurBits bits = (ConteneurBits) autre;
+            ConteneurBits resultat = new ConteneurBits();
+            int total = 0;
+            for (int k = 0; k < mots.length; k++) {
+                resultat.mots[k] = mots[k] & bits.mots[k];
+                total += Long.bitCount(resultat.mots[k]);
+            }
+            resultat.cardinalite = total;
+            return resultat.optimiser();
+        }
+
+        @Override
+        Conteneur ou(Conteneur autre) {
+            ConteneurBits resultat = new ConteneurBits();
+            System.arraycopy(mots, 0, resultat.mots, 0, mots.length);
+            resultat.cardinalite = cardinalite;
+            if (autre instanceof ConteneurTableau) {
+                ConteneurTableau tableau = (ConteneurTableau) autre;
+                for (int i = 0; i < tableau.cardinalite; i++) {
+                    resultat.ajouter(tableau.valeurs[i]);
+                }
+                // Deux tableaux qui se recouvrent peuvent donner peu de valeurs
+                return resultat.optimiser();
+            }
+            ConteneurBits bits = (ConteneurBits) autre;
+            int total = 0;
+            for (int k = 0; k < mots.length; k++) {
+                resultat.mots[k] |= bits.mots[k];
+                total += Long.bitCount(resultat.mots[k]);
+            }
+            resultat.cardinalite = total;
+            return resultat.optimiser();
+        }
+
+        @Override
+        Conteneur sauf(Conteneur autre) {
+            ConteneurBits resultat = new ConteneurBits();
+            System.arraycopy(mots, 0, resultat.mots, 0, mots.length);
+            if (autre instanceof ConteneurTableau) {
+                ConteneurTableau tableau = (ConteneurTableau) autre;
+                resultat.cardinalite = cardinalite;
+                for (int i = 0; i < tableau.cardinalite; i++) {
+                    char valeur = tableau.valeurs[i];
+                    if (resultat.contient(valeur)) {
+                        resultat.mots[valeur >>> 6] &= ~(1L << valeur);
+                        resultat.cardinalite--;
+                    }
+                }
+                return resultat.optimiser();
+            }
+            ConteneurBits bits = (ConteneurBits) autre;
+            int total = 0;
+            for (int k = 0; k < mots.length; k++) {
+                resultat.mots[k] &= ~bits.mots[k];
+                total += Long.bitCount(resultat.mots[k]);
+            }
+            resultat.cardinalite = total;
+            return resultat.optimiser();
+        }
+
+        @Override
+        void pourChaque(int haut, IntConsumer action) {
+            for (int k = 0; k < mots.length; k++) {
+                long mot = mots[k];
+                while (mot != 0) {
+                    action.accept(haut | (k << 6) | Long.numberOfTrailingZeros(mot));
+                    mot &= mot - 1;
+                }
+            }
+        }
+
+        @Override
+        long tailleOctets() {
+            return 16 + 16 + (long) mots.length * Long.BYTES;
+        }
+
+        /**
+         * Repasser en tableau trié quand il reste peu de valeurs
+         */
+        Conteneur optimiser() {
+            if (cardinalite > MAX_TABLEAU) {
+                return this;
+            }
+            char[] valeurs = new char[cardinalite];
+            int n = 0;
+            for (int k = 0; k < mots.length; k++) {
+                long mot = mots[k];
+                while (mot != 0) {
+                    valeurs[n++] = (char) ((k << 6) | Long.numberOfTrailingZeros(mot));
+                    mot &= mot - 1;
+                }
+            }
+            return new ConteneurTableau(valeurs, n);
+        }
+    }
+}
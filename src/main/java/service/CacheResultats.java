@@ -0,0 +1,212 @@
+package service;
+
+import util.TextNormalizer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache des résultats de recherche, partagé par toutes les instances de LivreService.
+ *
+ * Politique :
+ * - clé normalisée : « Misérables », « miserables » et «  MISERABLES  » partagent une entrée ;
+ * - au plus capacite entrées, la moins récemment lue est évincée (LRU) ;
+ * - une entrée expire après dureeValiditeMs, pour voir les écritures des autres postes ;
+ * - les écritures de l'application vident le cache (invalider) ;
+ * - plusieurs recherches identiques qui manquent en même temps n'exécutent la
+ *   requête qu'une fois : les suivantes attendent le résultat de la première.
+ *
+ * Les valeurs sont partagées entre appelants et ne doivent pas être modifiées.
+ * Elle ne contient AUCUN code JavaFX.
+ */
+public class CacheResultats<V> {
+
+    private final int capacite;
+    private final long dureeValiditeMs;
+
+    // Ordre d'accès : la première entrée est la moins récemment lue
+    private final Map<String, Entree<V>> entrees;
+    private final Map<String, CompletableFuture<V>> enCours = new ConcurrentHashMap<>();
+    // Incrémentée à chaque invalidation : un calcul commencé avant n'est pas gardé
+    private volatile long generation;
+
+    private final AtomicLong succes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong regroupees = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CacheResultats(int capacite, long dureeValiditeMs) {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("La capacité du cache doit être positive.");
+        }
+        this.capacite = capacite;
+        this.dureeValiditeMs = dureeValiditeMs;
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree<V>> eldest) {
+                if (size() <= CacheResultats.this.capacite) {
+                    return false;
+                }
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Clé d'une requête : sans espaces superflus, en minuscules et sans accents
+     */
+    public static String cle(String requete) {
+        if (requete == null) {
+            return "";
+        }
+        return TextNormalizer.normaliser(requete.trim()).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Résultat en cache, ou calculé par le chargeur en cas d'absence
+     *
+     * @param cle      Clé normalisée (voir cle)
+     * @param chargeur Exécution de la recherche, sur le thread appelant
+     * @return Le résultat ; une exception du chargeur est transmise à tous les appelants en attente
+     */
+    public V obtenir(String cle, Supplier<V> chargeur) {
+        V valeur = lire(cle);
+        if (valeur != null) {
+            succes.incrementAndGet();
+            return valeur;
+        }
+
+        CompletableFuture<V> calcul = new CompletableFuture<>();
+        CompletableFuture<V> existant = enCours.putIfAbsent(cle, calcul);
+        if (existant != null) {
+            // Même recherche déjà en cours sur un autre thread : attendre son résultat
+            regroupees.incrementAndGet();
+            try {
+                return existant.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        echecs.incrementAndGet();
+        long generationDebut = generation;
+        try {
+            valeur = chargeur.get();
+            if (valeur != null) {
+                synchronized (entrees) {
+                    // Sous le verrou d'invalider : une invalidation ne peut passer entre le test et l'ajout
+                    if (generationDebut == generation) {
+                        entrees.put(cle, new Entree<>(valeur, System.currentTimeMillis() + dureeValiditeMs));
+                    }
+                }
+            }
+            calcul.complete(valeur);
+            return valeur;
+        } catch (RuntimeException e) {
+            calcul.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCours.remove(cle, calcul);
+        }
+    }
+
+    private V lire(String cle) {
+        synchronized (entrees) {
+            Entree<V> entree = entrees.get(cle);
+            if (entree == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= entree.expireLe) {
+                entrees.remove(cle);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return entree.valeur;
+        }
+    }
+
+    /**
+     * Vider le cache après une écriture dans le catalogue
+     */
+    public void invalider() {
+        synchronized (entrees) {
+            generation++;
+            entrees.clear();
+        }
+        // Les recherches suivantes ne rejoignent pas un calcul commencé avant l'écriture
+        enCours.clear();
+        invalidations.incrementAndGet();
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    public long getSucces() {
+        return succes.get();
+    }
+
+    public long getEchecs() {
+        return echecs.get();
+    }
+
+    /**
+     * @return Nombre de recherches servies par le calcul d'une recherche identique simultanée
+     */
+    public long getRegroupees() {
+        return regroupees.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return Part des recherches servies sans interroger l'index ni la base
+     */
+    public double getTauxSucces() {
+        long servies = succes.get() + regroupees.get();
+        long total = servies + echecs.get();
+        return total == 0 ? 0.0 : (double) servies / total;
+    }
+
+    public int getTaille() {
+        synchronized (entrees) {
+            return entrees.size();
+        }
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d entrées, %.1f %% de succès, %d évictions, %d regroupées",
+                getTaille(), capacite, getTauxSucces() * 100, getEvictions(), getRegroupees());
+    }
+
+    private static final class Entree<V> {
+        final V valeur;
+        final long expireLe;
+
+        Entree(V valeur, long expireLe) {
+            this.valeur = valeur;
+            this.expireLe = expireLe;
+        }
+    }
+}
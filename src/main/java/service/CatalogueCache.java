@@ -0,0 +1,530 @@
+package service;
+
+import dao.LivreDAO;
+import dao.StatistiquesDAO;
+import model.Livre;
+import model.TypeLivre;
+import util.AsyncExecutor;
+import util.TextNormalizer;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalogue des livres gardé en mémoire, partagé par toutes les instances de LivreService.
+ *
+ * Politique :
+ * - chargement complet au premier accès, puis rechargement en arrière-plan après
+ *   DUREE_VALIDITE_MS pour voir les modifications faites par d'autres postes ;
+ * - écritures de l'application répercutées immédiatement (write-through) ;
+ * - au-delà de TAILLE_MAX livres, le cache se désactive et les lectures vont en base ;
+ *   le nombre de livres est compté avant tout chargement ;
+ * - base vide ou inaccessible : nouvel essai après un délai qui double à chaque échec ;
+ * - les popularités qui relèvent le score des recherches sont relues à chaque rechargement.
+ *
+ * Les livres et leurs index forment un état (Etat) construit hors verrou et publié
+ * d'un coup : pendant un rechargement, les lecteurs continuent sur l'ancien état sans
+ * attendre, et ne voient jamais les livres d'un état avec les index d'un autre.
+ *
+ * Les livres renvoyés sont les instances du cache : ils ne doivent pas être modifiés
+ * sans passer ensuite par LivreService, qui relit la ligne en base.
+ * Elle ne contient AUCUN code JavaFX.
+ */
+public class CatalogueCache {
+
+    /** Nombre maximal de livres gardés en mémoire */
+    private static final int TAILLE_MAX = 200_000;
+
+    /** Délai avant rechargement complet du catalogue */
+    private static final long DUREE_VALIDITE_MS = 5 * 60_000;
+
+    /** Premier délai avant un nouvel essai après un chargement vide ou en échec */
+    private static final long DELAI_ESSAI_MS = 5_000;
+
+    private static CatalogueCache instance;
+
+    private final LivreDAO livreDAO;
+    private final StatistiquesDAO statistiquesDAO;
+
+    private volatile Etat etat = Etat.vide();
+    private volatile PonderationRecherche ponderation = PonderationRecherche.DEFAUT;
+    private volatile long chargeLe;        // 0 : jamais chargé ou invalidé
+    private volatile long prochainEssai;   // après un échec : pas de chargement avant
+    private long delaiEssai = DELAI_ESSAI_MS; // protégé par "chargement"
+    private volatile boolean actif = true;
+    private final AtomicBoolean rechargementEnCours = new AtomicBoolean();
+    // Un seul chargement à la fois ; jamais pris par les lectures d'un catalogue chargé
+    private final Object chargement = new Object();
+    // Livres écrits depuis le début du dernier chargement, relus sur le nouvel état
+    private final Set<Long> ecrits = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong succes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong rechargements = new AtomicLong();
+
+    private CatalogueCache() {
+        this.livreDAO = new LivreDAO();
+        this.statistiquesDAO = new StatistiquesDAO();
+    }
+
+    public static synchronized CatalogueCache getInstance() {
+        if (instance == null) {
+            instance = new CatalogueCache();
+        }
+        return instance;
+    }
+
+    // ==================== LECTURES ====================
+
+    /**
+     * @return Tous les livres triés par titre, ou null si le cache ne peut pas répondre
+     */
+    public List<Livre> tous() {
+        if (!assurerCharge()) {
+            echecs.incrementAndGet();
+            return null;
+        }
+        succes.incrementAndGet();
+        return vueTriee(etat);
+    }
+
+    public List<Livre> parCategorie(Long idCategorie) {
+        return filtrer(FiltreLivre.categorie(idCategorie));
+    }
+
+    public List<Livre> parAuteur(Long idAuteur) {
+        return filtrer(FiltreLivre.auteur(idAuteur));
+    }
+
+    public List<Livre> gratuits() {
+        return filtrer(FiltreLivre.type(TypeLivre.GRATUIT).et(FiltreLivre.disponible(true)));
+    }
+
+    public List<Livre> payants() {
+        return filtrer(FiltreLivre.type(TypeLivre.PAYANT).et(FiltreLivre.disponible(true)));
+    }
+
+    /**
+     * Livres qui satisfont une combinaison de critères, évaluée sur les bitmaps des attributs
+     * @return Les livres triés par titre, ou null si le cache ne peut pas répondre
+     */
+    public List<Livre> filtrer(FiltreLivre filtre) {
+        if (!assurerCharge()) {
+            echecs.incrementAndGet();
+            return null;
+        }
+        succes.incrementAndGet();
+        IndexAttributs index = attributs(etat);
+        return index.livres(index.evaluer(filtre));
+    }
+
+    /**
+     * Un livre par son id ; un livre absent du cache est cherché en base puis ajouté
+     */
+    public Livre parId(Long id) {
+        if (assurerCharge()) {
+            Livre livre = etat.livres.get(id);
+            if (livre != null) {
+                succes.incrementAndGet();
+                return livre;
+            }
+        }
+        echecs.incrementAndGet();
+        Livre livre = livreDAO.findById(id);
+        if (livre != null) {
+            ajouter(livre);
+        }
+        return livre;
+    }
+
+    /**
+     * Recherche plein texte dans l'index inversé (titre, auteur, description)
+     * @return Les livres classés par pertinence, ou null si le cache ne peut pas répondre
+     */
+    public List<Livre> rechercher(String requete) {
+        return rechercher(requete, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Les livres les plus pertinents pour la requête, sans trier les autres
+     * @param limite Nombre maximal de livres renvoyés
+     * @return Les livres classés par pertinence, ou null si le cache ne peut pas répondre
+     */
+    public List<Livre> rechercher(String requete, int limite) {
+        if (!assurerCharge()) {
+            echecs.incrementAndGet();
+            return null;
+        }
+        succes.incrementAndGet();
+        Etat courant = etat;
+        List<Livre> resultats = new ArrayList<>();
+        for (Long id : courant.index.rechercher(requete, limite, ponderation, courant.popularites)) {
+            Livre livre = courant.livres.get(id);
+            if (livre != null) {
+                resultats.add(livre);
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Corriger les fautes de frappe d'une requête : chaque mot absent du catalogue
+     * est remplacé par le mot connu le plus proche (« victor hugp » → « victor hugo »)
+     * @return La requête corrigée, ou null si rien n'a pu être corrigé
+     */
+    public String corriger(String requete) {
+        if (!assurerCharge()) {
+            return null;
+        }
+        Etat courant = etat;
+        List<String> mots = TextNormalizer.mots(requete);
+        boolean corrigee = false;
+        for (int i = 0; i < mots.size(); i++) {
+            String mot = mots.get(i);
+            // Le dernier mot est un préfixe pour l'index : « mise » n'est pas une faute
+            boolean connu = i == mots.size() - 1 ? courant.index.contientPrefixe(mot) : courant.index.contient(mot);
+            if (connu || TextNormalizer.estMotVide(mot)) {
+                continue;
+            }
+            List<String> proches = courant.vocabulaire.proches(mot, 1);
+            if (!proches.isEmpty()) {
+                mots.set(i, proches.get(0));
+                corrigee = true;
+            }
+        }
+        return corrigee ? String.join(" ", mots) : null;
+    }
+
+    /**
+     * Index des facettes de tout le catalogue, reconstruit au premier besoin après une écriture
+     * @return null si le cache ne peut pas répondre
+     */
+    IndexFacettes indexFacettes() {
+        if (!assurerCharge()) {
+            return null;
+        }
+        return facettes(etat);
+    }
+
+    // ==================== ÉCRITURES ====================
+
+    /**
+     * Relire un livre en base après une écriture (création, modification réussie ou non)
+     */
+    public void rafraichir(Long id) {
+        if (id != null) {
+            ecrits.add(id); // un chargement en cours a peut-être lu la ligne avant l'écriture
+        }
+        if (id == null || chargeLe == 0 || !actif) {
+            return;
+        }
+        Livre livre = livreDAO.findById(id);
+        if (livre != null) {
+            ajouter(livre);
+        } else {
+            retirer(id);
+        }
+    }
+
+    private void ajouter(Livre livre) {
+        ecrits.add(livre.getId());
+        if (actif && chargeLe != 0) {
+            ajouter(etat, livre);
+        }
+    }
+
+    public void retirer(Long id) {
+        if (id != null) {
+            ecrits.add(id);
+            retirer(etat, id);
+        }
+    }
+
+    /**
+     * Sous le verrou de l'état, pour qu'une vue dérivée en construction ne soit pas
+     * publiée après l'écriture qui la rend fausse
+     */
+    private static void ajouter(Etat etat, Livre livre) {
+        synchronized (etat) {
+            etat.livres.put(livre.getId(), livre);
+            etat.index.indexer(livre);
+            etat.vocabulaire.indexer(livre);
+            etat.oublierDerives();
+        }
+    }
+
+    private static void retirer(Etat etat, Long id) {
+        synchronized (etat) {
+            if (etat.livres.remove(id) != null) {
+                etat.index.retirer(id);
+                etat.oublierDerives();
+            }
+        }
+    }
+
+    /**
+     * Forcer un rechargement complet au prochain accès
+     */
+    public void invalider() {
+        chargeLe = 0;
+        prochainEssai = 0;
+    }
+
+    // ==================== CHARGEMENT ====================
+
+    /**
+     * @return true si le cache est chargé et à jour
+     */
+    private boolean assurerCharge() {
+        if (chargeLe == 0) {
+            if (System.currentTimeMillis() < prochainEssai) {
+                // Échec récent : les lectures vont en base sans retenter le chargement
+                return false;
+            }
+            // Premier chargement (ou après invalidation) : l'appelant attend
+            return recharger();
+        }
+        long maintenant = System.currentTimeMillis();
+        if (maintenant >= chargeLe + DUREE_VALIDITE_MS && maintenant >= prochainEssai) {
+            // Catalogue expiré : l'ancien état est servi, sans verrou, pendant la reconstruction
+            rechargerEnArrierePlan();
+        }
+        return actif;
+    }
+
+    /**
+     * Lancer le premier chargement sans l'attendre, sauf après un échec récent ;
+     * sans effet si le cache est déjà chargé ou désactivé
+     */
+    void chargerEnArrierePlan() {
+        if (chargeLe == 0 && System.currentTimeMillis() >= prochainEssai) {
+            rechargerEnArrierePlan();
+        }
+    }
+
+    private void rechargerEnArrierePlan() {
+        if (rechargementEnCours.compareAndSet(false, true)) {
+            AsyncExecutor.run(() -> {
+                try {
+                    recharger();
+                } finally {
+                    rechargementEnCours.set(false);
+                }
+            });
+        }
+    }
+
+    private boolean recharger() {
+        synchronized (chargement) {
+            // Un autre thread a peut-être rechargé pendant l'attente du verrou
+            if (chargeLe != 0 && System.currentTimeMillis() < chargeLe + DUREE_VALIDITE_MS) {
+                return actif;
+            }
+
+            if (System.currentTimeMillis() < prochainEssai) {
+                return chargeLe != 0 && actif;
+            }
+
+            // Compter d'abord : un catalogue trop volumineux n'est jamais lu en entier
+            int total = livreDAO.countByFiltre(null);
+            if (total > TAILLE_MAX) {
+                if (actif) {
+                    System.out.println("Catalogue trop volumineux (" + total + " livres), cache désactivé");
+                }
+                actif = false;
+                etat = Etat.vide();
+                chargeLe = System.currentTimeMillis();
+                return false;
+            }
+
+            ecrits.clear();
+            List<Livre> charges = total > 0 ? livreDAO.findAll() : Collections.emptyList();
+            rechargements.incrementAndGet();
+            if (charges.isEmpty()) {
+                // Base vide ou inaccessible : ne rien figer, nouvel essai après un délai croissant
+                prochainEssai = System.currentTimeMillis() + delaiEssai;
+                delaiEssai = Math.min(delaiEssai * 2, DUREE_VALIDITE_MS);
+                return chargeLe != 0 && actif;
+            }
+            delaiEssai = DELAI_ESSAI_MS;
+
+            // Nouvel état construit entièrement hors de vue des lecteurs, puis publié d'un coup
+            Map<Long, Livre> nouveaux = new ConcurrentHashMap<>(charges.size() * 2);
+            for (Livre livre : charges) {
+                nouveaux.put(livre.getId(), livre);
+            }
+            Etat nouvel = new Etat(nouveaux, IndexInverse.construire(charges),
+                    IndexTrigrammes.construire(charges), statistiquesDAO.lirePopularites());
+            etat = nouvel;
+            actif = true;
+            chargeLe = System.currentTimeMillis();
+            rejouerEcritures(nouvel);
+            return true;
+        }
+    }
+
+    /**
+     * Relire les livres écrits pendant le chargement : findAll a pu les lire avant l'écriture
+     */
+    private void rejouerEcritures(Etat nouvel) {
+        for (Long id : new ArrayList<>(ecrits)) {
+            ecrits.remove(id);
+            Livre livre = livreDAO.findById(id);
+            if (livre != null) {
+                ajouter(nouvel, livre);
+            } else {
+                retirer(nouvel, id);
+            }
+        }
+    }
+
+    /**
+     * Bitmaps construits sur la vue triée : un document est une position dans cette vue.
+     * Sans verrou quand ils sont déjà construits.
+     */
+    private static IndexAttributs attributs(Etat etat) {
+        IndexAttributs index = etat.attributs;
+        if (index != null) {
+            return index;
+        }
+        synchronized (etat) {
+            index = etat.attributs;
+            if (index == null) {
+                index = IndexAttributs.construire(vueTriee(etat));
+                etat.attributs = index;
+            }
+            return index;
+        }
+    }
+
+    private static IndexFacettes facettes(Etat etat) {
+        IndexFacettes index = etat.facettes;
+        if (index != null) {
+            return index;
+        }
+        synchronized (etat) {
+            index = etat.facettes;
+            if (index == null) {
+                index = IndexFacettes.construire(new ArrayList<>(etat.livres.values()));
+                etat.facettes = index;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Construite sous le verrou de l'état, comme les écritures : une vue antérieure
+     * à une écriture n'est jamais publiée
+     */
+    private static List<Livre> vueTriee(Etat etat) {
+        List<Livre> vue = etat.vueTriee;
+        if (vue != null) {
+            return vue;
+        }
+        synchronized (etat) {
+            vue = etat.vueTriee;
+            if (vue == null) {
+                // Tri insensible à la casse et aux accents, comme la collation MySQL
+                Collator collator = Collator.getInstance(Locale.FRENCH);
+                collator.setStrength(Collator.PRIMARY);
+                List<Livre> copie = new ArrayList<>(etat.livres.values());
+                copie.sort(Comparator.comparing((Livre livre) -> livre.getTitre() != null ? livre.getTitre() : "", collator)
+                        .thenComparing(Livre::getId));
+                vue = Collections.unmodifiableList(copie);
+                etat.vueTriee = vue;
+            }
+            return vue;
+        }
+    }
+
+    // ==================== RÉGLAGES ====================
+
+    public PonderationRecherche getPonderation() {
+        return ponderation;
+    }
+
+    /**
+     * Changer les poids du classement ; pris en compte dès la recherche suivante
+     */
+    public void setPonderation(PonderationRecherche ponderation) {
+        this.ponderation = ponderation != null ? ponderation : PonderationRecherche.DEFAUT;
+        LivreService.invaliderRecherches(); // classements en cache calculés avec les anciens poids
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    public long getSucces() {
+        return succes.get();
+    }
+
+    public long getEchecs() {
+        return echecs.get();
+    }
+
+    public long getRechargements() {
+        return rechargements.get();
+    }
+
+    public double getTauxSucces() {
+        long total = succes.get() + echecs.get();
+        return total == 0 ? 0.0 : (double) succes.get() / total;
+    }
+
+    public int getTaille() {
+        return etat.livres.size();
+    }
+
+    public boolean isActif() {
+        return actif;
+    }
+
+    /**
+     * @return true si le cache peut répondre sans attendre un chargement
+     */
+    public boolean isCharge() {
+        return actif && chargeLe != 0;
+    }
+
+    /**
+     * Livres et index d'un chargement. Les livres et les index ne sont remplacés qu'en
+     * publiant un nouvel état ; les vues dérivées sont construites au premier besoin
+     * et oubliées à chaque écriture, sous le verrou de l'état.
+     */
+    private static final class Etat {
+        final Map<Long, Livre> livres;
+        final IndexInverse index;
+        final IndexTrigrammes vocabulaire;
+        final Map<Long, Integer> popularites;
+        volatile List<Livre> vueTriee; // null : à reconstruire après une écriture
+        volatile IndexFacettes facettes; // idem
+        volatile IndexAttributs attributs; // idem
+
+        Etat(Map<Long, Livre> livres, IndexInverse index, IndexTrigrammes vocabulaire,
+             Map<Long, Integer> popularites) {
+            this.livres = livres;
+            this.index = index;
+            this.vocabulaire = vocabulaire;
+            this.popularites = popularites;
+        }
+
+        static Etat vide() {
+            return new Etat(new ConcurrentHashMap<>(), new IndexInverse(), new IndexTrigrammes(),
+                    Collections.emptyMap());
+        }
+
+        void oublierDerives() {
+            vueTriee = null;
+            facettes = null;
+            attributs = null;
+        }
+    }
+}
\ No newline at end of file
@@ -2,8 +2,10 @@ package service;
 
 import dao.MessageDAO;
 import model.Message;
+import util.AsyncExecutor;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ChatService {
 
@@ -46,6 +48,20 @@ public class ChatService {
         return messageDAO.findRecentMessages(limit);
     }
 
+    /**
+     * Envoyer un message depuis un thread virtuel
+     */
+    public CompletableFuture<Message> envoyerMessageAsync(Long idUtilisateur, String contenu) {
+        return AsyncExecutor.supply(() -> envoyerMessage(idUtilisateur, contenu));
+    }
+
+    /**
+     * Récupérer les N derniers messages depuis un thread virtuel
+     */
+    public CompletableFuture<List<Message>> recupererMessagesRecentsAsync(int limit) {
+        return AsyncExecutor.supply(() -> recupererMessagesRecents(limit));
+    }
+
     /**
      * Supprimer un message (admin uniquement)
      */
@@ -148,9 +164,6 @@ public class ChatService {
     }
 
     private String normalize(String str) {
-        if (str == null)
-            return "";
-        return java.text.Normalizer.normalize(str, java.text.Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        return util.TextNormalizer.sansAccents(str);
     }
 }
@@ -0,0 +1,235 @@
+package service;
+
+import dao.LivreDAO;
+import dao.ModeRecherche;
+import model.Facette;
+import model.Livre;
+import model.LivreResume;
+import model.ResultatFacettes;
+import util.AsyncExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Parcours page par page d'une vue du catalogue (tout le catalogue, une recherche,
+ * des filtres), pour un affichage qui se complète au défilement.
+ *
+ * La source des pages est choisie à l'ouverture, sans accès à la base :
+ * - VUE : catalogue en cache, sans recherche ni filtre ; la vue triée est découpée ;
+ * - RESULTAT : le résultat complet (recherche en mémoire, filtres) est calculé une
+ *   fois avec les comptes des facettes, puis découpé ;
+ * - CLE : cache inactif ou pas encore chargé, ou recherche en LIKE ; pages lues en base
+ *   par clé (titre, id), au même coût quelle que soit leur position dans le catalogue,
+ *   et comptes des facettes calculés en base sur la même condition ;
+ * - DECALAGE : recherche FULLTEXT, classée par pertinence, lue par LIMIT/OFFSET.
+ *
+ * Les comptes des facettes sont calculés en arrière-plan dès l'ouverture (seule la
+ * source RESULTAT les attend), et la page suivante est préchargée dès qu'une page est servie. Une seule page à la fois :
+ * l'appelant attend une page avant de demander la suivante.
+ * Elle ne contient AUCUN code JavaFX.
+ */
+public class CurseurCatalogue {
+
+    private enum Source { VUE, RESULTAT, CLE, DECALAGE }
+
+    private final LivreDAO livreDAO;
+    private final CatalogueCache cache;
+    private final String motCle;
+    private final int taillePage;
+    private final Source source;
+    // Filtres des facettes en SQL, pour la source CLE
+    private final String condition;
+    private final List<Object> parametresCondition = new ArrayList<>();
+    private final CompletableFuture<ResultatFacettes> facettes;
+
+    // Position dans la liste découpée (VUE, RESULTAT, DECALAGE) ou dernier livre lu (CLE)
+    private List<Livre> vue;
+    private List<LivreResume> resumes;
+    private int position;
+    private String dernierTitre;
+    private Long dernierId;
+    private boolean termine;
+
+    // Page en cours de calcul ou déjà calculée, et page suivante préchargée
+    private CompletableFuture<List<LivreResume>> enCours;
+    private CompletableFuture<List<LivreResume>> prechargee;
+    private volatile boolean ferme;
+
+    CurseurCatalogue(LivreService livreService, LivreDAO livreDAO, CatalogueCache cache,
+                     String motCle, Map<Facette, Set<String>> filtres, int taillePage) {
+        this.livreDAO = livreDAO;
+        this.cache = cache;
+        this.motCle = motCle != null ? motCle.trim() : "";
+        this.taillePage = taillePage;
+        this.condition = IndexFacettes.conditionSql(filtres, null, parametresCondition);
+        this.source = choisirSource(filtres);
+        if (source == Source.CLE) {
+            // Jamais tout le catalogue en mémoire pour compter : la base compte ce qu'elle pagine
+            this.facettes = AsyncExecutor.supply(() -> livreService.compterFacettesEnBase(this.motCle, filtres));
+            cache.chargerEnArrierePlan();
+        } else {
+            this.facettes = AsyncExecutor.supply(() -> livreService.rechercherAvecFacettes(this.motCle, filtres));
+        }
+    }
+
+    /**
+     * Le moteur de recherche impose la source ; sinon le cache chargé est toujours préféré
+     */
+    private Source choisirSource(Map<Facette, Set<String>> filtres) {
+        boolean recherche = !motCle.isEmpty();
+        boolean sansFiltre = filtres == null || filtres.values().stream().allMatch(Set::isEmpty);
+        ModeRecherche mode = LivreDAO.getModeRecherche();
+
+        if (recherche && (mode == ModeRecherche.NATUREL || mode == ModeRecherche.BOOLEEN)) {
+            return sansFiltre ? Source.DECALAGE : Source.RESULTAT;
+        }
+        if (recherche && mode == ModeRecherche.LIKE) {
+            return Source.CLE;
+        }
+        if (cache.isCharge()) {
+            return !recherche && sansFiltre ? Source.VUE : Source.RESULTAT;
+        }
+        // Premier affichage ou cache inactif : ne pas attendre le chargement du catalogue
+        return Source.CLE;
+    }
+
+    /**
+     * Comptes des facettes et nombre total de livres de la vue
+     */
+    public CompletableFuture<ResultatFacettes> facettesAsync() {
+        return facettes;
+    }
+
+    /**
+     * La page suivante, préchargée si possible
+     * @return Le futur de la page ; une page vide signifie la fin du parcours
+     */
+    public synchronized CompletableFuture<List<LivreResume>> pageSuivanteAsync() {
+        CompletableFuture<List<LivreResume>> page = prechargee != null ? prechargee : lancerPage();
+        prechargee = null;
+        enCours = page;
+        page.thenRun(() -> precharger(page));
+        return page;
+    }
+
+    public synchronized boolean estTermine() {
+        return termine && prechargee == null;
+    }
+
+    /**
+     * Abandonner le parcours : la page préchargée et les comptes ne sont pas calculés s'ils n'ont pas commencé
+     */
+    public synchronized void fermer() {
+        ferme = true;
+        facettes.cancel(false);
+        if (prechargee != null) {
+            prechargee.cancel(false);
+            prechargee = null;
+        }
+    }
+
+    /**
+     * Précharger la page qui suit celle qui vient d'être servie, si aucune autre n'a été demandée depuis
+     */
+    private synchronized void precharger(CompletableFuture<List<LivreResume>> servie) {
+        if (ferme || termine || enCours != servie || prechargee != null) {
+            return;
+        }
+        prechargee = lancerPage();
+        enCours = prechargee;
+    }
+
+    private CompletableFuture<List<LivreResume>> lancerPage() {
+        if (source == Source.RESULTAT) {
+            // Le résultat complet est celui des facettes : la page attend son calcul sans bloquer de thread
+            return facettes.thenApply(resultat -> decouperResultat(resultat.getLivres()));
+        }
+        return AsyncExecutor.supply(this::lirePage);
+    }
+
+    private synchronized List<LivreResume> decouperResultat(List<LivreResume> tous) {
+        resumes = tous;
+        return decouper();
+    }
+
+    /**
+     * Lire la page suivante. Le verrou du curseur n'est jamais tenu pendant une requête :
+     * estTermine() et fermer() sont appelés depuis le thread de l'interface. La position
+     * est copiée sous le verrou, la requête s'exécute sans lui, puis la nouvelle position
+     * est publiée sous le verrou ; une seule page est lue à la fois.
+     */
+    private List<LivreResume> lirePage() {
+        if (ferme) {
+            return new ArrayList<>();
+        }
+        switch (source) {
+            case VUE:
+                boolean aLire;
+                synchronized (this) {
+                    aLire = vue == null && resumes == null;
+                }
+                if (aLire) {
+                    // Vue figée à la première page : une écriture ne décale pas les suivantes
+                    List<Livre> tous = cache.tous();
+                    List<LivreResume> enBase = tous == null ? livreDAO.findAllResumes() : null;
+                    synchronized (this) {
+                        vue = tous;
+                        resumes = enBase;
+                    }
+                }
+                synchronized (this) {
+                    return decouper();
+                }
+            case CLE:
+                String apresTitre;
+                Long apresId;
+                synchronized (this) {
+                    apresTitre = dernierTitre;
+                    apresId = dernierId;
+                }
+                List<LivreResume> page = livreDAO.findResumesApres(motCle, condition, parametresCondition,
+                        apresTitre, apresId, taillePage);
+                synchronized (this) {
+                    if (!page.isEmpty()) {
+                        LivreResume dernier = page.get(page.size() - 1);
+                        dernierTitre = dernier.getTitre();
+                        dernierId = dernier.getId();
+                    }
+                    termine = page.size() < taillePage;
+                }
+                return page;
+            case DECALAGE:
+                int decalage;
+                synchronized (this) {
+                    decalage = position;
+                }
+                List<LivreResume> classes = livreDAO.searchResumes(motCle, LivreDAO.getModeRecherche(), taillePage, decalage);
+                synchronized (this) {
+                    position = decalage + classes.size();
+                    termine = classes.size() < taillePage;
+                }
+                return classes;
+            default:
+                throw new IllegalStateException("Source de pages inconnue : " + source);
+        }
+    }
+
+    /**
+     * Page suivante de la liste complète déjà en mémoire
+     */
+    private List<LivreResume> decouper() {
+        int taille = vue != null ? vue.size() : resumes.size();
+        int fin = Math.min(position + taillePage, taille);
+        List<LivreResume> page = new ArrayList<>(Math.max(0, fin - position));
+        for (int i = position; i < fin; i++) {
+            page.add(vue != null ? LivreResume.depuis(vue.get(i)) : resumes.get(i));
+        }
+        position = Math.max(position, fin);
+        termine = position >= taille;
+        return page;
+    }
+}
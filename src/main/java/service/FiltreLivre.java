@@ -0,0 +1,210 @@
+package service;
+
+import model.Livre;
+import model.TypeLivre;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Combinaison booléenne de critères sur les attributs d'un livre, par exemple
+ * « roman ou histoire, gratuit, disponible, pas en anglais » :
+ *
+ *   FiltreLivre.categorie(1L).ou(FiltreLivre.categorie(4L))
+ *           .et(FiltreLivre.type(TypeLivre.GRATUIT), FiltreLivre.disponible(true))
+ *           .et(FiltreLivre.langue("Anglais").non())
+ *
+ * Évaluée sur les bitmaps du catalogue en mémoire (voir IndexAttributs), ou
+ * traduite en condition SQL (versSql) quand le cache est inactif.
+ * Immuable.
+ */
+public final class FiltreLivre {
+
+    enum Nature { TOUS, TYPE, DISPONIBLE, CATEGORIE, AUTEUR, LANGUE, ET, OU, NON }
+
+    private final Nature nature;
+    private final Object valeur;
+    private final List<FiltreLivre> termes;
+
+    private FiltreLivre(Nature nature, Object valeur, List<FiltreLivre> termes) {
+        this.nature = nature;
+        this.valeur = valeur;
+        this.termes = termes;
+    }
+
+    private static FiltreLivre feuille(Nature nature, Object valeur) {
+        return new FiltreLivre(nature, valeur, Collections.emptyList());
+    }
+
+    public static FiltreLivre tous() {
+        return feuille(Nature.TOUS, null);
+    }
+
+    public static FiltreLivre type(TypeLivre type) {
+        return feuille(Nature.TYPE, Objects.requireNonNull(type, "type"));
+    }
+
+    public static FiltreLivre disponible(boolean disponible) {
+        FiltreLivre disponibles = feuille(Nature.DISPONIBLE, Boolean.TRUE);
+        return disponible ? disponibles : disponibles.non();
+    }
+
+    public static FiltreLivre categorie(Long idCategorie) {
+        return feuille(Nature.CATEGORIE, Objects.requireNonNull(idCategorie, "idCategorie"));
+    }
+
+    public static FiltreLivre auteur(Long idAuteur) {
+        return feuille(Nature.AUTEUR, Objects.requireNonNull(idAuteur, "idAuteur"));
+    }
+
+    /**
+     * Langue comparée sans tenir compte de la casse ni des espaces autour
+     */
+    public static FiltreLivre langue(String langue) {
+        return feuille(Nature.LANGUE, cleLangue(langue));
+    }
+
+    public FiltreLivre et(FiltreLivre... autres) {
+        return combiner(Nature.ET, autres);
+    }
+
+    public FiltreLivre ou(FiltreLivre... autres) {
+        return combiner(Nature.OU, autres);
+    }
+
+    public FiltreLivre non() {
+        return new FiltreLivre(Nature.NON, null, Collections.singletonList(this));
+    }
+
+    private FiltreLivre combiner(Nature operateur, FiltreLivre... autres) {
+        List<FiltreLivre> liste = new ArrayList<>(autres.length + 1);
+        // a ET (b ET c) s'aplatit en un seul ET à trois termes
+        if (nature == operateur) {
+            liste.addAll(termes);
+        } else {
+            liste.add(this);
+        }
+        for (FiltreLivre autre : autres) {
+            liste.add(Objects.requireNonNull(autre, "filtre"));
+        }
+        return new FiltreLivre(operateur, null, Collections.unmodifiableList(liste));
+    }
+
+    /**
+     * Évaluer le filtre sur un seul livre
+     */
+    public boolean accepte(Livre livre) {
+        switch (nature) {
+            case TOUS:
+                return true;
+            case TYPE:
+                return valeur == livre.getTypeLivre();
+            case DISPONIBLE:
+                return Boolean.TRUE.equals(livre.getDisponible());
+            case CATEGORIE:
+                return valeur.equals(livre.getIdCategorie());
+            case AUTEUR:
+                return valeur.equals(livre.getIdAuteur());
+            case LANGUE:
+                return valeur.equals(cleLangue(livre.getLangue()));
+            case ET:
+                return termes.stream().allMatch(terme -> terme.accepte(livre));
+            case OU:
+                return termes.stream().anyMatch(terme -> terme.accepte(livre));
+            case NON:
+                return !termes.get(0).accepte(livre);
+            default:
+                throw new IllegalStateException("Filtre inconnu : " + nature);
+        }
+    }
+
+    /**
+     * Condition SQL équivalente à accepte(), sur la table Livre d'alias l.
+     * Les comparaisons sont sûres vis-à-vis de NULL (<=>, COALESCE) : NON d'un
+     * critère garde les livres sans catégorie ou sans langue, comme accepte().
+     *
+     * @param parametres Reçoit les valeurs à lier, dans l'ordre des ?
+     */
+    String versSql(List<Object> parametres) {
+        switch (nature) {
+            case TOUS:
+                return "TRUE";
+            case TYPE:
+                parametres.add(((TypeLivre) valeur).name());
+                return "l.type_livre <=> ?";
+            case DISPONIBLE:
+                return "l.disponible <=> TRUE";
+            case CATEGORIE:
+                parametres.add(valeur);
+                return "l.id_categorie <=> ?";
+            case AUTEUR:
+                parametres.add(valeur);
+                return "l.id_auteur <=> ?";
+            case LANGUE:
+                parametres.add(valeur);
+                return "COALESCE(LOWER(TRIM(l.langue)), '') = ?";
+            case ET:
+            case OU:
+                StringBuilder sql = new StringBuilder("(");
+                for (int i = 0; i < termes.size(); i++) {
+                    if (i > 0) {
+                        sql.append(nature == Nature.ET ? " AND " : " OR ");
+                    }
+                    sql.append(termes.get(i).versSql(parametres));
+                }
+                return sql.append(')').toString();
+            case NON:
+                return "NOT (" + termes.get(0).versSql(parametres) + ")";
+            default:
+                throw new IllegalStateException("Filtre inconnu : " + nature);
+        }
+    }
+
+    static String cleLangue(String langue) {
+        return langue != null ? langue.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    Nature getNature() { return nature; }
+
+    Object getValeur() { return valeur; }
+
+    List<FiltreLivre> getTermes() { return termes; }
+
+    @Override
+    public String toString() {
+        switch (nature) {
+            case ET:
+            case OU:
+                StringBuilder texte = new StringBuilder("(");
+                for (int i = 0; i < termes.size(); i++) {
+                    if (i > 0) {
+                        texte.append(' ').append(nature).append(' ');
+                    }
+                    texte.append(termes.get(i));
+                }
+                return texte.append(')').toString();
+            case NON:
+                return "NON " + termes.get(0);
+            case TOUS:
+                return "TOUS";
+            default:
+                return nature.name().toLowerCase(Locale.ROOT) + "=" + valeur;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FiltreLivre)) return false;
+        FiltreLivre autre = (FiltreLivre) o;
+        return nature == autre.nature && Objects.equals(valeur, autre.valeur) && termes.equals(autre.termes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nature, valeur, termes);
+    }
+}
@@ -0,0 +1,145 @@
+package service;
+
+import model.Livre;
+import model.TypeLivre;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bitmaps compressés des attributs filtrables du catalogue : un ensemble de
+ * documents par type, catégorie, auteur et langue, plus celui des livres
+ * disponibles. Le numéro de document d'un livre est sa position dans la vue
+ * triée par titre, si bien que les résultats sortent déjà dans cet ordre.
+ * Immuable une fois construit : le cache le reconstruit après une écriture.
+ */
+class IndexAttributs {
+
+    private static final BitmapCompresse VIDE = new BitmapCompresse();
+
+    private final List<Livre> livres;
+    private final BitmapCompresse tous;
+    private final BitmapCompresse disponibles = new BitmapCompresse();
+    private final Map<TypeLivre, BitmapCompresse> parType = new EnumMap<>(TypeLivre.class);
+    private final Map<Long, BitmapCompresse> parCategorie = new HashMap<>();
+    private final Map<Long, BitmapCompresse> parAuteur = new HashMap<>();
+    private final Map<String, BitmapCompresse> parLangue = new HashMap<>();
+
+    private IndexAttributs(List<Livre> livres) {
+        this.livres = livres;
+        this.tous = BitmapCompresse.plage(livres.size());
+    }
+
+    /**
+     * @param livresTries Catalogue dans l'ordre d'affichage, qui donne les numéros de document
+     */
+    static IndexAttributs construire(List<Livre> livresTries) {
+        IndexAttributs index = new IndexAttributs(livresTries);
+        for (int document = 0; document < livresTries.size(); document++) {
+            Livre livre = livresTries.get(document);
+            if (Boolean.TRUE.equals(livre.getDisponible())) {
+                index.disponibles.ajouter(document);
+            }
+            if (livre.getTypeLivre() != null) {
+                index.parType.computeIfAbsent(livre.getTypeLivre(), t -> new BitmapCompresse()).ajouter(document);
+            }
+            if (livre.getIdCategorie() != null) {
+                index.parCategorie.computeIfAbsent(livre.getIdCategorie(), id -> new BitmapCompresse()).ajouter(document);
+            }
+            if (livre.getIdAuteur() != null) {
+                index.parAuteur.computeIfAbsent(livre.getIdAuteur(), id -> new BitmapCompresse()).ajouter(document);
+            }
+            index.parLangue.computeIfAbsent(FiltreLivre.cleLangue(livre.getLangue()), l -> new BitmapCompresse())
+                    .ajouter(document);
+        }
+        return index;
+    }
+
+    /**
+     * Documents qui satisfont le filtre, par ET / OU / SAUF sur les bitmaps
+     */
+    BitmapCompresse evaluer(FiltreLivre filtre) {
+        switch (filtre.getNature()) {
+            case TOUS:
+                return tous;
+            case TYPE:
+                return parType.getOrDefault(filtre.getValeur(), VIDE);
+            case DISPONIBLE:
+                return disponibles;
+            case CATEGORIE:
+                return parCategorie.getOrDefault(filtre.getValeur(), VIDE);
+            case AUTEUR:
+                return parAuteur.getOrDefault(filtre.getValeur(), VIDE);
+            case LANGUE:
+                return parLangue.getOrDefault(filtre.getValeur(), VIDE);
+            case ET:
+                return et(filtre.getTermes());
+            case OU:
+                BitmapCompresse union = VIDE;
+                for (FiltreLivre terme : filtre.getTermes()) {
+                    union = union.ou(evaluer(terme));
+                }
+                return union;
+            case NON:
+                return tous.sauf(evaluer(filtre.getTermes().get(0)));
+            default:
+                throw new IllegalStateException("Filtre inconnu : " + filtre.getNature());
+        }
+    }
+
+    /**
+     * Les termes NON d'un ET sont retirés de l'intersection des autres plutôt
+     * que complémentés ; on s'arrête dès que l'intersection est vide
+     */
+    private BitmapCompresse et(List<FiltreLivre> termes) {
+        BitmapCompresse resultat = null;
+        List<FiltreLivre> exclus = new ArrayList<>();
+        for (FiltreLivre terme : termes) {
+            if (terme.getNature() == FiltreLivre.Nature.NON) {
+                exclus.add(terme.getTermes().get(0));
+                continue;
+            }
+            BitmapCompresse documents = evaluer(terme);
+            resultat = resultat == null ? documents : resultat.et(documents);
+            if (resultat.estVide()) {
+                return resultat;
+            }
+        }
+        if (resultat == null) {
+            resultat = tous;
+        }
+        for (FiltreLivre exclu : exclus) {
+            resultat = resultat.sauf(evaluer(exclu));
+        }
+        return resultat;
+    }
+
+    /**
+     * Les livres des documents, dans l'ordre du catalogue
+     */
+    List<Livre> livres(BitmapCompresse documents) {
+        List<Livre> resultat = new ArrayList<>(documents.cardinalite());
+        documents.pourChaque(document -> resultat.add(livres.get(document)));
+        return resultat;
+    }
+
+    long tailleOctets() {
+        long total = tous.tailleOctets() + disponibles.tailleOctets();
+        for (BitmapCompresse bitmap : parType.values()) {
+            total += bitmap.tailleOctets();
+        }
+        for (BitmapCompresse bitmap : parCategorie.values()) {
+            total += bitmap.tailleOctets();
+        }
+        for (BitmapCompresse bitmap : parAuteur.values()) {
+            total += bitmap.tailleOctets();
+        }
+        for (BitmapCompresse bitmap : parLangue.values()) {
+            total += bitmap.tailleOctets();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,279 @@
+package service;
+
+import model.Facette;
+import model.Livre;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index des facettes d'un ensemble de livres : chaque livre reçoit un numéro
+ * de document, et chaque valeur de facette l'ensemble (BitSet) des documents
+ * qui la portent.
+ *
+ * Les filtres se combinent par OU à l'intérieur d'une facette et par ET entre
+ * facettes. Les comptes de toutes les facettes sont calculés en un seul
+ * parcours des documents du résultat.
+ * Immuable une fois construit : le cache le reconstruit après une écriture.
+ */
+class IndexFacettes {
+
+    static final String SANS_CATEGORIE = "Sans catégorie";
+    static final String LANGUE_INCONNUE = "Non précisée";
+    static final String DISPONIBLE = "Disponible";
+    static final String INDISPONIBLE = "Indisponible";
+    static final String DATE_INCONNUE = "Date inconnue";
+
+    private static final Facette[] FACETTES = Facette.values();
+
+    private final Map<Long, Integer> documentParId;
+    // Par facette : valeurs distinctes, ensemble des documents de chaque valeur,
+    // et numéro de la valeur de chaque document
+    private final List<List<String>> valeurs = new ArrayList<>();
+    private final List<List<BitSet>> documentsParValeur = new ArrayList<>();
+    private final int[][] valeurParDocument;
+
+    private IndexFacettes(int nbDocuments) {
+        this.documentParId = new HashMap<>(nbDocuments * 2);
+        this.valeurParDocument = new int[FACETTES.length][nbDocuments];
+        for (int f = 0; f < FACETTES.length; f++) {
+            valeurs.add(new ArrayList<>());
+            documentsParValeur.add(new ArrayList<>());
+        }
+    }
+
+    static IndexFacettes construire(List<Livre> livres) {
+        IndexFacettes index = new IndexFacettes(livres.size());
+        List<Map<String, Integer>> numeros = new ArrayList<>();
+        for (int f = 0; f < FACETTES.length; f++) {
+            numeros.add(new HashMap<>());
+        }
+
+        for (int document = 0; document < livres.size(); document++) {
+            Livre livre = livres.get(document);
+            index.documentParId.put(livre.getId(), document);
+            for (int f = 0; f < FACETTES.length; f++) {
+                String valeur = valeur(FACETTES[f], livre);
+                Integer numero = numeros.get(f).get(valeur);
+                if (numero == null) {
+                    numero = index.valeurs.get(f).size();
+                    numeros.get(f).put(valeur, numero);
+                    index.valeurs.get(f).add(valeur);
+                    index.documentsParValeur.get(f).add(new BitSet(livres.size()));
+                }
+                index.valeurParDocument[f][document] = numero;
+                index.documentsParValeur.get(f).get(numero).set(document);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Valeur d'un livre pour une facette, telle qu'affichée
+     */
+    static String valeur(Facette facette, Livre livre) {
+        switch (facette) {
+            case CATEGORIE:
+                return livre.getCategorie() != null && livre.getCategorie().getNom() != null
+                        ? livre.getCategorie().getNom() : SANS_CATEGORIE;
+            case TYPE:
+                return livre.getTypeLivre() != null ? livre.getTypeLivre().name() : "";
+            case LANGUE:
+                return livre.getLangue() != null && !livre.getLangue().trim().isEmpty()
+                        ? livre.getLangue().trim() : LANGUE_INCONNUE;
+            case DISPONIBILITE:
+                return Boolean.TRUE.equals(livre.getDisponible()) ? DISPONIBLE : INDISPONIBLE;
+            case DECENNIE:
+                Integer annee = livre.getAnneePublication();
+                return annee != null && annee > 0 ? (annee / 10 * 10) + "s" : DATE_INCONNUE;
+            default:
+                throw new IllegalArgumentException("Facette inconnue : " + facette);
+        }
+    }
+
+    /**
+     * Expression SQL de la valeur d'une facette, la même que valeur() pour une ligne
+     * de Livre l jointe à Categorie c : sert aux comptes en base quand le cache est inactif
+     */
+    static String valeurSql(Facette facette, List<Object> parametres) {
+        switch (facette) {
+            case CATEGORIE:
+                parametres.add(SANS_CATEGORIE);
+                return "COALESCE(c.nom, ?)";
+            case TYPE:
+                return "COALESCE(l.type_livre, '')";
+            case LANGUE:
+                parametres.add(LANGUE_INCONNUE);
+                return "COALESCE(NULLIF(TRIM(l.langue), ''), ?)";
+            case DISPONIBILITE:
+                Collections.addAll(parametres, DISPONIBLE, INDISPONIBLE);
+                return "CASE WHEN l.disponible THEN ? ELSE ? END";
+            case DECENNIE:
+                parametres.add(DATE_INCONNUE);
+                return "CASE WHEN l.annee_publication > 0 THEN CONCAT(l.annee_publication DIV 10 * 10, 's') ELSE ? END";
+            default:
+                throw new IllegalArgumentException("Facette inconnue : " + facette);
+        }
+    }
+
+    /**
+     * Condition SQL des filtres cochés (OU dans une facette, ET entre facettes),
+     * sans ceux de la facette ignorée (null : aucune)
+     * @return La condition, TRUE si rien n'est coché
+     */
+    static String conditionSql(Map<Facette, Set<String>> filtres, Facette ignoree, List<Object> parametres) {
+        List<String> conditions = new ArrayList<>();
+        if (filtres != null) {
+            for (Facette facette : FACETTES) {
+                Set<String> coches = filtres.get(facette);
+                if (facette == ignoree || coches == null || coches.isEmpty()) {
+                    continue;
+                }
+                conditions.add(valeurSql(facette, parametres) + " IN ("
+                        + String.join(", ", Collections.nCopies(coches.size(), "?")) + ")");
+                parametres.addAll(coches);
+            }
+        }
+        return conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions);
+    }
+
+    /**
+     * Documents des livres donnés ; les ids absents de l'index sont ignorés
+     */
+    BitSet documents(Collection<Long> ids) {
+        BitSet documents = new BitSet(valeurParDocument[0].length);
+        for (Long id : ids) {
+            Integer document = documentParId.get(id);
+            if (document != null) {
+                documents.set(document);
+            }
+        }
+        return documents;
+    }
+
+    int document(Long id) {
+        Integer document = documentParId.get(id);
+        return document != null ? document : -1;
+    }
+
+    /**
+     * Documents de la base qui passent tous les filtres
+     */
+    BitSet filtrer(BitSet base, Map<Facette, Set<String>> filtres) {
+        BitSet resultat = (BitSet) base.clone();
+        BitSet[] masques = masques(filtres);
+        for (BitSet masque : masques) {
+            if (masque != null) {
+                resultat.and(masque);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Comptes par valeur pour chaque facette, en un seul parcours de la base.
+     * Un document qui passe tous les filtres compte dans toutes les facettes ;
+     * un document refusé par une seule facette compte dans celle-ci, pour
+     * montrer ce que donnerait une autre valeur de cette facette.
+     */
+    Map<Facette, Map<String, Integer>> compter(BitSet base, Map<Facette, Set<String>> filtres) {
+        BitSet[] masques = masques(filtres);
+        int[][] comptes = new int[FACETTES.length][];
+        for (int f = 0; f < FACETTES.length; f++) {
+            comptes[f] = new int[valeurs.get(f).size()];
+        }
+
+        for (int document = base.nextSetBit(0); document >= 0; document = base.nextSetBit(document + 1)) {
+            int refus = -1;
+            int nbRefus = 0;
+            for (int f = 0; f < FACETTES.length && nbRefus < 2; f++) {
+                if (masques[f] != null && !masques[f].get(document)) {
+                    refus = f;
+                    nbRefus++;
+                }
+            }
+            if (nbRefus == 0) {
+                for (int f = 0; f < FACETTES.length; f++) {
+                    comptes[f][valeurParDocument[f][document]]++;
+                }
+            } else if (nbRefus == 1) {
+                comptes[refus][valeurParDocument[refus][document]]++;
+            }
+        }
+
+        Map<Facette, Map<String, Integer>> resultat = new EnumMap<>(Facette.class);
+        for (int f = 0; f < FACETTES.length; f++) {
+            resultat.put(FACETTES[f], trier(FACETTES[f], valeurs.get(f), comptes[f]));
+        }
+        return resultat;
+    }
+
+    /**
+     * Union des valeurs cochées de chaque facette, null si rien n'est coché
+     */
+    private BitSet[] masques(Map<Facette, Set<String>> filtres) {
+        BitSet[] masques = new BitSet[FACETTES.length];
+        if (filtres == null) {
+            return masques;
+        }
+        for (int f = 0; f < FACETTES.length; f++) {
+            Set<String> coches = filtres.get(FACETTES[f]);
+            if (coches == null || coches.isEmpty()) {
+                continue;
+            }
+            BitSet masque = new BitSet();
+            List<String> valeursFacette = valeurs.get(f);
+            for (int numero = 0; numero < valeursFacette.size(); numero++) {
+                if (coches.contains(valeursFacette.get(numero))) {
+                    masque.or(documentsParValeur.get(f).get(numero));
+                }
+            }
+            masques[f] = masque;
+        }
+        return masques;
+    }
+
+    /**
+     * Comptes lus en base, triés comme ceux de compter()
+     */
+    static Map<String, Integer> trier(Facette facette, Map<String, Integer> comptes) {
+        List<String> valeurs = new ArrayList<>(comptes.keySet());
+        int[] nombres = new int[valeurs.size()];
+        for (int numero = 0; numero < nombres.length; numero++) {
+            nombres[numero] = comptes.get(valeurs.get(numero));
+        }
+        return trier(facette, valeurs, nombres);
+    }
+
+    /**
+     * Valeurs non vides, les décennies dans l'ordre chronologique, les autres par nombre décroissant
+     */
+    private static Map<String, Integer> trier(Facette facette, List<String> valeurs, int[] comptes) {
+        List<Integer> numeros = new ArrayList<>();
+        for (int numero = 0; numero < comptes.length; numero++) {
+            if (comptes[numero] > 0) {
+                numeros.add(numero);
+            }
+        }
+        if (facette == Facette.DECENNIE) {
+            numeros.sort((a, b) -> valeurs.get(a).compareTo(valeurs.get(b)));
+        } else {
+            numeros.sort((a, b) -> comptes[a] != comptes[b]
+                    ? Integer.compare(comptes[b], comptes[a])
+                    : valeurs.get(a).compareTo(valeurs.get(b)));
+        }
+        Map<String, Integer> trie = new LinkedHashMap<>();
+        for (int numero : numeros) {
+            trie.put(valeurs.get(numero), comptes[numero]);
+        }
+        return numeros.isEmpty() ? Collections.emptyMap() : trie;
+    }
+}
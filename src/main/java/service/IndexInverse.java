@@ -0,0 +1,391 @@
+package service;
+
+import model.Auteur;
+import model.Livre;
+import util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé du catalogue : pour chaque mot normalisé, les livres qui le
+ * contiennent et le nombre d'occurrences dans chaque champ (titre, auteur,
+ * description).
+ *
+ * Une requête est un ET de ses mots significatifs ; le dernier mot est pris
+ * comme préfixe pour suivre la saisie. Les résultats sont classés par BM25F :
+ * les occurrences de chaque champ sont pondérées (voir PonderationRecherche)
+ * et rapportées à la longueur moyenne du champ avant saturation, puis le
+ * score est éventuellement relevé selon la popularité du livre.
+ * Les fréquences brutes sont gardées : changer les poids ne demande pas de réindexer.
+ * Mis à jour livre par livre, lectures concurrentes autorisées.
+ */
+class IndexInverse {
+
+    private static final int TITRE = 0;
+    private static final int AUTEUR = 1;
+    private static final int DESCRIPTION = 2;
+
+    /** Occurrences d'un mot par champ, sur 10 bits chacune */
+    private static final int BITS_CHAMP = 10;
+    private static final int MAX_OCCURRENCES = (1 << BITS_CHAMP) - 1;
+
+    // Dictionnaire trié pour retrouver les mots par préfixe ;
+    // par livre, les occurrences des trois champs regroupées dans un int
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final long[] longueursTotales = new long[3];
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    static IndexInverse construire(Collection<Livre> livres) {
+        IndexInverse index = new IndexInverse();
+        for (Livre livre : livres) {
+            index.indexerSansVerrou(livre);
+        }
+        return index;
+    }
+
+    /**
+     * Ajouter ou remplacer un livre dans l'index
+     */
+    void indexer(Livre livre) {
+        verrou.writeLock().lock();
+        try {
+            indexerSansVerrou(livre);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    void retirer(Long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    boolean contient(String mot) {
+        verrou.readLock().lock();
+        try {
+            return postings.containsKey(mot);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true si au moins un livre contient un mot qui commence par ce préfixe
+     */
+    boolean contientPrefixe(String prefixe) {
+        verrou.readLock().lock();
+        try {
+            String suivant = postings.ceilingKey(prefixe);
+            return suivant != null && suivant.startsWith(prefixe);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Les livres qui contiennent tous les mots, classés par score décroissant.
+     * Seuls les meilleurs sont triés : un tas borné à limite entrées les
+     * sélectionne sans trier toutes les correspondances.
+     *
+     * @param limite       Nombre maximal d'ids renvoyés
+     * @param popularites  Popularité par id de livre, vide pour ne pas en tenir compte
+     * @return Les ids, du plus pertinent au moins pertinent
+     */
+    List<Long> rechercher(String requete, int limite, PonderationRecherche ponderation,
+                          Map<Long, Integer> popularites) {
+        List<String> mots = TextNormalizer.motsSignificatifs(requete);
+        if (mots.isEmpty()) {
+            // Requête faite uniquement de mots vides (« Le », « Les ») : on les garde
+            mots = TextNormalizer.mots(requete);
+        }
+        if (mots.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        String prefixe = mots.get(mots.size() - 1);
+        List<String> motsExacts = mots.subList(0, mots.size() - 1);
+
+        verrou.readLock().lock();
+        try {
+            Notation notation = new Notation(ponderation);
+            List<ListeMot> listes = new ArrayList<>(motsExacts.size());
+            for (String mot : motsExacts) {
+                Map<Long, Integer> liste = postings.get(mot);
+                if (liste == null) {
+                    return Collections.emptyList();
+                }
+                listes.add(new ListeMot(liste, notation.idf(liste.size())));
+            }
+            listes.sort(Comparator.comparingInt(liste -> liste.frequences.size()));
+
+            // Préfixe peu fréquent : son union sert de point de départ à l'intersection
+            int limiteUnion = listes.isEmpty() ? Integer.MAX_VALUE : listes.get(0).frequences.size();
+            Map<Long, Float> union = unionPrefixe(prefixe, limiteUnion, notation);
+
+            Map<Long, Float> scores = new HashMap<>();
+            if (union != null) {
+                for (Map.Entry<Long, Float> entree : union.entrySet()) {
+                    float score = scoreListes(entree.getKey(), listes, 0, notation);
+                    if (score >= 0f) {
+                        scores.put(entree.getKey(), entree.getValue() + score);
+                    }
+                }
+            } else {
+                // Sinon le préfixe n'est vérifié que sur les candidats de l'intersection, via leurs mots
+                ListeMot premiere = listes.get(0);
+                for (Map.Entry<Long, Integer> entree : premiere.frequences.entrySet()) {
+                    Long id = entree.getKey();
+                    float score = scoreListes(id, listes, 1, notation);
+                    float scorePrefixe = score >= 0f ? scorePrefixe(id, prefixe, notation) : 0f;
+                    if (scorePrefixe > 0f) {
+                        scores.put(id, notation.score(id, entree.getValue(), premiere.idf) + score + scorePrefixe);
+                    }
+                }
+            }
+
+            if (ponderation.getPopularite() > 0f && !popularites.isEmpty()) {
+                scores.replaceAll((id, score) ->
+                        score * (1f + ponderation.getPopularite() * (float) Math.log1p(popularites.getOrDefault(id, 0))));
+            }
+            return meilleurs(scores, limite);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Somme des scores d'un livre pour les listes à partir de debut
+     * @return La somme, ou -1 si le livre manque dans l'une d'elles
+     */
+    private static float scoreListes(Long id, List<ListeMot> listes, int debut, Notation notation) {
+        float total = 0f;
+        for (int i = debut; i < listes.size(); i++) {
+            ListeMot liste = listes.get(i);
+            Integer frequences = liste.frequences.get(id);
+            if (frequences == null) {
+                return -1f;
+            }
+            total += notation.score(id, frequences, liste.idf);
+        }
+        return total;
+    }
+
+    /**
+     * Union des mots qui commencent par le préfixe, en gardant pour chaque livre son meilleur mot
+     * @param limite Nombre d'entrées au-delà duquel l'union n'est pas construite
+     * @return L'union notée, ou null si elle atteindrait la limite
+     */
+    private Map<Long, Float> unionPrefixe(String prefixe, int limite, Notation notation) {
+        Collection<Map<Long, Integer>> plage = postings.subMap(prefixe, prefixe + Character.MAX_VALUE).values();
+        long total = 0;
+        for (Map<Long, Integer> liste : plage) {
+            total += liste.size();
+            if (total >= limite) {
+                return null;
+            }
+        }
+        Map<Long, Float> union = new HashMap<>((int) Math.min(total * 2, Integer.MAX_VALUE));
+        for (Map<Long, Integer> liste : plage) {
+            float idf = notation.idf(liste.size());
+            liste.forEach((id, frequences) -> union.merge(id, notation.score(id, frequences, idf), Math::max));
+        }
+        return union;
+    }
+
+    /**
+     * Meilleur score d'un livre pour les mots qui commencent par le préfixe, 0 si aucun
+     */
+    private float scorePrefixe(Long id, String prefixe, Notation notation) {
+        float meilleur = 0f;
+        for (String mot : documents.get(id).mots) {
+            if (mot.startsWith(prefixe)) {
+                Map<Long, Integer> liste = postings.get(mot);
+                meilleur = Math.max(meilleur, notation.score(id, liste.get(id), notation.idf(liste.size())));
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Les limite meilleurs ids, par score décroissant puis id croissant.
+     * Le tas garde le moins bon des retenus en tête pour l'évincer en O(log limite).
+     */
+    static List<Long> meilleurs(Map<Long, Float> scores, int limite) {
+        int taille = Math.min(limite, scores.size());
+        if (taille <= 0) {
+            return Collections.emptyList();
+        }
+        Comparator<Map.Entry<Long, Float>> ordre = (a, b) -> {
+            int parScore = Float.compare(b.getValue(), a.getValue());
+            return parScore != 0 ? parScore : Long.compare(a.getKey(), b.getKey());
+        };
+        PriorityQueue<Map.Entry<Long, Float>> tas = new PriorityQueue<>(taille, ordre.reversed());
+        for (Map.Entry<Long, Float> entree : scores.entrySet()) {
+            if (tas.size() < taille) {
+                tas.add(entree);
+            } else if (ordre.compare(entree, tas.peek()) < 0) {
+                tas.poll();
+                tas.add(entree);
+            }
+        }
+        List<Map.Entry<Long, Float>> retenus = new ArrayList<>(tas);
+        retenus.sort(ordre);
+        List<Long> ids = new ArrayList<>(retenus.size());
+        for (Map.Entry<Long, Float> entree : retenus) {
+            ids.add(entree.getKey());
+        }
+        return ids;
+    }
+
+    private void indexerSansVerrou(Livre livre) {
+        if (livre.getId() == null) {
+            return;
+        }
+        retirerSansVerrou(livre.getId());
+
+        Map<String, Integer> frequences = new HashMap<>();
+        int[] longueurs = new int[3];
+        longueurs[TITRE] = ajouterMots(frequences, TextNormalizer.mots(livre.getTitre()), TITRE);
+        Auteur auteur = livre.getAuteur();
+        if (auteur != null) {
+            longueurs[AUTEUR] = ajouterMots(frequences, TextNormalizer.motsSignificatifs(auteur.getPrenom()), AUTEUR)
+                    + ajouterMots(frequences, TextNormalizer.motsSignificatifs(auteur.getNom()), AUTEUR);
+        }
+        longueurs[DESCRIPTION] = ajouterMots(frequences,
+                TextNormalizer.motsSignificatifs(livre.getDescription()), DESCRIPTION);
+
+        for (Map.Entry<String, Integer> entree : frequences.entrySet()) {
+            postings.computeIfAbsent(entree.getKey(), mot -> new HashMap<>()).put(livre.getId(), entree.getValue());
+        }
+        documents.put(livre.getId(), new Document(new HashSet<>(frequences.keySet()), longueurs));
+        for (int champ = 0; champ < longueurs.length; champ++) {
+            longueursTotales[champ] += longueurs[champ];
+        }
+    }
+
+    private void retirerSansVerrou(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (int champ = 0; champ < document.longueurs.length; champ++) {
+            longueursTotales[champ] -= document.longueurs[champ];
+        }
+        for (String mot : document.mots) {
+            Map<Long, Integer> liste = postings.get(mot);
+            if (liste != null) {
+                liste.remove(id);
+                if (liste.isEmpty()) {
+                    postings.remove(mot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compter les occurrences des mots dans un champ.
+     * Les mots vides ne sont indexés que pour le titre (« Le Petit Prince »),
+     * pas pour la description où ils gonfleraient l'index sans rien apporter.
+     * @return La longueur du champ en mots
+     */
+    private static int ajouterMots(Map<String, Integer> frequences, List<String> mots, int champ) {
+        int decalage = champ * BITS_CHAMP;
+        for (String mot : mots) {
+            frequences.merge(mot, 1 << decalage, (avant, un) ->
+                    ((avant >>> decalage) & MAX_OCCURRENCES) == MAX_OCCURRENCES ? avant : avant + un);
+        }
+        return mots.size();
+    }
+
+    private static int occurrences(int frequences, int champ) {
+        return (frequences >>> (champ * BITS_CHAMP)) & MAX_OCCURRENCES;
+    }
+
+    /**
+     * Calcul des scores d'une requête : poids et longueurs moyennes figés au début de la lecture
+     */
+    private final class Notation {
+        private final float[] poids;
+        private final float[] longueursMoyennes = new float[3];
+        private final float k1;
+        private final float b;
+        private final int nbLivres;
+
+        Notation(PonderationRecherche ponderation) {
+            this.poids = new float[]{ponderation.getTitre(), ponderation.getAuteur(), ponderation.getDescription()};
+            this.k1 = ponderation.getK1();
+            this.b = ponderation.getB();
+            this.nbLivres = Math.max(1, documents.size());
+            for (int champ = 0; champ < longueursMoyennes.length; champ++) {
+                longueursMoyennes[champ] = Math.max(1f, (float) longueursTotales[champ] / nbLivres);
+            }
+        }
+
+        /**
+         * Rareté du mot : élevée pour un mot présent dans peu de livres
+         */
+        float idf(int nbLivresAvecMot) {
+            return (float) Math.log(1.0 + (nbLivres - nbLivresAvecMot + 0.5) / (nbLivresAvecMot + 0.5));
+        }
+
+        /**
+         * Contribution BM25F d'un mot à un livre : occurrences pondérées par champ,
+         * normalisées par la longueur du champ, puis saturées par k1
+         */
+        float score(Long id, int frequences, float idf) {
+            int[] longueurs = documents.get(id).longueurs;
+            float pondere = 0f;
+            for (int champ = 0; champ < poids.length; champ++) {
+                int nombre = occurrences(frequences, champ);
+                if (nombre > 0) {
+                    float normalisation = 1f - b + b * longueurs[champ] / longueursMoyennes[champ];
+                    pondere += poids[champ] * nombre / normalisation;
+                }
+            }
+            return idf * pondere * (k1 + 1f) / (k1 + pondere);
+        }
+    }
+
+    /**
+     * Mots d'un livre et longueur de chacun de ses champs
+     */
+    private static final class Document {
+        final Set<String> mots;
+        final int[] longueurs;
+
+        Document(Set<String> mots, int[] longueurs) {
+            this.mots = mots;
+            this.longueurs = longueurs;
+        }
+    }
+
+    /**
+     * Liste d'un mot de la requête et son idf
+     */
+    private static final class ListeMot {
+        final Map<Long, Integer> frequences;
+        final float idf;
+
+        ListeMot(Map<Long, Integer> frequences, float idf) {
+            this.frequences = frequences;
+            this.idf = idf;
+        }
+    }
+}
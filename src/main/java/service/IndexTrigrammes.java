@@ -0,0 +1,242 @@
+package service;
+
+import model.Auteur;
+import model.Livre;
+import util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Vocabulaire des titres et des auteurs indexé par trigrammes, pour retrouver
+ * les mots proches d'un mot mal orthographié (« hugp » → « hugo »).
+ *
+ * Un mot à distance d'édition k du mot cherché partage avec lui au moins
+ * (nombre de trigrammes - 3k) trigrammes : il suffit donc de parcourir les
+ * 3k + 1 listes les plus courtes pour obtenir tous les candidats, vérifiés
+ * ensuite par une distance de Levenshtein bornée.
+ */
+class IndexTrigrammes {
+
+    /** Mots trop courts pour être corrigés sans proposer n'importe quoi */
+    private static final int LONGUEUR_MIN = 4;
+
+    private final Map<String, Integer> idParMot = new HashMap<>();
+    private final List<String> mots = new ArrayList<>();
+    private int[] frequences = new int[256];
+    private final Map<String, ListeIds> listes = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    static IndexTrigrammes construire(Collection<Livre> livres) {
+        IndexTrigrammes index = new IndexTrigrammes();
+        for (Livre livre : livres) {
+            index.indexerSansVerrou(livre);
+        }
+        return index;
+    }
+
+    /**
+     * Ajouter les mots du titre et de l'auteur d'un livre
+     */
+    void indexer(Livre livre) {
+        verrou.writeLock().lock();
+        try {
+            indexerSansVerrou(livre);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Distance tolérée : aucune faute sous 4 lettres, une jusqu'à 6, deux au-delà
+     */
+    static int distanceToleree(String mot) {
+        if (mot.length() < LONGUEUR_MIN) {
+            return 0;
+        }
+        return mot.length() <= 6 ? 1 : 2;
+    }
+
+    /**
+     * Mots du vocabulaire proches du mot donné (déjà normalisé)
+     * @return Du plus proche au plus lointain, les plus fréquents d'abord à distance égale
+     */
+    List<String> proches(String mot, int nombre) {
+        int tolerance = distanceToleree(mot);
+        if (tolerance == 0 || nombre <= 0) {
+            return new ArrayList<>();
+        }
+
+        verrou.readLock().lock();
+        try {
+            List<ListeIds> candidates = new ArrayList<>();
+            Set<String> trigrammes = trigrammes(mot);
+            for (String trigramme : trigrammes) {
+                ListeIds liste = listes.get(trigramme);
+                if (liste != null) {
+                    candidates.add(liste);
+                }
+            }
+            // Trigrammes absents du vocabulaire : ce sont justement ceux détruits par les fautes
+            int aParcourir = 3 * tolerance + 1 - (trigrammes.size() - candidates.size());
+            if (aParcourir <= 0) {
+                return new ArrayList<>();
+            }
+            candidates.sort(Comparator.comparingInt(liste -> liste.taille));
+
+            Set<Integer> vus = new HashSet<>();
+            List<Proche> trouves = new ArrayList<>();
+            for (int i = 0; i < Math.min(aParcourir, candidates.size()); i++) {
+                ListeIds liste = candidates.get(i);
+                for (int j = 0; j < liste.taille; j++) {
+                    int id = liste.ids[j];
+                    if (!vus.add(id)) {
+                        continue;
+                    }
+                    String candidat = mots.get(id);
+                    if (Math.abs(candidat.length() - mot.length()) > tolerance) {
+                        continue;
+                    }
+                    int distance = distance(mot, candidat, tolerance);
+                    if (distance <= tolerance) {
+                        trouves.add(new Proche(candidat, distance, frequences[id]));
+                    }
+                }
+            }
+
+            trouves.sort(Comparator.comparingInt((Proche proche) -> proche.distance)
+                    .thenComparing(proche -> -proche.frequence)
+                    .thenComparing(proche -> proche.mot));
+            List<String> resultats = new ArrayList<>();
+            for (int i = 0; i < Math.min(nombre, trouves.size()); i++) {
+                resultats.add(trouves.get(i).mot);
+            }
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distance de Levenshtein limitée à une bande autour de la diagonale
+     * @return La distance, ou max + 1 dès qu'elle dépasse max
+     */
+    static int distance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] precedente = new int[m + 1];
+        int[] courante = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            precedente[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            int debut = Math.max(1, i - max);
+            int fin = Math.min(m, i + max);
+            Arrays.fill(courante, max + 1);
+            courante[0] = i;
+            int minLigne = debut == 1 ? i : max + 1;
+            for (int j = debut; j <= fin; j++) {
+                int cout = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valeur = Math.min(Math.min(courante[j - 1] + 1, precedente[j] + 1), precedente[j - 1] + cout);
+                courante[j] = valeur;
+                minLigne = Math.min(minLigne, valeur);
+            }
+            if (minLigne > max) {
+                return max + 1;
+            }
+            int[] echange = precedente;
+            precedente = courante;
+            courante = echange;
+        }
+        return Math.min(precedente[m], max + 1);
+    }
+
+    private void indexerSansVerrou(Livre livre) {
+        for (String mot : TextNormalizer.motsSignificatifs(livre.getTitre())) {
+            ajouterSansVerrou(mot);
+        }
+        Auteur auteur = livre.getAuteur();
+        if (auteur != null) {
+            for (String mot : TextNormalizer.motsSignificatifs(auteur.getPrenom())) {
+                ajouterSansVerrou(mot);
+            }
+            for (String mot : TextNormalizer.motsSignificatifs(auteur.getNom())) {
+                ajouterSansVerrou(mot);
+            }
+        }
+    }
+
+    private void ajouterSansVerrou(String mot) {
+        if (mot.length() < LONGUEUR_MIN - 1) {
+            return;
+        }
+        Integer id = idParMot.get(mot);
+        if (id != null) {
+            frequences[id]++;
+            return;
+        }
+        int nouveau = mots.size();
+        mots.add(mot);
+        idParMot.put(mot, nouveau);
+        if (nouveau == frequences.length) {
+            frequences = Arrays.copyOf(frequences, frequences.length * 2);
+        }
+        frequences[nouveau] = 1;
+        for (String trigramme : trigrammes(mot)) {
+            listes.computeIfAbsent(trigramme, t -> new ListeIds()).ajouter(nouveau);
+        }
+    }
+
+    /**
+     * Trigrammes du mot encadré de deux espaces de chaque côté, pour que les
+     * lettres du début et de la fin comptent autant que celles du milieu
+     */
+    private static Set<String> trigrammes(String mot) {
+        String borne = "  " + mot + "  ";
+        Set<String> trigrammes = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= borne.length(); i++) {
+            trigrammes.add(borne.substring(i, i + 3));
+        }
+        return trigrammes;
+    }
+
+    /**
+     * Liste d'ids extensible, sans objet par entrée
+     */
+    private static final class ListeIds {
+        int[] ids = new int[4];
+        int taille;
+
+        void ajouter(int id) {
+            if (taille == ids.length) {
+                ids = Arrays.copyOf(ids, taille * 2);
+            }
+            ids[taille++] = id;
+        }
+    }
+
+    private static final class Proche {
+        final String mot;
+        final int distance;
+        final int frequence;
+
+        Proche(String mot, int distance, int frequence) {
+            this.mot = mot;
+            this.distance = distance;
+            this.frequence = frequence;
+        }
+    }
+}
@@ -1,9 +1,25 @@
 package service;
 
+import dao.AuteurDAO;
+import dao.CategorieDAO;
 import dao.LivreDAO;
+import dao.ModeRecherche;
+import dao.TriLivre;
+import model.Facette;
 import model.Livre;
+import model.LivreResume;
+import model.ResultatFacettes;
+import util.AsyncExecutor;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Service gérant la logique métier pour les livres.
@@ -13,10 +29,27 @@ import java.util.List;
  */
 public class LivreService {
 
+    /** Recherches distinctes gardées en cache (livres complets et résumés séparément) */
+    private static final int RECHERCHES_MAX = 500;
+
+    /** Délai après lequel une recherche en cache est refaite */
+    private static final long DUREE_VALIDITE_RECHERCHE_MS = 5 * 60_000;
+
+    private static final CacheResultats<List<Livre>> RECHERCHES =
+            new CacheResultats<>(RECHERCHES_MAX, DUREE_VALIDITE_RECHERCHE_MS);
+    private static final CacheResultats<List<LivreResume>> RECHERCHES_RESUMES =
+            new CacheResultats<>(RECHERCHES_MAX, DUREE_VALIDITE_RECHERCHE_MS);
+
     private final LivreDAO livreDAO;
+    private final AuteurDAO auteurDAO;
+    private final CategorieDAO categorieDAO;
+    private final CatalogueCache cache;
 
     public LivreService() {
         this.livreDAO = new LivreDAO();
+        this.auteurDAO = new AuteurDAO();
+        this.categorieDAO = new CategorieDAO();
+        this.cache = CatalogueCache.getInstance();
     }
 
     /**
@@ -25,7 +58,33 @@ public class LivreService {
      * @return Liste de livres
      */
     public List<Livre> recupererTousLesLivres() {
-        return livreDAO.findAll();
+        List<Livre> livres = cache.tous();
+        return livres != null ? livres : livreDAO.findAll();
+    }
+
+    /**
+     * Nombre de livres de la table d'administration qui passent le filtre.
+     *
+     * @param filtre Début du titre, de l'ISBN ou du nom de l'auteur, ou mots du titre, de la
+     *               description ou de l'auteur ; vide pour tous
+     * @return Nombre de livres
+     */
+    public int compterLivres(String filtre) {
+        return livreDAO.countByFiltre(filtre);
+    }
+
+    /**
+     * Fenêtre de la table d'administration, triée et filtrée par la base.
+     *
+     * @param filtre    Voir compterLivres
+     * @param tri       Colonne de tri, TITRE si null
+     * @param croissant Sens du tri
+     * @param decalage  Rang de la première ligne
+     * @param limite    Nombre de lignes
+     * @return Les livres de la fenêtre
+     */
+    public List<Livre> recupererFenetreLivres(String filtre, TriLivre tri, boolean croissant, int decalage, int limite) {
+        return livreDAO.findFenetre(filtre, tri != null ? tri : TriLivre.TITRE, croissant, decalage, limite);
     }
 
     /**
@@ -39,20 +98,323 @@ public class LivreService {
         if (idCategorie == null) {
             throw new IllegalArgumentException("L'identifiant de la catégorie ne peut pas être null.");
         }
-        return livreDAO.findByCategorie(idCategorie);
+        List<Livre> livres = cache.parCategorie(idCategorie);
+        return livres != null ? livres : livreDAO.findByCategorie(idCategorie);
+    }
+
+    /**
+     * Récupère les livres d'un auteur.
+     *
+     * @param idAuteur ID de l'auteur
+     * @return Liste de livres triés par titre
+     * @throws IllegalArgumentException si l'ID de l'auteur est null
+     */
+    public List<Livre> recupererLivresParAuteur(Long idAuteur) {
+        if (idAuteur == null) {
+            throw new IllegalArgumentException("L'identifiant de l'auteur ne peut pas être null.");
+        }
+        List<Livre> livres = cache.parAuteur(idAuteur);
+        return livres != null ? livres : livreDAO.findByAuteur(idAuteur);
+    }
+
+    /**
+     * Récupère les livres qui satisfont une combinaison de critères
+     * (type, disponibilité, catégorie, auteur, langue).
+     *
+     * @param filtre Critères combinés par ET / OU / NON
+     * @return Liste de livres triés par titre
+     */
+    public List<Livre> filtrerLivres(FiltreLivre filtre) {
+        if (filtre == null) {
+            throw new IllegalArgumentException("Le filtre ne peut pas être null.");
+        }
+        List<Livre> livres = cache.filtrer(filtre);
+        if (livres == null) {
+            // Cache inactif (catalogue trop volumineux) : le filtre est évalué par la base,
+            // seuls les livres retenus sont lus
+            List<Object> parametres = new ArrayList<>();
+            String condition = filtre.versSql(parametres);
+            livres = livreDAO.findByCondition(condition, parametres.toArray());
+        }
+        return livres;
+    }
+
+    /**
+     * Récupère les livres gratuits disponibles.
+     *
+     * @return Liste de livres triés par titre
+     */
+    public List<Livre> recupererLivresGratuits() {
+        List<Livre> livres = cache.gratuits();
+        return livres != null ? livres : livreDAO.findGratuits();
+    }
+
+    /**
+     * Récupère les livres payants disponibles.
+     *
+     * @return Liste de livres triés par titre
+     */
+    public List<Livre> recupererLivresPayants() {
+        List<Livre> livres = cache.payants();
+        return livres != null ? livres : livreDAO.findPayants();
     }
 
     /**
      * Recherche des livres par mot-clé (titre ou auteur).
+     * Sans résultat, la recherche est relancée avec les fautes de frappe corrigées.
+     * Le résultat est gardé en cache (voir CacheResultats).
      * 
      * @param motCle Mot-clé de recherche
-     * @return Liste de livres correspondants
+     * @return Liste non modifiable de livres correspondants
      */
     public List<Livre> rechercherLivres(String motCle) {
         if (motCle == null || motCle.trim().isEmpty()) {
             return recupererTousLesLivres();
         }
-        return livreDAO.search(motCle.trim());
+        return RECHERCHES.obtenir(cleRecherche(motCle), () -> Collections.unmodifiableList(executerRecherche(motCle)));
+    }
+
+    private List<Livre> executerRecherche(String motCle) {
+        List<Livre> livres = chercherLivres(motCle.trim());
+        if (livres.isEmpty()) {
+            // Aucun résultat : nouvel essai avec les fautes de frappe corrigées
+            String corrigee = cache.corriger(motCle.trim());
+            if (corrigee != null) {
+                livres = chercherLivres(corrigee);
+            }
+        }
+        return livres;
+    }
+
+    /**
+     * Les livres les plus pertinents pour un mot-clé, sans classer toute la liste
+     * des correspondances (pour une première page de résultats par exemple).
+     *
+     * @param motCle Mot-clé de recherche
+     * @param nombre Nombre maximal de livres
+     * @return Liste de livres, du plus pertinent au moins pertinent
+     */
+    public List<Livre> rechercherMeilleursLivres(String motCle, int nombre) {
+        if (motCle == null || motCle.trim().isEmpty() || nombre <= 0) {
+            return new ArrayList<>();
+        }
+        List<Livre> livres = rechercherEnMemoire() ? cache.rechercher(motCle.trim(), nombre) : null;
+        if (livres != null && livres.isEmpty()) {
+            String corrigee = cache.corriger(motCle.trim());
+            if (corrigee != null) {
+                livres = cache.rechercher(corrigee, nombre);
+            }
+        }
+        if (livres == null) {
+            livres = rechercherLivres(motCle);
+            livres = new ArrayList<>(livres.subList(0, Math.min(nombre, livres.size())));
+        }
+        return livres;
+    }
+
+    private List<Livre> chercherLivres(String requete) {
+        List<Livre> livres = rechercherEnMemoire() ? cache.rechercher(requete) : null;
+        return livres != null ? livres : livreDAO.search(requete);
+    }
+
+    /**
+     * Récupère la fiche complète d'un livre (description comprise).
+     *
+     * @param id ID du livre
+     * @return Le livre, ou null s'il n'existe pas
+     */
+    public Livre recupererLivre(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("L'identifiant du livre ne peut pas être null.");
+        }
+        return cache.parId(id);
+    }
+
+    /**
+     * Récupère les résumés de tous les livres, pour l'affichage en cartes.
+     *
+     * @return Liste de résumés
+     */
+    public List<LivreResume> recupererTousLesResumes() {
+        List<Livre> livres = cache.tous();
+        return livres != null ? resumer(livres) : livreDAO.findAllResumes();
+    }
+
+    /**
+     * Récupère les résumés des livres d'une catégorie.
+     *
+     * @param idCategorie ID de la catégorie
+     * @return Liste de résumés
+     * @throws IllegalArgumentException si l'ID de la catégorie est null
+     */
+    public List<LivreResume> recupererResumesParCategorie(Long idCategorie) {
+        if (idCategorie == null) {
+            throw new IllegalArgumentException("L'identifiant de la catégorie ne peut pas être null.");
+        }
+        List<Livre> livres = cache.parCategorie(idCategorie);
+        return livres != null ? resumer(livres) : livreDAO.findResumesByCategorie(idCategorie);
+    }
+
+    private List<LivreResume> resumer(List<Livre> livres) {
+        return livres.stream().map(LivreResume::depuis).collect(Collectors.toList());
+    }
+
+    /**
+     * Recherche par mot-clé, en ne ramenant que les colonnes des cartes.
+     * Sans résultat, la recherche est relancée avec les fautes de frappe corrigées.
+     * Le résultat est gardé en cache (voir CacheResultats).
+     *
+     * @param motCle Mot-clé de recherche
+     * @return Liste non modifiable de résumés correspondants
+     */
+    public List<LivreResume> rechercherResumes(String motCle) {
+        if (motCle == null || motCle.trim().isEmpty()) {
+            return recupererTousLesResumes();
+        }
+        return RECHERCHES_RESUMES.obtenir(cleRecherche(motCle),
+                () -> Collections.unmodifiableList(executerRechercheResumes(motCle)));
+    }
+
+    private List<LivreResume> executerRechercheResumes(String motCle) {
+        List<LivreResume> resumes = chercherResumes(motCle.trim());
+        if (resumes.isEmpty()) {
+            String corrigee = cache.corriger(motCle.trim());
+            if (corrigee != null) {
+                resumes = chercherResumes(corrigee);
+            }
+        }
+        return resumes;
+    }
+
+    private List<LivreResume> chercherResumes(String requete) {
+        List<Livre> livres = rechercherEnMemoire() ? cache.rechercher(requete) : null;
+        return livres != null ? resumer(livres) : livreDAO.searchResumes(requete);
+    }
+
+    /**
+     * Le mode fait partie de la clé : LIKE et FULLTEXT ne renvoient pas les mêmes livres
+     */
+    private static String cleRecherche(String motCle) {
+        return LivreDAO.getModeRecherche() + ":" + CacheResultats.cle(motCle);
+    }
+
+    /**
+     * Oublier tout ce qui est déduit du catalogue, après une écriture qui touche des livres
+     * sans passer par ce service (suppression en cascade, autre poste). Le catalogue en
+     * mémoire est vidé avant les recherches : sinon la recherche suivante se remplirait
+     * depuis l'ancien catalogue.
+     */
+    public static void invaliderCatalogue() {
+        CatalogueCache.getInstance().invalider();
+        AutocompletionService.getInstance().invalider();
+        invaliderRecherches();
+    }
+
+    /**
+     * Vider le cache des recherches quand seul leur classement change (poids, mode)
+     */
+    public static void invaliderRecherches() {
+        RECHERCHES.invalider();
+        RECHERCHES_RESUMES.invalider();
+    }
+
+    /**
+     * @return Le cache des recherches de livres complets, pour ses métriques
+     */
+    public static CacheResultats<List<Livre>> getCacheRecherches() {
+        return RECHERCHES;
+    }
+
+    /**
+     * @return Le cache des recherches de résumés, pour ses métriques
+     */
+    public static CacheResultats<List<LivreResume>> getCacheRecherchesResumes() {
+        return RECHERCHES_RESUMES;
+    }
+
+    /**
+     * L'index en mémoire n'est utilisé qu'en mode INDEX ; les autres modes
+     * interrogent la base, seule source à jour quand plusieurs postes écrivent
+     */
+    private boolean rechercherEnMemoire() {
+        return LivreDAO.getModeRecherche() == ModeRecherche.INDEX;
+    }
+
+    /**
+     * Recherche à facettes : les livres de la recherche retenus par les filtres,
+     * et les comptes par catégorie, type, langue, disponibilité et décennie.
+     *
+     * @param motCle  Mot-clé de recherche, vide pour tout le catalogue
+     * @param filtres Valeurs cochées par facette (OU dans une facette, ET entre facettes)
+     * @return Les résumés dans l'ordre de la recherche et les comptes par facette
+     */
+    public ResultatFacettes rechercherAvecFacettes(String motCle, Map<Facette, Set<String>> filtres) {
+        List<Livre> livres = rechercherLivres(motCle);
+
+        IndexFacettes index = cache.indexFacettes();
+        if (index == null) {
+            // Cache inactif : index construit sur le seul résultat de la recherche
+            index = IndexFacettes.construire(livres);
+        }
+        List<Long> ids = new ArrayList<>(livres.size());
+        for (Livre livre : livres) {
+            ids.add(livre.getId());
+        }
+        BitSet base = index.documents(ids);
+        BitSet retenus = index.filtrer(base, filtres);
+
+        List<LivreResume> resumes = new ArrayList<>(retenus.cardinality());
+        for (Livre livre : livres) {
+            int document = index.document(livre.getId());
+            if (document >= 0 && retenus.get(document)) {
+                resumes.add(LivreResume.depuis(livre));
+            }
+        }
+        return new ResultatFacettes(resumes, index.compter(base, filtres));
+    }
+
+    /**
+     * Comptes des facettes calculés en base par GROUP BY, sans lire les livres : pour
+     * une vue parcourue en base quand le cache est inactif ou pas encore chargé.
+     * Le mot-clé est cherché en LIKE, comme dans les pages de cette vue.
+     *
+     * @param motCle  Mot-clé de recherche, vide pour tout le catalogue
+     * @param filtres Valeurs cochées par facette (OU dans une facette, ET entre facettes)
+     * @return Le nombre de livres retenus et les comptes par facette, sans les livres
+     */
+    ResultatFacettes compterFacettesEnBase(String motCle, Map<Facette, Set<String>> filtres) {
+        List<Object> parametres = new ArrayList<>();
+        String condition = IndexFacettes.conditionSql(filtres, null, parametres);
+        int total = livreDAO.countVue(motCle, condition, parametres);
+
+        Map<Facette, Map<String, Integer>> comptes = new EnumMap<>(Facette.class);
+        for (Facette facette : Facette.values()) {
+            // Chaque facette est comptée sous les filtres des autres, comme IndexFacettes.compter
+            List<Object> parametresValeur = new ArrayList<>();
+            String valeur = IndexFacettes.valeurSql(facette, parametresValeur);
+            List<Object> parametresAutres = new ArrayList<>();
+            String autres = IndexFacettes.conditionSql(filtres, facette, parametresAutres);
+            comptes.put(facette, IndexFacettes.trier(facette,
+                    livreDAO.countParValeur(valeur, parametresValeur, motCle, autres, parametresAutres)));
+        }
+        return new ResultatFacettes(total, comptes);
+    }
+
+    /**
+     * Ouvrir un parcours page par page de la recherche et des filtres donnés,
+     * pour un affichage qui se complète au défilement.
+     * Ne fait aucun accès à la base : appelable depuis le thread de l'interface.
+     *
+     * @param motCle     Mot-clé de recherche, vide pour tout le catalogue
+     * @param filtres    Valeurs cochées par facette
+     * @param taillePage Nombre de livres par page
+     * @return Le curseur, qui précharge la page suivante et calcule les comptes des facettes
+     */
+    public CurseurCatalogue ouvrirCatalogue(String motCle, Map<Facette, Set<String>> filtres, int taillePage) {
+        if (taillePage <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive.");
+        }
+        return new CurseurCatalogue(this, livreDAO, cache, motCle, filtres, taillePage);
     }
 
     /**
@@ -64,7 +426,14 @@ public class LivreService {
      */
     public Livre ajouterLivre(Livre livre) {
         validerDonneesLivre(livre);
-        return livreDAO.create(livre);
+        Livre cree = livreDAO.create(livre);
+        if (cree != null) {
+            cache.rafraichir(cree.getId());
+            invaliderRecherches();
+            // Le livre relu porte le nom de l'auteur, absent du formulaire
+            AutocompletionService.getInstance().ajouter(cache.parId(cree.getId()));
+        }
+        return cree;
     }
 
     /**
@@ -79,7 +448,14 @@ public class LivreService {
         if (livre.getId() == null) {
             throw new IllegalArgumentException("Impossible de modifier un livre sans identifiant.");
         }
-        return livreDAO.update(livre);
+        try {
+            return livreDAO.update(livre);
+        } finally {
+            // Relire la ligne même en cas d'échec : l'instance a pu être modifiée avant l'appel
+            cache.rafraichir(livre.getId());
+            invaliderRecherches();
+            AutocompletionService.getInstance().invalider();
+        }
     }
 
     /**
@@ -92,7 +468,96 @@ public class LivreService {
         if (id == null) {
             throw new IllegalArgumentException("L'ID ne peut pas être null pour la suppression.");
         }
-        return livreDAO.delete(id);
+        boolean supprime = livreDAO.delete(id);
+        if (supprime) {
+            cache.retirer(id);
+            invaliderRecherches();
+            AutocompletionService.getInstance().invalider();
+        }
+        return supprime;
+    }
+
+    /**
+     * Supprime un auteur et, en cascade, tous ses livres.
+     *
+     * @param idAuteur ID de l'auteur à supprimer
+     * @return true si suppression réussie
+     */
+    public boolean supprimerAuteur(Long idAuteur) {
+        if (idAuteur == null) {
+            throw new IllegalArgumentException("L'ID ne peut pas être null pour la suppression.");
+        }
+        boolean supprime = auteurDAO.delete(idAuteur);
+        if (supprime) {
+            invaliderCatalogue();
+        }
+        return supprime;
+    }
+
+    /**
+     * Supprime une catégorie et, en cascade, tous ses livres.
+     *
+     * @param idCategorie ID de la catégorie à supprimer
+     * @return true si suppression réussie
+     */
+    public boolean supprimerCategorie(Long idCategorie) {
+        if (idCategorie == null) {
+            throw new IllegalArgumentException("L'ID ne peut pas être null pour la suppression.");
+        }
+        boolean supprime = categorieDAO.delete(idCategorie);
+        if (supprime) {
+            invaliderCatalogue();
+        }
+        return supprime;
+    }
+
+    // ==================== VARIANTES ASYNCHRONES ====================
+    // Exécutées sur un thread virtuel (voir AsyncExecutor) : le contrôleur
+    // récupère le résultat avec thenAcceptAsync(..., AsyncExecutor.FX).
+
+    public CompletableFuture<List<Livre>> recupererTousLesLivresAsync() {
+        return AsyncExecutor.supply(this::recupererTousLesLivres);
+    }
+
+    public CompletableFuture<List<Livre>> recupererLivresParCategorieAsync(Long idCategorie) {
+        return AsyncExecutor.supply(() -> recupererLivresParCategorie(idCategorie));
+    }
+
+    public CompletableFuture<List<Livre>> rechercherLivresAsync(String motCle) {
+        return AsyncExecutor.supply(() -> rechercherLivres(motCle));
+    }
+
+    public CompletableFuture<Livre> recupererLivreAsync(Long id) {
+        return AsyncExecutor.supply(() -> recupererLivre(id));
+    }
+
+    public CompletableFuture<List<LivreResume>> recupererTousLesResumesAsync() {
+        return AsyncExecutor.supply(this::recupererTousLesResumes);
+    }
+
+    public CompletableFuture<List<LivreResume>> recupererResumesParCategorieAsync(Long idCategorie) {
+        return AsyncExecutor.supply(() -> recupererResumesParCategorie(idCategorie));
+    }
+
+    public CompletableFuture<List<LivreResume>> rechercherResumesAsync(String motCle) {
+        return AsyncExecutor.supply(() -> rechercherResumes(motCle));
+    }
+
+    public CompletableFuture<ResultatFacettes> rechercherAvecFacettesAsync(String motCle,
+                                                                          Map<Facette, Set<String>> filtres) {
+        return AsyncExecutor.supply(() -> rechercherAvecFacettes(motCle, filtres));
+    }
+
+    public CompletableFuture<Livre> ajouterLivreAsync(Livre livre) {
+        return AsyncExecutor.supply(() -> ajouterLivre(livre));
+    }
+
+    public CompletableFuture<Livre> modifierLivreAsync(Livre livre) {
+        return AsyncExecutor.supply(() -> modifierLivre(livre));
+    }
+
+    public CompletableFuture<Boolean> supprimerLivreAsync(Long id) {
+        return AsyncExecutor.supply(() -> supprimerLivre(id));
     }
 
     /**
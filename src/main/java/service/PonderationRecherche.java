@@ -0,0 +1,55 @@
+package service;
+
+/**
+ * Réglages du classement BM25 de la recherche en mémoire.
+ *
+ * Chaque champ a son poids (titre > auteur > description par défaut) ; k1 règle
+ * la saturation de la fréquence d'un mot, b la normalisation par la longueur du
+ * champ. Le poids de popularité multiplie le score par 1 + popularite × ln(1 + p),
+ * p comptant les lectures et téléchargements du livre (0 : pas de bonus).
+ * Immuable : les poids sont appliqués à la requête, sans réindexer le catalogue.
+ */
+public final class PonderationRecherche {
+
+    public static final PonderationRecherche DEFAUT = new PonderationRecherche(3f, 2f, 1f, 1.2f, 0.75f, 0.1f);
+
+    private final float titre;
+    private final float auteur;
+    private final float description;
+    private final float k1;
+    private final float b;
+    private final float popularite;
+
+    public PonderationRecherche(float titre, float auteur, float description, float k1, float b, float popularite) {
+        if (titre < 0 || auteur < 0 || description < 0 || popularite < 0) {
+            throw new IllegalArgumentException("Les poids de la recherche ne peuvent pas être négatifs.");
+        }
+        if (k1 <= 0 || b < 0 || b > 1) {
+            throw new IllegalArgumentException("Paramètres BM25 invalides : k1 > 0 et 0 <= b <= 1.");
+        }
+        this.titre = titre;
+        this.auteur = auteur;
+        this.description = description;
+        this.k1 = k1;
+        this.b = b;
+        this.popularite = popularite;
+    }
+
+    public float getTitre() { return titre; }
+
+    public float getAuteur() { return auteur; }
+
+    public float getDescription() { return description; }
+
+    public float getK1() { return k1; }
+
+    public float getB() { return b; }
+
+    public float getPopularite() { return popularite; }
+
+    @Override
+    public String toString() {
+        return "titre=" + titre + ", auteur=" + auteur + ", description=" + description
+                + ", k1=" + k1 + ", b=" + b + ", popularite=" + popularite;
+    }
+}
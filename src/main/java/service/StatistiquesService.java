@@ -0,0 +1,67 @@
+package service;
+
+import dao.StatistiquesDAO;
+import model.StatistiquesBibliotheque;
+import util.AsyncExecutor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service des statistiques du tableau de bord.
+ * Le résultat est gardé en cache quelques secondes pour que les rafraîchissements
+ * successifs du panneau d'administration ne relancent pas la requête d'agrégation.
+ * Elle ne contient AUCUN code JavaFX.
+ */
+public class StatistiquesService {
+
+    /** Durée de validité du cache */
+    private static final long DUREE_CACHE_MS = 30_000;
+
+    private static StatistiquesService instance;
+
+    private final StatistiquesDAO statistiquesDAO;
+
+    private StatistiquesBibliotheque cache;
+    private long expiration;
+
+    private StatistiquesService() {
+        this.statistiquesDAO = new StatistiquesDAO();
+    }
+
+    public static synchronized StatistiquesService getInstance() {
+        if (instance == null) {
+            instance = new StatistiquesService();
+        }
+        return instance;
+    }
+
+    /**
+     * Récupère les statistiques, depuis le cache s'il est encore valide.
+     *
+     * @return Les statistiques, ou null si la base est inaccessible
+     */
+    public synchronized StatistiquesBibliotheque recupererStatistiques() {
+        long maintenant = System.currentTimeMillis();
+        if (cache != null && maintenant < expiration) {
+            return cache;
+        }
+
+        StatistiquesBibliotheque statistiques = statistiquesDAO.lireStatistiques();
+        if (statistiques != null) {
+            cache = statistiques;
+            expiration = maintenant + DUREE_CACHE_MS;
+        }
+        return statistiques;
+    }
+
+    public CompletableFuture<StatistiquesBibliotheque> recupererStatistiquesAsync() {
+        return AsyncExecutor.supply(this::recupererStatistiques);
+    }
+
+    /**
+     * Oublier les statistiques en cache, à appeler après une modification du catalogue
+     */
+    public synchronized void invalider() {
+        cache = null;
+    }
+}
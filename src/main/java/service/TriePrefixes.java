@@ -0,0 +1,288 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie compressé (radix) des libellés proposés à la saisie, avec une popularité
+ * par libellé.
+ *
+ * Pour rester compact, les nœuds sont rangés dans des tableaux d'entiers et
+ * les étiquettes des arêtes sont des plages d'un seul tableau de caractères :
+ * découper une arête ne copie aucun caractère. Chaque nœud garde la plus forte
+ * popularité de son sous-arbre, ce qui permet de sortir les k meilleurs
+ * libellés d'un préfixe sans parcourir tout le sous-arbre.
+ * Insertion incrémentale, lectures concurrentes autorisées.
+ */
+class TriePrefixes {
+
+    private static final int AUCUN = -1;
+    private static final int RACINE = 0;
+
+    // Étiquettes des arêtes
+    private char[] lettres = new char[1024];
+    private int nbLettres;
+
+    // Nœuds : un indice par nœud dans chaque tableau
+    private int[] debut = new int[256];
+    private int[] longueur = new int[256];
+    private int[] premierFils = new int[256];
+    private int[] frereSuivant = new int[256];
+    private int[] entree = new int[256];
+    private int[] maxSousArbre = new int[256];
+    private int nbNoeuds;
+
+    // Libellés affichés et leur popularité
+    private String[] libelles = new String[256];
+    private int[] popularites = new int[256];
+    private int nbEntrees;
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    TriePrefixes() {
+        nouveauNoeud(0, 0);
+    }
+
+    /**
+     * Ajouter un libellé ; une clé déjà présente cumule la popularité
+     * @param cle Clé normalisée (voir TextNormalizer)
+     * @param libelle Texte affiché dans la suggestion
+     */
+    void ajouter(String cle, String libelle, int popularite) {
+        verrou.writeLock().lock();
+        try {
+            ajouterSansVerrou(cle, libelle, Math.max(0, popularite));
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Les libellés dont la clé commence par le préfixe, du plus populaire au moins populaire
+     */
+    List<String> meilleurs(String prefixe, int nombre) {
+        if (prefixe.isEmpty() || nombre <= 0) {
+            return Collections.emptyList();
+        }
+        verrou.readLock().lock();
+        try {
+            int noeud = noeudDuPrefixe(prefixe);
+            if (noeud == AUCUN) {
+                return Collections.emptyList();
+            }
+
+            // Parcours au meilleur d'abord : popularité en poids fort, nœud ou entrée en poids faible.
+            // Le maximum d'un sous-arbre majore toutes ses entrées, donc une entrée qui sort
+            // de la file est bien la suivante dans l'ordre de popularité.
+            PriorityQueue<Long> file = new PriorityQueue<>(Collections.reverseOrder());
+            file.add(element(maxSousArbre[noeud], noeud, false));
+            List<String> resultats = new ArrayList<>(nombre);
+            while (!file.isEmpty() && resultats.size() < nombre) {
+                long element = file.poll();
+                int indice = (int) (element & 0x7FFF_FFFFL);
+                if ((element & 0x8000_0000L) != 0) {
+                    // Un même libellé peut venir de deux clés (auteur dans les deux ordres)
+                    if (!resultats.contains(libelles[indice])) {
+                        resultats.add(libelles[indice]);
+                    }
+                    continue;
+                }
+                if (entree[indice] != AUCUN) {
+                    file.add(element(popularites[entree[indice]], entree[indice], true));
+                }
+                for (int fils = premierFils[indice]; fils != AUCUN; fils = frereSuivant[fils]) {
+                    file.add(element(maxSousArbre[fils], fils, false));
+                }
+            }
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rendre la marge des tableaux une fois la construction terminée ;
+     * les ajouts suivants les agrandissent de nouveau
+     */
+    void compacter() {
+        verrou.writeLock().lock();
+        try {
+            lettres = Arrays.copyOf(lettres, nbLettres);
+            debut = Arrays.copyOf(debut, nbNoeuds);
+            longueur = Arrays.copyOf(longueur, nbNoeuds);
+            premierFils = Arrays.copyOf(premierFils, nbNoeuds);
+            frereSuivant = Arrays.copyOf(frereSuivant, nbNoeuds);
+            entree = Arrays.copyOf(entree, nbNoeuds);
+            maxSousArbre = Arrays.copyOf(maxSousArbre, nbNoeuds);
+            libelles = Arrays.copyOf(libelles, nbEntrees);
+            popularites = Arrays.copyOf(popularites, nbEntrees);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private static long element(int popularite, int indice, boolean estEntree) {
+        return ((long) popularite << 32) | (estEntree ? 0x8000_0000L : 0) | indice;
+    }
+
+    /**
+     * Le nœud sous lequel se trouvent toutes les clés qui commencent par le préfixe
+     */
+    private int noeudDuPrefixe(String prefixe) {
+        int noeud = RACINE;
+        int i = 0;
+        while (i < prefixe.length()) {
+            int fils = fils(noeud, prefixe.charAt(i));
+            if (fils == AUCUN) {
+                return AUCUN;
+            }
+            int communs = prefixeCommun(fils, prefixe, i);
+            if (i + communs == prefixe.length()) {
+                return fils; // préfixe épuisé, éventuellement au milieu de l'arête
+            }
+            if (communs < longueur[fils]) {
+                return AUCUN;
+            }
+            noeud = fils;
+            i += communs;
+        }
+        return noeud;
+    }
+
+    private void ajouterSansVerrou(String cle, String libelle, int popularite) {
+        if (cle.isEmpty()) {
+            return;
+        }
+        int noeud = creerChemin(cle);
+        if (entree[noeud] == AUCUN) {
+            entree[noeud] = nouvelleEntree(libelle, popularite);
+        } else {
+            popularites[entree[noeud]] += popularite;
+        }
+        relever(cle, popularites[entree[noeud]]);
+    }
+
+    /**
+     * Créer au besoin les nœuds menant à la clé
+     * @return Le nœud où se termine la clé
+     */
+    private int creerChemin(String cle) {
+        int noeud = RACINE;
+        int i = 0;
+        while (i < cle.length()) {
+            int precedent = AUCUN;
+            int fils = premierFils[noeud];
+            while (fils != AUCUN && lettres[debut[fils]] != cle.charAt(i)) {
+                precedent = fils;
+                fils = frereSuivant[fils];
+            }
+
+            if (fils == AUCUN) {
+                // Nouvelle feuille portant toute la fin de la clé
+                int feuille = nouveauNoeud(ajouterLettres(cle, i), cle.length() - i);
+                frereSuivant[feuille] = premierFils[noeud];
+                premierFils[noeud] = feuille;
+                return feuille;
+            }
+
+            int communs = prefixeCommun(fils, cle, i);
+            if (communs < longueur[fils]) {
+                // Découper l'arête : un nœud intermédiaire prend la partie commune
+                int milieu = nouveauNoeud(debut[fils], communs);
+                premierFils[milieu] = fils;
+                frereSuivant[milieu] = frereSuivant[fils];
+                maxSousArbre[milieu] = maxSousArbre[fils];
+                if (precedent == AUCUN) {
+                    premierFils[noeud] = milieu;
+                } else {
+                    frereSuivant[precedent] = milieu;
+                }
+                debut[fils] += communs;
+                longueur[fils] -= communs;
+                frereSuivant[fils] = AUCUN;
+                fils = milieu;
+            }
+            noeud = fils;
+            i += communs;
+        }
+        return noeud;
+    }
+
+    /**
+     * Reporter une nouvelle popularité sur tous les nœuds du chemin d'une clé
+     */
+    private void relever(String cle, int popularite) {
+        int noeud = RACINE;
+        int i = 0;
+        maxSousArbre[RACINE] = Math.max(maxSousArbre[RACINE], popularite);
+        while (i < cle.length()) {
+            noeud = fils(noeud, cle.charAt(i));
+            maxSousArbre[noeud] = Math.max(maxSousArbre[noeud], popularite);
+            i += longueur[noeud];
+        }
+    }
+
+    private int fils(int noeud, char lettre) {
+        int fils = premierFils[noeud];
+        while (fils != AUCUN && lettres[debut[fils]] != lettre) {
+            fils = frereSuivant[fils];
+        }
+        return fils;
+    }
+
+    private int prefixeCommun(int noeud, String cle, int depart) {
+        int max = Math.min(longueur[noeud], cle.length() - depart);
+        int n = 0;
+        while (n < max && lettres[debut[noeud] + n] == cle.charAt(depart + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private int ajouterLettres(String cle, int depart) {
+        int n = cle.length() - depart;
+        if (nbLettres + n > lettres.length) {
+            lettres = Arrays.copyOf(lettres, Math.max(nbLettres + n, lettres.length + (lettres.length >> 1)));
+        }
+        cle.getChars(depart, cle.length(), lettres, nbLettres);
+        int position = nbLettres;
+        nbLettres += n;
+        return position;
+    }
+
+    private int nouveauNoeud(int debutEtiquette, int longueurEtiquette) {
+        if (nbNoeuds == debut.length) {
+            int capacite = debut.length + (debut.length >> 1) + 16;
+            debut = Arrays.copyOf(debut, capacite);
+            longueur = Arrays.copyOf(longueur, capacite);
+            premierFils = Arrays.copyOf(premierFils, capacite);
+            frereSuivant = Arrays.copyOf(frereSuivant, capacite);
+            entree = Arrays.copyOf(entree, capacite);
+            maxSousArbre = Arrays.copyOf(maxSousArbre, capacite);
+        }
+        int noeud = nbNoeuds++;
+        debut[noeud] = debutEtiquette;
+        longueur[noeud] = longueurEtiquette;
+        premierFils[noeud] = AUCUN;
+        frereSuivant[noeud] = AUCUN;
+        entree[noeud] = AUCUN;
+        maxSousArbre[noeud] = 0;
+        return noeud;
+    }
+
+    private int nouvelleEntree(String libelle, int popularite) {
+        if (nbEntrees == libelles.length) {
+            int capacite = libelles.length + (libelles.length >> 1) + 16;
+            libelles = Arrays.copyOf(libelles, capacite);
+            popularites = Arrays.copyOf(popularites, capacite);
+        }
+        libelles[nbEntrees] = libelle;
+        popularites[nbEntrees] = popularite;
+        return nbEntrees++;
+    }
+}
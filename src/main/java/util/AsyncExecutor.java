@@ -0,0 +1,86 @@
+package util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Exécution des accès base de données hors du thread JavaFX.
+ * Chaque tâche tourne sur un thread virtuel ; un sémaphore dimensionné sur le
+ * pool de connexions limite le nombre de tâches qui interrogent MySQL en même
+ * temps, les autres attendent sans bloquer de thread système.
+ */
+public final class AsyncExecutor {
+
+    /** Exécuteur à passer aux méthodes *Async de CompletableFuture pour revenir sur le thread JavaFX */
+    public static final Executor FX = Platform::runLater;
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Semaphore PERMIS = new Semaphore(DatabaseConnection.getInstance().getMaxPoolSize(), true);
+
+    private AsyncExecutor() {
+    }
+
+    /**
+     * Lancer une tâche en arrière-plan.
+     * Annuler le futur (cancel) avant que la tâche n'obtienne son permis l'empêche
+     * de démarrer ; une tâche déjà commencée va à son terme mais son résultat est
+     * ignoré : interrompre un thread en pleine lecture JDBC fermerait la connexion.
+     * @return Le futur du résultat ; une exception de la tâche le termine en erreur
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> tache) {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                PERMIS.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                resultat.completeExceptionally(new CompletionException(e));
+                return;
+            }
+            try {
+                if (!resultat.isDone()) {
+                    resultat.complete(tache.get());
+                }
+            } catch (Throwable erreur) {
+                resultat.completeExceptionally(new CompletionException(erreur));
+            } finally {
+                PERMIS.release();
+            }
+        });
+        return resultat;
+    }
+
+    /**
+     * Lancer une tâche sans résultat en arrière-plan
+     */
+    public static CompletableFuture<Void> run(Runnable tache) {
+        return supply(() -> {
+            tache.run();
+            return null;
+        });
+    }
+
+    /**
+     * Extraire la cause réelle d'une exception remontée par un CompletableFuture
+     */
+    public static Throwable cause(Throwable erreur) {
+        while (erreur instanceof CompletionException && erreur.getCause() != null) {
+            erreur = erreur.getCause();
+        }
+        return erreur;
+    }
+
+    /**
+     * Arrêter l'exécuteur à la fermeture de l'application
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+    }
+}
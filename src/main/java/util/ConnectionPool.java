@@ -0,0 +1,704 @@
+package util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Pool de connexions JDBC borné.
+ * Les connexions empruntées sont des proxys : appeler close() les rend au pool
+ * au lieu de fermer la connexion physique.
+ * Chaque connexion physique garde aussi un cache LRU de ses PreparedStatement,
+ * indexé par le texte SQL : fermer un statement obtenu via prepareStatement(sql)
+ * le rend au cache au lieu de le désallouer côté serveur. Les autres statements
+ * sont aussi des proxys, fermés au plus tard quand la connexion est rendue :
+ * aucun objet remis à l'appelant ne donne accès à la connexion physique.
+ */
+public class ConnectionPool implements DataSource {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private final int statementCacheSize;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MAINTENANCE_INTERVAL_MS = 30_000;
+
+    // Pile d'appel de chaque emprunt, pour situer une fuite : coûteuse, donc seulement sur demande
+    private static final boolean LEAK_TRACES = Boolean.getBoolean("bibliotheque.pool.traceFuites");
+
+    // Connexions libres, la plus récemment rendue en tête (LIFO)
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private int totalConnections; // protégé par "this"
+    private boolean closed;       // protégé par "this"
+
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    private final ScheduledExecutorService maintenance;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize,
+                          long borrowTimeoutMs, long idleTimeoutMs, long leakThresholdMs,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tailles de pool invalides : min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.statementCacheSize = statementCacheSize;
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        this.maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                MAINTENANCE_INTERVAL_MS, MAINTENANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ouvrir les connexions minimales à l'avance
+     * @throws SQLException Si la base de données est injoignable
+     */
+    public void prefill() throws SQLException {
+        while (true) {
+            synchronized (this) {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            }
+            PooledConnection pc;
+            try {
+                pc = openPhysical();
+            } catch (SQLException e) {
+                synchronized (this) {
+                    totalConnections--;
+                }
+                throw e;
+            }
+            release(pc);
+        }
+    }
+
+    /**
+     * Emprunter une connexion (validée) au pool.
+     * Attend au plus borrowTimeoutMs si toutes les connexions sont utilisées.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMs;
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean mustOpen = false;
+
+            synchronized (this) {
+                while (candidate == null && !mustOpen) {
+                    if (closed) {
+                        throw new SQLException("Le pool de connexions est fermé");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                    } else if (totalConnections < maxSize) {
+                        totalConnections++;
+                        mustOpen = true;
+                    } else {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new SQLException("Délai d'attente dépassé : aucune connexion libre après "
+                                    + borrowTimeoutMs + " ms (taille max = " + maxSize + ")");
+                        }
+                        try {
+                            wait(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Attente d'une connexion interrompue", e);
+                        }
+                    }
+                }
+            }
+
+            if (mustOpen) {
+                try {
+                    candidate = openPhysical();
+                } catch (SQLException e) {
+                    discarded();
+                    throw e;
+                }
+            } else if (!isValid(candidate)) {
+                // Connexion morte (timeout serveur, réseau...) : on la jette et on recommence
+                destroy(candidate);
+                continue;
+            }
+
+            borrowed.add(candidate);
+            return candidate.borrow();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Le pool utilise des identifiants fixes");
+    }
+
+    /**
+     * Fermer le pool et toutes les connexions physiques
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            notifyAll();
+        }
+        maintenance.shutdownNow();
+        toClose.addAll(borrowed);
+        borrowed.clear();
+        for (PooledConnection pc : toClose) {
+            pc.closePhysical();
+        }
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public synchronized int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * Taux de succès du cache de statements (entre 0 et 1)
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // ==================== GESTION INTERNE ====================
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        return new PooledConnection(physical);
+    }
+
+    private boolean isValid(PooledConnection pc) {
+        try {
+            return pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Rendre une connexion au pool (appelé par le proxy lors de close())
+     */
+    private void release(PooledConnection pc) {
+        borrowed.remove(pc);
+
+        if (!pc.resetState()) {
+            destroy(pc);
+            return;
+        }
+
+        boolean closeIt;
+        synchronized (this) {
+            closeIt = closed;
+            if (!closed) {
+                pc.lastUsed = System.currentTimeMillis();
+                idle.addFirst(pc);
+                notifyAll();
+            }
+        }
+        if (closeIt) {
+            pc.closePhysical();
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        borrowed.remove(pc);
+        pc.closePhysical();
+        discarded();
+    }
+
+    private synchronized void discarded() {
+        totalConnections--;
+        notifyAll();
+    }
+
+    /**
+     * Tâche périodique : éviction des connexions inactives, maintien du minimum
+     * et détection des fuites (connexions empruntées trop longtemps).
+     */
+    private void runMaintenance() {
+        try {
+            long now = System.currentTimeMillis();
+            List<PooledConnection> expired = new ArrayList<>();
+
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // Les plus anciennes sont en queue
+                Iterator<PooledConnection> it = idle.descendingIterator();
+                while (it.hasNext() && totalConnections - expired.size() > minSize) {
+                    PooledConnection pc = it.next();
+                    if (now - pc.lastUsed > idleTimeoutMs) {
+                        it.remove();
+                        expired.add(pc);
+                    }
+                }
+                totalConnections -= expired.size();
+            }
+            for (PooledConnection pc : expired) {
+                pc.closePhysical();
+            }
+
+            for (PooledConnection pc : borrowed) {
+                if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMs) {
+                    pc.leakReported = true;
+                    System.err.println("⚠ Fuite de connexion probable : empruntée depuis "
+                            + (now - pc.borrowedAt) + " ms sans être rendue");
+                    Throwable stack = pc.borrowStack;
+                    if (stack != null) {
+                        stack.printStackTrace();
+                    } else {
+                        System.err.println("  (lancer avec -Dbibliotheque.pool.traceFuites=true pour voir où elle a été empruntée)");
+                    }
+                }
+            }
+
+            prefill();
+        } catch (SQLException e) {
+            System.err.println("✗ Maintenance du pool : " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("✗ Erreur inattendue dans la maintenance du pool : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Connexion physique et son état dans le pool
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastUsed;
+        volatile long borrowedAt;
+        volatile Throwable borrowStack; // null sans LEAK_TRACES
+        volatile boolean leakReported;
+
+        // Cache LRU des statements ; une connexion empruntée n'est utilisée que par un thread
+        final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+        // Doublons d'une requête déjà ouverte et statements jamais mis en cache,
+        // fermés au plus tard quand la connexion est rendue
+        final List<CachedStatement> uncached = new ArrayList<>();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        /**
+         * Marquer l'emprunt et créer un nouveau proxy : un proxy déjà fermé
+         * ne peut pas agir sur la connexion une fois qu'elle est réempruntée.
+         */
+        Connection borrow() {
+            borrowedAt = System.currentTimeMillis();
+            borrowStack = LEAK_TRACES ? new Throwable("Emprunt de la connexion") : null;
+            leakReported = false;
+            return new ConnectionHandle(this).proxy;
+        }
+
+        /**
+         * Remettre la connexion dans un état propre avant de la rendre.
+         * @return false si la connexion est inutilisable
+         */
+        boolean resetState() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                // Rendre la connexion ferme implicitement ses statements
+                for (CachedStatement cs : statements.values()) {
+                    if (cs.current != null) {
+                        cs.release();
+                    }
+                }
+                for (CachedStatement cs : uncached) {
+                    if (cs.current != null) {
+                        cs.release();
+                    }
+                }
+                uncached.clear();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            statements.clear();
+            uncached.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("✗ Erreur lors de la fermeture d'une connexion : " + e.getMessage());
+            }
+        }
+
+        PreparedStatement prepareCached(String sql, int autoGeneratedKeys, Connection owner) throws SQLException {
+            String key = autoGeneratedKeys + ":" + sql;
+            CachedStatement cs = statements.get(key);
+
+            if (cs != null && cs.current == null) {
+                statementCacheHits.incrementAndGet();
+                return (PreparedStatement) new StatementHandle(cs, PreparedStatement.class, owner).proxy;
+            }
+
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement ps = autoGeneratedKeys >= 0
+                    ? physical.prepareStatement(sql, autoGeneratedKeys)
+                    : physical.prepareStatement(sql);
+            if (cs != null) {
+                // Même requête déjà ouverte sur cette connexion : statement hors cache, fermé à sa
+                // libération, mais toujours derrière un proxy qui renvoie la connexion empruntée
+                return (PreparedStatement) wrapUncached(ps, PreparedStatement.class, owner);
+            }
+            cs = new CachedStatement(ps);
+            statements.put(key, cs);
+            return (PreparedStatement) new StatementHandle(cs, PreparedStatement.class, owner).proxy;
+        }
+
+        /**
+         * Statement hors cache (createStatement, prepareCall, autres surcharges de prepareStatement) :
+         * fermé à sa libération, derrière un proxy qui renvoie la connexion empruntée
+         */
+        Statement wrapUncached(Statement physicalStatement, Class<?> type, Connection owner) throws SQLException {
+            CachedStatement cs = new CachedStatement(physicalStatement);
+            cs.evicted = true;
+            uncached.add(cs);
+            return new StatementHandle(cs, type, owner).proxy;
+        }
+    }
+
+    /**
+     * Proxy remis à l'appelant pour un emprunt donné
+     */
+    private final class ConnectionHandle implements InvocationHandler {
+        final PooledConnection pc;
+        final Connection proxy;
+        boolean closed;
+
+        ConnectionHandle(PooledConnection pc) {
+            this.pc = pc;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pc.physical.isClosed();
+                case "unwrap":
+                    // Jamais la connexion physique : elle survivrait à la restitution au pool
+                    if (((Class<?>) args[0]).isInstance(p)) {
+                        return p;
+                    }
+                    throw new SQLException("Impossible de convertir la connexion en " + ((Class<?>) args[0]).getName());
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(p);
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+            if (name.equals("prepareStatement") && statementCacheSize > 0 && args.length <= 2
+                    && (args.length == 1 || args[1] instanceof Integer)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : -1;
+                return pc.prepareCached((String) args[0], autoGeneratedKeys, proxy);
+            }
+            Object result;
+            try {
+                result = method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                // createStatement, prepareCall, prepareStatement hors cache : getConnection() renvoie le proxy
+                return pc.wrapUncached((Statement) result, method.getReturnType(), proxy);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Statement conservé dans le cache d'une connexion, ou statement hors cache (evicted)
+     */
+    private static final class CachedStatement {
+        final Statement physical;
+        StatementHandle current; // null si le statement est disponible
+        boolean evicted;
+        // Réglages du pilote à la création, rétablis à chaque libération
+        final int fetchSize;
+        final int maxRows;
+        final int queryTimeout;
+
+        CachedStatement(Statement physical) throws SQLException {
+            this.physical = physical;
+            this.fetchSize = physical.getFetchSize();
+            this.maxRows = physical.getMaxRows();
+            this.queryTimeout = physical.getQueryTimeout();
+        }
+
+        /**
+         * Sorti du cache par l'LRU : fermé tout de suite, ou à sa libération s'il est utilisé
+         */
+        void evict() {
+            evicted = true;
+            if (current == null) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Remettre le statement à zéro pour la prochaine requête identique
+         */
+        void release() {
+            current = null;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                // Les DAO ne ferment pas toujours leur ResultSet : on le fait ici
+                ResultSet rs = physical.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                if (physical instanceof PreparedStatement) {
+                    ((PreparedStatement) physical).clearParameters();
+                }
+                physical.clearBatch();
+                physical.clearWarnings();
+                // Un flux (JdbcStream) ou une page ne doit pas imposer ses réglages à la requête suivante
+                if (physical.getFetchSize() != fetchSize) {
+                    physical.setFetchSize(fetchSize);
+                }
+                if (physical.getMaxRows() != maxRows) {
+                    physical.setMaxRows(maxRows);
+                }
+                if (physical.getQueryTimeout() != queryTimeout) {
+                    physical.setQueryTimeout(queryTimeout);
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("✗ Erreur lors de la fermeture d'un statement : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Proxy remis à l'appelant pour une utilisation d'un statement.
+     * close() rend le statement au cache au lieu de le fermer (ou le ferme s'il est hors cache).
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        final CachedStatement cs;
+        final Connection owner;
+        final Statement proxy;
+
+        /**
+         * @param type Statement, PreparedStatement ou CallableStatement : l'interface du proxy
+         */
+        StatementHandle(CachedStatement cs, Class<?> type, Connection owner) {
+            this.cs = cs;
+            this.owner = owner;
+            this.proxy = (Statement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[] { type }, this);
+            cs.current = this;
+        }
+
+        @Override
+        public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+            boolean active = cs.current == this;
+            switch (method.getName()) {
+                case "close":
+                    if (active) {
+                        cs.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return !active || cs.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "unwrap":
+                    // Jamais le statement du pilote : son getConnection() renverrait la connexion physique
+                    if (((Class<?>) args[0]).isInstance(p)) {
+                        return p;
+                    }
+                    throw new SQLException("Impossible de convertir le statement en " + ((Class<?>) args[0]).getName());
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(p);
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "CachedStatement[" + cs.physical + "]";
+                default:
+                    break;
+            }
+            if (!active) {
+                throw new SQLException("Statement déjà fermé");
+            }
+            try {
+                return method.invoke(cs.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // ==================== DataSource ====================
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Impossible de convertir le pool en " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
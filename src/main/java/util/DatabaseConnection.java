@@ -1,20 +1,28 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
 
     private static DatabaseConnection instance;
-    private Connection connection;
+    private ConnectionPool pool;
 
     // Paramètres de connexion - À MODIFIER selon votre configuration
-    private static final String URL = "jdbc:mysql://localhost:3306/bibliotheque_db?useSSL=false&serverTimezone=UTC";
+    private static final String URL = "jdbc:mysql://localhost:3306/bibliotheque_db?useSSL=false&serverTimezone=UTC"
+            + "&useServerPrepStmts=true&rewriteBatchedStatements=true";
     private static final String USER = "root";
     private static final String PASSWORD = ""; // Mettez votre mot de passe MySQL ici
     private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
 
+    // Paramètres du pool de connexions
+    private static final int POOL_MIN = 2;
+    private static final int POOL_MAX = 10;
+    private static final long ATTENTE_MAX_MS = 5_000;        // Attente max pour obtenir une connexion
+    private static final long INACTIVITE_MAX_MS = 300_000;   // Fermeture des connexions inactives (5 min)
+    private static final long SEUIL_FUITE_MS = 60_000;       // Alerte si une connexion n'est pas rendue
+    private static final int CACHE_STATEMENTS = 64;          // PreparedStatement gardés par connexion
+
     /**
      * Constructeur privé pour le pattern Singleton
      */
@@ -23,8 +31,10 @@ public class DatabaseConnection {
             // Charger le driver JDBC
             Class.forName(DRIVER);
 
-            // Établir la connexion
-            this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
+            // Créer le pool et ouvrir les connexions minimales
+            this.pool = new ConnectionPool(URL, USER, PASSWORD, POOL_MIN, POOL_MAX,
+                    ATTENTE_MAX_MS, INACTIVITE_MAX_MS, SEUIL_FUITE_MS, CACHE_STATEMENTS);
+            pool.prefill();
             System.out.println("✓ Connexion à la base de données réussie !");
 
         } catch (ClassNotFoundException e) {
@@ -50,35 +60,32 @@ public class DatabaseConnection {
     }
 
     /**
-     * Obtenir la connexion à la base de données
-     * @return La connexion active
-     * @throws SQLException Si la connexion est fermée ou invalide
+     * Emprunter une connexion au pool.
+     * Fermer la connexion (try-with-resources) la rend au pool.
+     * @return Une connexion valide
+     * @throws SQLException Si aucune connexion n'est disponible
      */
     public Connection getConnection() throws SQLException {
-        // Vérifier si la connexion est toujours valide
-        if (connection == null || connection.isClosed()) {
-            try {
-                this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("✓ Reconnexion à la base de données réussie !");
-            } catch (SQLException e) {
-                System.err.println("✗ Erreur lors de la reconnexion : " + e.getMessage());
-                throw e;
-            }
+        if (pool == null) {
+            throw new SQLException("Pool de connexions non initialisé (driver JDBC introuvable)");
         }
-        return connection;
+        return pool.getConnection();
+    }
+
+    /**
+     * Taille maximale du pool (nombre de requêtes simultanées possibles)
+     */
+    public int getMaxPoolSize() {
+        return POOL_MAX;
     }
 
     /**
-     * Fermer la connexion à la base de données
+     * Fermer le pool et toutes les connexions à la base de données
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                System.out.println("✓ Connexion à la base de données fermée");
-            } catch (SQLException e) {
-                System.err.println("✗ Erreur lors de la fermeture de la connexion : " + e.getMessage());
-            }
+        if (pool != null) {
+            pool.close();
+            System.out.println("✓ Connexions à la base de données fermées");
         }
     }
 
@@ -87,8 +94,11 @@ public class DatabaseConnection {
      * @return true si la connexion fonctionne, false sinon
      */
     public boolean testConnection() {
-        try {
-            return connection != null && !connection.isClosed();
+        if (pool == null || pool.isClosed()) {
+            return false;
+        }
+        try (Connection conn = pool.getConnection()) {
+            return conn.isValid(2);
         } catch (SQLException e) {
             return false;
         }
@@ -105,6 +115,14 @@ public class DatabaseConnection {
         System.out.println("User     : " + USER);
         System.out.println("Driver   : " + DRIVER);
         System.out.println("Status   : " + (testConnection() ? "✓ Connecté" : "✗ Déconnecté"));
+        if (pool != null) {
+            System.out.println("Pool     : " + pool.getActiveConnections() + " actives / "
+                    + pool.getIdleConnections() + " libres / " + pool.getTotalConnections()
+                    + " ouvertes (min " + POOL_MIN + ", max " + POOL_MAX + ")");
+            System.out.println("Cache    : " + pool.getStatementCacheHits() + " succès / "
+                    + pool.getStatementCacheMisses() + " échecs ("
+                    + String.format("%.1f", pool.getStatementCacheHitRatio() * 100) + " %)");
+        }
         System.out.println("===========================================");
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,11 @@ package util;
 import dao.CategorieDAO;
 import model.Categorie;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class DatabaseInit {
 
@@ -23,17 +26,27 @@ public class DatabaseInit {
                 new String[] { "Histoire", "Ouvrages historiques" },
                 new String[] { "Sciences", "Physique, Chimie, Biologie, Mathématiques" });
 
+        // Une seule requête pour connaître les catégories existantes
+        Set<String> existantes = categorieDAO.findAll().stream()
+                .map(Categorie::getNom)
+                .collect(Collectors.toSet());
+
+        List<Categorie> manquantes = new ArrayList<>();
         for (String[] catData : defaultCategories) {
             String nom = catData[0];
             String description = catData[1];
 
-            if (categorieDAO.findByNom(nom) == null) {
+            if (!existantes.contains(nom)) {
                 System.out.println("Création de la catégorie manquante : " + nom);
                 Categorie categorie = new Categorie();
                 categorie.setNom(nom);
                 categorie.setDescription(description);
-                categorieDAO.create(categorie);
+                manquantes.add(categorie);
             }
         }
+
+        if (!manquantes.isEmpty()) {
+            categorieDAO.createAll(manquantes);
+        }
     }
 }
@@ -0,0 +1,197 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mise à jour d'une liste affichée (ObservableList, enfants d'un conteneur) vers
+ * une nouvelle liste, sans la vider ni la reconstruire.
+ *
+ * Les éléments sont appariés par clé (l'id de l'entité). Les éléments déjà à leur
+ * place relative (plus longue sous-suite croissante des nouveaux rangs) ne bougent
+ * pas ; les autres sont déplacés, les disparus retirés et les nouveaux créés. Un
+ * élément existant n'est remplacé que si mettreAJour en rend un autre. Si rien n'a
+ * changé, la liste n'est pas touchée : aucun événement, aucun nœud recréé.
+ *
+ * Les retraits et les ajouts contigus sont faits en un seul appel (subList().clear(),
+ * addAll) pour qu'une ObservableList émette peu d'événements.
+ */
+public final class ListDiff {
+
+    private ListDiff() {
+    }
+
+    /**
+     * Même type d'élément des deux côtés (lignes d'une table, entités)
+     *
+     * @param identiques Vrai si l'ancien élément peut rester affiché à la place du nouveau
+     * @return Nombre d'éléments insérés, retirés, déplacés ou remplacés
+     */
+    public static <T, K> int appliquer(List<T> cible, List<? extends T> nouveaux,
+                                       Function<? super T, ? extends K> cle,
+                                       BiPredicate<? super T, ? super T> identiques) {
+        return appliquer(cible, nouveaux, cle, cle, element -> element,
+                (ancien, nouveau) -> identiques.test(ancien, nouveau) ? ancien : nouveau);
+    }
+
+    /**
+     * Éléments affichés construits à partir des données (nœuds d'un conteneur)
+     *
+     * @param cible       Liste affichée, modifiée sur place
+     * @param nouveaux    Données dans l'ordre voulu ; une clé en double est créée à nouveau
+     * @param cleCible    Clé d'un élément affiché
+     * @param cleNouvel   Clé d'une donnée
+     * @param creer       Élément affiché d'une donnée sans équivalent
+     * @param mettreAJour Élément à garder pour une donnée déjà affichée : l'ancien (éventuellement
+     *                    modifié sur place) ou un remplaçant ; null pour toujours garder l'ancien
+     * @return Nombre d'éléments insérés, retirés, déplacés ou remplacés
+     */
+    public static <T, S, K> int appliquer(List<T> cible, List<? extends S> nouveaux,
+                                          Function<? super T, ? extends K> cleCible,
+                                          Function<? super S, ? extends K> cleNouvel,
+                                          Function<? super S, ? extends T> creer,
+                                          BiFunction<? super T, ? super S, ? extends T> mettreAJour) {
+        return appliquer(cible, nouveaux, cleCible, cleNouvel, creer, mettreAJour, null);
+    }
+
+    /**
+     * Comme ci-dessus, en rendant les éléments qui ne sont plus affichés (pour les réutiliser)
+     *
+     * @param libere Reçoit chaque élément retiré ou remplacé dès qu'il a quitté la liste, avant
+     *               les créations : creer peut le réutiliser ; null si inutile
+     */
+    public static <T, S, K> int appliquer(List<T> cible, List<? extends S> nouveaux,
+                                          Function<? super T, ? extends K> cleCible,
+                                          Function<? super S, ? extends K> cleNouvel,
+                                          Function<? super S, ? extends T> creer,
+                                          BiFunction<? super T, ? super S, ? extends T> mettreAJour,
+                                          Consumer<? super T> libere) {
+        Map<K, Integer> rangs = new HashMap<>(nouveaux.size() * 2);
+        for (int j = 0; j < nouveaux.size(); j++) {
+            rangs.putIfAbsent(cleNouvel.apply(nouveaux.get(j)), j);
+        }
+
+        // Rang de chaque élément affiché dans la nouvelle liste, -1 s'il disparaît
+        int[] rangsActuels = new int[cible.size()];
+        Map<K, Boolean> vues = new HashMap<>(cible.size() * 2);
+        for (int i = 0; i < cible.size(); i++) {
+            K cle = cleCible.apply(cible.get(i));
+            Integer rang = rangs.get(cle);
+            rangsActuels[i] = rang != null && vues.putIfAbsent(cle, Boolean.TRUE) == null ? rang : -1;
+        }
+        boolean[] immobiles = plusLongueSuiteCroissante(rangsActuels);
+
+        // Retirer les disparus et les éléments à déplacer, par plages, en partant de la fin
+        int changements = 0;
+        Map<K, T> deplaces = new HashMap<>();
+        List<T> liberes = new ArrayList<>();
+        int fin = cible.size();
+        for (int i = cible.size() - 1; i >= -1; i--) {
+            if (i >= 0 && !immobiles[i]) {
+                T element = cible.get(i);
+                if (rangsActuels[i] >= 0) {
+                    deplaces.put(cleCible.apply(element), element);
+                } else {
+                    liberes.add(element);
+                }
+                changements++;
+                continue;
+            }
+            if (i + 1 < fin) {
+                cible.subList(i + 1, fin).clear();
+            }
+            fin = i;
+        }
+        if (libere != null) {
+            liberes.forEach(libere);
+        }
+
+        // Les éléments restants suivent l'ordre des nouveaux : insérer les manquants entre eux
+        List<T> aInserer = new ArrayList<>();
+        int position = 0;
+        for (S nouvel : nouveaux) {
+            K cle = cleNouvel.apply(nouvel);
+            if (position < cible.size() && Objects.equals(cleCible.apply(cible.get(position)), cle)) {
+                if (!aInserer.isEmpty()) {
+                    cible.addAll(position, aInserer);
+                    position += aInserer.size();
+                    aInserer.clear();
+                }
+                T ancien = cible.get(position);
+                T garde = mettreAJour != null ? mettreAJour.apply(ancien, nouvel) : ancien;
+                if (garde != ancien) {
+                    cible.set(position, garde);
+                    liberer(libere, ancien);
+                    changements++;
+                }
+                position++;
+                continue;
+            }
+            T deplace = deplaces.remove(cle);
+            if (deplace != null) {
+                T garde = mettreAJour != null ? mettreAJour.apply(deplace, nouvel) : deplace;
+                if (garde != deplace) {
+                    liberer(libere, deplace);
+                }
+                aInserer.add(garde);
+            } else {
+                aInserer.add(creer.apply(nouvel));
+                changements++;
+            }
+        }
+        if (!aInserer.isEmpty()) {
+            cible.addAll(position, aInserer);
+        }
+        return changements;
+    }
+
+    private static <T> void liberer(Consumer<? super T> libere, T element) {
+        if (libere != null) {
+            libere.accept(element);
+        }
+    }
+
+    /**
+     * Marque une plus longue sous-suite strictement croissante des rangs positifs (tri par paquets, n log n)
+     */
+    private static boolean[] plusLongueSuiteCroissante(int[] rangs) {
+        int n = rangs.length;
+        int[] finsDeSuite = new int[n];   // indice du dernier élément de la meilleure suite de chaque longueur
+        int[] precedents = new int[n];
+        int longueur = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (rangs[i] < 0) {
+                continue;
+            }
+            int bas = 0;
+            int haut = longueur;
+            while (bas < haut) {
+                int milieu = (bas + haut) >>> 1;
+                if (rangs[finsDeSuite[milieu]] < rangs[i]) {
+                    bas = milieu + 1;
+                } else {
+                    haut = milieu;
+                }
+            }
+            precedents[i] = bas > 0 ? finsDeSuite[bas - 1] : -1;
+            finsDeSuite[bas] = i;
+            if (bas == longueur) {
+                longueur++;
+            }
+        }
+
+        boolean[] dansLaSuite = new boolean[n];
+        for (int i = longueur > 0 ? finsDeSuite[longueur - 1] : -1; i >= 0; i = precedents[i]) {
+            dansLaSuite[i] = true;
+        }
+        return dansLaSuite;
+    }
+}
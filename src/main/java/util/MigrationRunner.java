@@ -0,0 +1,173 @@
+package util;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Migrations versionnées du schéma, appliquées une seule fois au démarrage.
+ * Les versions appliquées sont enregistrées dans la table schema_version ;
+ * une nouvelle migration s'ajoute à la fin de MIGRATIONS avec le numéro suivant.
+ */
+public class MigrationRunner {
+
+    /** Verrou MySQL pour que deux instances ne migrent pas en même temps */
+    private static final String VERROU = "bibliotheque_migrations";
+    private static final int ATTENTE_VERROU_S = 30;
+
+    // Erreurs tolérées : l'objet existe déjà (base créée à la main ou migration interrompue)
+    private static final int ER_TABLE_EXISTS = 1050;
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "Table message du chat",
+                    "CREATE TABLE IF NOT EXISTS message (" +
+                            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                            "id_utilisateur BIGINT NOT NULL, " +
+                            "contenu TEXT NOT NULL, " +
+                            "date_envoi DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                            "FOREIGN KEY (id_utilisateur) REFERENCES Utilisateur(id) ON DELETE CASCADE" +
+                            ")"),
+
+            new Migration(2, "Index composites des requêtes fréquentes",
+                    "CREATE INDEX idx_paiement_utilisateur_livre_statut ON Paiement (id_utilisateur, id_livre, statut)",
+                    "CREATE INDEX idx_telechargement_utilisateur_livre_autorise ON Telechargement (id_utilisateur, id_livre, autorise)",
+                    "CREATE INDEX idx_consultation_utilisateur_livre_date ON Consultation (id_utilisateur, id_livre, date_consultation)",
+                    "CREATE INDEX idx_livre_categorie_titre ON Livre (id_categorie, titre)",
+                    "CREATE INDEX idx_livre_type_disponible_titre ON Livre (type_livre, disponible, titre)",
+                    // Parcours du catalogue par (titre, id) pour LivreDAO.findPage
+                    "CREATE INDEX idx_livre_titre ON Livre (titre)"),
+
+            // Recherche MATCH ... AGAINST de LivreDAO (modes NATUREL et BOOLEEN)
+            new Migration(3, "Index FULLTEXT de la recherche du catalogue",
+                    "CREATE FULLTEXT INDEX ft_livre_titre_description ON Livre (titre, description)",
+                    "CREATE FULLTEXT INDEX ft_auteur_nom_prenom ON Auteur (nom, prenom)"),
+
+            // Tris et filtre par préfixe des tables d'administration (LivreDAO.findFenetre, AuteurDAO.findFenetre)
+            new Migration(4, "Index des tris de l'administration",
+                    "CREATE INDEX idx_livre_isbn ON Livre (isbn)",
+                    "CREATE INDEX idx_livre_annee ON Livre (annee_publication)",
+                    "CREATE INDEX idx_livre_prix ON Livre (prix)",
+                    "CREATE INDEX idx_livre_disponible ON Livre (disponible)",
+                    "CREATE INDEX idx_auteur_nom_prenom ON Auteur (nom, prenom)",
+                    "CREATE INDEX idx_auteur_prenom_nom ON Auteur (prenom, nom)")
+    );
+
+    private MigrationRunner() {
+    }
+
+    /**
+     * Appliquer les migrations manquantes
+     * @return true si le schéma est à jour
+     */
+    public static boolean migrer() {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            if (!acquerirVerrou(conn)) {
+                System.err.println("Migrations : verrou non obtenu, une autre instance est en cours de migration");
+                return false;
+            }
+            try {
+                creerTableVersions(conn);
+                Set<Integer> appliquees = versionsAppliquees(conn);
+
+                for (Migration migration : MIGRATIONS) {
+                    if (!appliquees.contains(migration.version)) {
+                        appliquer(conn, migration);
+                    }
+                }
+                return true;
+            } finally {
+                libererVerrou(conn);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la migration du schéma: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    private static void creerTableVersions(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(255) NOT NULL, " +
+                    "date_application DATETIME DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    private static Set<Integer> versionsAppliquees(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Le DDL MySQL valide implicitement chaque instruction : la version n'est
+     * enregistrée qu'une fois toutes les instructions passées
+     */
+    private static void appliquer(Connection conn, Migration migration) throws SQLException {
+        System.out.println("Migration V" + migration.version + " : " + migration.description);
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.instructions) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != ER_TABLE_EXISTS && e.getErrorCode() != ER_DUP_KEYNAME) {
+                        throw e;
+                    }
+                    System.out.println("  déjà présent, ignoré : " + e.getMessage());
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean acquerirVerrou(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, VERROU);
+            stmt.setInt(2, ATTENTE_VERROU_S);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void libererVerrou(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, VERROU);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Migrations : impossible de libérer le verrou: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Une version du schéma et les instructions qui y mènent
+     */
+    private static final class Migration {
+        final int version;
+        final String description;
+        final List<String> instructions;
+
+        Migration(int version, String description, String... instructions) {
+            this.version = version;
+            this.description = description;
+            this.instructions = Arrays.asList(instructions);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation du texte pour la recherche : minuscules, accents retirés
+ * (décomposition NFD), découpage en mots et mots vides du français.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Mots trop fréquents pour discriminer un livre (déjà sans accents) */
+    private static final Set<String> MOTS_VIDES = new HashSet<>(Arrays.asList(
+            "a", "au", "aux", "avec", "ce", "ces", "cet", "cette", "d", "dans", "de", "des", "du",
+            "elle", "elles", "en", "est", "et", "il", "ils", "l", "la", "le", "les", "leur", "leurs",
+            "lui", "mais", "me", "meme", "mes", "mon", "ne", "ni", "nos", "notre", "nous", "on", "ou",
+            "par", "pas", "plus", "pour", "qu", "que", "qui", "s", "sa", "sans", "se", "ses", "son",
+            "sont", "sur", "ta", "te", "tes", "ton", "tu", "un", "une", "vos", "votre", "vous", "y",
+            "the", "of", "and", "an", "in", "on", "to"));
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Retirer les accents sans changer la casse
+     */
+    public static String sansAccents(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        if (estAscii(texte)) {
+            return texte; // cas le plus fréquent : rien à décomposer
+        }
+        return DIACRITIQUES.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Minuscules et sans accents : « Misérables » devient « miserables »
+     */
+    public static String normaliser(String texte) {
+        return sansAccents(texte).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Découper un texte normalisé en mots, mots vides compris
+     */
+    public static List<String> mots(String texte) {
+        List<String> mots = new ArrayList<>();
+        for (String mot : SEPARATEURS.split(normaliser(texte))) {
+            if (!mot.isEmpty()) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+
+    /**
+     * Mots normalisés d'un texte, sans les mots vides
+     */
+    public static List<String> motsSignificatifs(String texte) {
+        List<String> mots = mots(texte);
+        mots.removeIf(TextNormalizer::estMotVide);
+        return mots;
+    }
+
+    public static boolean estMotVide(String mot) {
+        return MOTS_VIDES.contains(mot);
+    }
+
+    private static boolean estAscii(String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package controller;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+import model.Auteur;
+import model.Categorie;
+import model.LivreResume;
+import model.TypeLivre;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import util.ListDiff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Banc de la grille virtualisée du catalogue : temps d'ouverture (lignes posées
+ * dans la ListView et première mise en page) et temps d'une image de défilement,
+ * pour 1 000, 10 000 et 100 000 livres.
+ *
+ * La liste est mise en page hors écran, dans une scène sans fenêtre, avec
+ * style.css ; le dessin lui-même n'est pas mesuré. Il faut un affichage pour
+ * démarrer JavaFX, d'où l'activation explicite :
+ *   mvn test -Dtest=GrilleCatalogueBancTest -Dbibliotheque.banc=true
+ * (sous xvfb-run sur une machine sans écran).
+ */
+@EnabledIfSystemProperty(named = "bibliotheque.banc", matches = "true")
+class GrilleCatalogueBancTest {
+
+    private static final int[] TAILLES = {1_000, 10_000, 100_000};
+    private static final int IMAGES = 300;
+    private static final double PIXELS_PAR_IMAGE = 60;
+
+    @BeforeAll
+    static void demarrerJavaFx() throws InterruptedException {
+        CountDownLatch demarre = new CountDownLatch(1);
+        try {
+            Platform.startup(demarre::countDown);
+        } catch (IllegalStateException e) {
+            demarre.countDown(); // déjà démarré par une autre classe de test
+        }
+        assertTrue(demarre.await(10, TimeUnit.SECONDS), "JavaFX n'a pas démarré");
+    }
+
+    @Test
+    void ouvertureEtDefilement() throws Exception {
+        mesurer(livres(TAILLES[0]), false); // échauffement du JIT
+
+        for (int taille : TAILLES) {
+            List<LivreResume> livres = livres(taille);
+            Mesure mesure = mesurer(livres, true);
+            System.out.printf("%,7d livres : ouverture %6.1f ms, image médiane %5.2f ms, p95 %5.2f ms, "
+                            + "max %5.2f ms, saut au milieu %5.1f ms, %d cellules créées%n",
+                    taille, mesure.ouverture, mesure.centile(50), mesure.centile(95), mesure.centile(100),
+                    mesure.saut, mesure.cellules);
+            // Virtualisation : le nombre de cellules dépend de la hauteur visible, pas du catalogue
+            assertTrue(mesure.cellules < 50, "Trop de cellules créées : " + mesure.cellules);
+        }
+    }
+
+    private static Mesure mesurer(List<LivreResume> livres, boolean mesure) throws Exception {
+        return surFx(() -> {
+            AtomicInteger cellules = new AtomicInteger();
+            ListView<List<LivreResume>> liste = new ListView<>();
+            liste.setCellFactory(l -> {
+                cellules.incrementAndGet();
+                return new LigneLivresCell(livre -> { }, livre -> { }, index -> { });
+            });
+            Scene scene = new Scene(liste, 1000, 720);
+            scene.getStylesheets().add(GrilleCatalogueBancTest.class.getResource("/view/style.css").toExternalForm());
+            liste.applyCss();
+            liste.layout();
+
+            // Ouverture, comme MainController.afficherLivres sur une grille vide
+            Mesure resultat = new Mesure();
+            long debut = System.nanoTime();
+            ListDiff.appliquer(liste.getItems(), MainController.lignes(livres),
+                    LigneLivresCell::cle, LigneLivresCell::memeLigne);
+            liste.scrollTo(0);
+            liste.layout();
+            resultat.ouverture = millis(debut);
+
+            VirtualFlow<?> flow = (VirtualFlow<?>) liste.lookup(".virtual-flow");
+            resultat.images = new double[IMAGES];
+            for (int image = 0; image < IMAGES; image++) {
+                debut = System.nanoTime();
+                flow.scrollPixels(PIXELS_PAR_IMAGE);
+                liste.layout();
+                resultat.images[image] = millis(debut);
+            }
+
+            debut = System.nanoTime();
+            liste.scrollTo(liste.getItems().size() / 2);
+            liste.layout();
+            resultat.saut = millis(debut);
+            resultat.cellules = cellules.get();
+            return mesure ? resultat : null;
+        });
+    }
+
+    private static List<LivreResume> livres(int nombre) {
+        List<Auteur> auteurs = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            auteurs.add(new Auteur(id, "Nom" + id, "Prénom" + id, null));
+        }
+        List<Categorie> categories = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            categories.add(new Categorie(id, "Catégorie " + id, null));
+        }
+        List<LivreResume> livres = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            LivreResume livre = new LivreResume();
+            livre.setId((long) i + 1);
+            livre.setTitre(String.format("Livre %06d", i));
+            livre.setAnneePublication(i % 7 == 0 ? null : 1900 + i % 120);
+            livre.setTypeLivre(i % 3 == 0 ? TypeLivre.PAYANT : TypeLivre.GRATUIT);
+            livre.setPrix(i % 3 == 0 ? 9.99 : 0.0);
+            livre.setDisponible(true);
+            livre.setAuteur(auteurs.get(i % auteurs.size()));
+            livre.setCategorie(categories.get(i % categories.size()));
+            livres.add(livre);
+        }
+        return livres;
+    }
+
+    private static <T> T surFx(Callable<T> tache) throws Exception {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                resultat.complete(tache.call());
+            } catch (Throwable e) {
+                resultat.completeExceptionally(e);
+            }
+        });
+        return resultat.get(5, TimeUnit.MINUTES);
+    }
+
+    private static double millis(long debut) {
+        return (System.nanoTime() - debut) / 1_000_000.0;
+    }
+
+    private static class Mesure {
+        double ouverture;
+        double saut;
+        double[] images;
+        int cellules;
+
+        double centile(int centile) {
+            double[] tries = images.clone();
+            Arrays.sort(tries);
+            int rang = (int) Math.ceil(centile / 100.0 * tries.length) - 1;
+            return tries[Math.max(0, Math.min(rang, tries.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Expression du mode booléen construite à partir de la saisie de l'utilisateur
+ */
+class LivreDAOTest {
+
+    @Test
+    void sansOperateurLeDernierMotDevientUnPrefixe() {
+        assertEquals("victor hug*", LivreDAO.expressionBooleenne("victor  hug"));
+        assertEquals("", LivreDAO.expressionBooleenne(""));
+    }
+
+    @Test
+    void unMotComposeEstChercheCommeUnePhrase() {
+        assertEquals("\"Jean Paul\" Sartre*", LivreDAO.expressionBooleenne("Jean-Paul Sartre"));
+        assertEquals("\"Jean Paul\"", LivreDAO.expressionBooleenne("Jean-Paul"));
+        assertEquals("l'été*", LivreDAO.expressionBooleenne("l'été"));
+    }
+
+    @Test
+    void lesOperateursValidesSontGardes() {
+        assertEquals("+hugo -\"Jean Paul\" ~mis*", LivreDAO.expressionBooleenne("+hugo -Jean-Paul ~mis*"));
+        assertEquals("\"les misérables\" +(hugo zola)", LivreDAO.expressionBooleenne("\"les misérables\" +(hugo zola)"));
+        assertEquals("-roman", LivreDAO.expressionBooleenne("+-roman"));
+    }
+
+    @Test
+    void uneSyntaxeInvalideEstChercheeCommeDuTexte() {
+        assertEquals("les misérables*", LivreDAO.expressionBooleenne("\"les misérables"));
+        assertEquals("hugo zola*", LivreDAO.expressionBooleenne("(hugo zola"));
+        assertEquals("hugo*", LivreDAO.expressionBooleenne("hugo +"));
+        assertEquals("hugo zola*", LivreDAO.expressionBooleenne("hugo) (zola"));
+        assertEquals("hugo*", LivreDAO.expressionBooleenne("+hugo @"));
+        assertEquals("C*", LivreDAO.expressionBooleenne("C++"));
+    }
+
+    @Test
+    void leFiltreDAdministrationRequiertChaqueMotCommePrefixe() {
+        assertEquals("+misérables*", LivreDAO.expressionFiltre("misérables"));
+        assertEquals("+hug* +miser*", LivreDAO.expressionFiltre("  hug  miser "));
+        assertEquals("+Jean* +Paul* +l'été*", LivreDAO.expressionFiltre("Jean-Paul 'l'été'"));
+        assertEquals("+100*", LivreDAO.expressionFiltre("+100% -(\"*"));
+        assertEquals("", LivreDAO.expressionFiltre("% - "));
+    }
+}
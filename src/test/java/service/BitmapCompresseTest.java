@@ -0,0 +1,104 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ET / OU / SAUF de BitmapCompresse comparés à java.util.BitSet, sur des conteneurs
+ * tableaux (peu de valeurs), tables de bits (beaucoup) et des combinaisons des deux.
+ */
+class BitmapCompresseTest {
+
+    private static final int TAILLE = 3 << 16; // trois conteneurs
+
+    @Test
+    void intersectionTableauEtBitsPeuRemplis() {
+        // x OU y recouvrants : une table de bits de 4000 valeurs, moins qu'un tableau de 4096
+        BitmapCompresse x = intervalle(0, 3000);
+        BitmapCompresse y = intervalle(1000, 4000);
+        BitmapCompresse c = intervalle(0, 4096);
+
+        BitmapCompresse union = x.ou(y);
+        assertEquals(4000, union.cardinalite());
+        assertEquals(4000, c.et(union).cardinalite());
+        assertEquals(4000, union.et(c).cardinalite());
+        assertEquals(96, c.sauf(union).cardinalite());
+    }
+
+    @Test
+    void operationsConformesABitSet() {
+        Random aleatoire = new Random(17);
+        double[] densites = {0.001, 0.03, 0.06, 0.2, 0.9};
+        for (double densiteA : densites) {
+            for (double densiteB : densites) {
+                BitSet a = tirer(aleatoire, densiteA);
+                BitSet b = tirer(aleatoire, densiteB);
+                BitmapCompresse bitmapA = depuis(a);
+                BitmapCompresse bitmapB = depuis(b);
+
+                BitSet et = (BitSet) a.clone();
+                et.and(b);
+                BitSet ou = (BitSet) a.clone();
+                ou.or(b);
+                BitSet sauf = (BitSet) a.clone();
+                sauf.andNot(b);
+
+                String cas = densiteA + " / " + densiteB;
+                assertEquals(et, versBitSet(bitmapA.et(bitmapB)), "ET " + cas);
+                assertEquals(ou, versBitSet(bitmapA.ou(bitmapB)), "OU " + cas);
+                assertEquals(sauf, versBitSet(bitmapA.sauf(bitmapB)), "SAUF " + cas);
+                // Les résultats intermédiaires doivent rester combinables
+                assertEquals(et, versBitSet(bitmapA.ou(bitmapB).et(bitmapA.et(bitmapB))), "(A OU B) ET (A ET B) " + cas);
+            }
+        }
+    }
+
+    @Test
+    void complementParRapportAUnePlage() {
+        Random aleatoire = new Random(3);
+        BitSet a = tirer(aleatoire, 0.4);
+        BitmapCompresse non = BitmapCompresse.plage(TAILLE).sauf(depuis(a));
+
+        BitSet attendu = new BitSet(TAILLE);
+        attendu.set(0, TAILLE);
+        attendu.andNot(a);
+        assertEquals(attendu, versBitSet(non));
+        assertTrue(non.et(depuis(a)).estVide());
+    }
+
+    private static BitmapCompresse intervalle(int debut, int fin) {
+        BitmapCompresse bitmap = new BitmapCompresse();
+        for (int valeur = debut; valeur < fin; valeur++) {
+            bitmap.ajouter(valeur);
+        }
+        return bitmap;
+    }
+
+    private static BitSet tirer(Random aleatoire, double densite) {
+        BitSet bits = new BitSet(TAILLE);
+        for (int valeur = 0; valeur < TAILLE; valeur++) {
+            if (aleatoire.nextDouble() < densite) {
+                bits.set(valeur);
+            }
+        }
+        return bits;
+    }
+
+    private static BitmapCompresse depuis(BitSet bits) {
+        BitmapCompresse bitmap = new BitmapCompresse();
+        bits.stream().forEach(bitmap::ajouter);
+        return bitmap;
+    }
+
+    private static BitSet versBitSet(BitmapCompresse bitmap) {
+        BitSet bits = new BitSet(TAILLE);
+        bitmap.pourChaque(bits::set);
+        assertEquals(bits.cardinality(), bitmap.cardinalite());
+        return bits;
+    }
+}
@@ -0,0 +1,110 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regroupement des recherches simultanées, éviction LRU, expiration et invalidation
+ */
+class CacheResultatsTest {
+
+    private static final long UNE_HEURE = 3_600_000;
+
+    @Test
+    void deuxRecherchesSimultaneesNExecutentLaRequeteQuUneFois() throws Exception {
+        CacheResultats<String> cache = new CacheResultats<>(10, UNE_HEURE);
+        AtomicInteger appels = new AtomicInteger();
+        CountDownLatch libere = new CountDownLatch(1);
+
+        CompletableFuture<String> premiere = CompletableFuture.supplyAsync(() -> cache.obtenir("hugo", () -> {
+            appels.incrementAndGet();
+            attendre(libere);
+            return "résultat";
+        }));
+        attendreQue(() -> appels.get() == 1);
+
+        CompletableFuture<String> seconde = CompletableFuture.supplyAsync(() -> cache.obtenir("hugo", () -> {
+            appels.incrementAndGet();
+            return "autre";
+        }));
+        attendreQue(() -> cache.getRegroupees() == 1);
+        libere.countDown();
+
+        assertEquals("résultat", premiere.get(5, TimeUnit.SECONDS));
+        assertSame(premiere.get(), seconde.get(5, TimeUnit.SECONDS));
+        assertEquals(1, appels.get());
+        assertEquals(1, cache.getEchecs());
+    }
+
+    @Test
+    void laMoinsRecemmentLueEstEvincee() {
+        CacheResultats<String> cache = new CacheResultats<>(2, UNE_HEURE);
+        AtomicInteger appels = new AtomicInteger();
+
+        cache.obtenir("a", () -> "A" + appels.incrementAndGet());
+        cache.obtenir("b", () -> "B" + appels.incrementAndGet());
+        cache.obtenir("a", () -> "A" + appels.incrementAndGet()); // « a » devient la plus récente
+        cache.obtenir("c", () -> "C" + appels.incrementAndGet()); // évince « b »
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getTaille());
+        assertEquals("A1", cache.obtenir("a", () -> "A" + appels.incrementAndGet()));
+        assertEquals("B4", cache.obtenir("b", () -> "B" + appels.incrementAndGet()));
+        assertEquals(4, appels.get());
+    }
+
+    @Test
+    void uneEntreeExpireeEstRecalculee() {
+        CacheResultats<String> cache = new CacheResultats<>(10, 0);
+        AtomicInteger appels = new AtomicInteger();
+
+        assertEquals("1", cache.obtenir("zola", () -> String.valueOf(appels.incrementAndGet())));
+        assertEquals("2", cache.obtenir("zola", () -> String.valueOf(appels.incrementAndGet())));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.getSucces());
+    }
+
+    @Test
+    void unCalculCommenceAvantUneInvalidationNEstPasGarde() {
+        CacheResultats<String> cache = new CacheResultats<>(10, UNE_HEURE);
+
+        assertEquals("ancien", cache.obtenir("sand", () -> {
+            cache.invalider(); // écriture dans le catalogue pendant la recherche
+            return "ancien";
+        }));
+        assertEquals(0, cache.getTaille());
+        assertEquals("nouveau", cache.obtenir("sand", () -> "nouveau"));
+        assertEquals("nouveau", cache.obtenir("sand", () -> "inutile"));
+    }
+
+    @Test
+    void laCleIgnoreCasseAccentsEtEspaces() {
+        assertEquals(CacheResultats.cle("miserables"), CacheResultats.cle("  Misérables "));
+        assertEquals("les miserables", CacheResultats.cle("Les   MISÉRABLES"));
+    }
+
+    private static void attendre(CountDownLatch verrou) {
+        try {
+            assertTrue(verrou.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void attendreQue(BooleanSupplier condition) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condition non atteinte");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package service;
+
+import model.TypeLivre;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Traduction SQL d'un filtre, utilisée quand le catalogue en mémoire est inactif
+ */
+class FiltreLivreTest {
+
+    @Test
+    void conditionEtParametresDansLOrdreDesTermes() {
+        FiltreLivre filtre = FiltreLivre.categorie(1L).ou(FiltreLivre.categorie(4L))
+                .et(FiltreLivre.type(TypeLivre.GRATUIT), FiltreLivre.disponible(true))
+                .et(FiltreLivre.langue(" Anglais ").non());
+
+        List<Object> parametres = new ArrayList<>();
+        String sql = filtre.versSql(parametres);
+
+        assertEquals("((l.id_categorie <=> ? OR l.id_categorie <=> ?) AND l.type_livre <=> ? "
+                + "AND l.disponible <=> TRUE AND NOT (COALESCE(LOWER(TRIM(l.langue)), '') = ?))", sql);
+        assertEquals(Arrays.asList(1L, 4L, "GRATUIT", "anglais"), parametres);
+    }
+
+    @Test
+    void indisponibleEstLaNegationNullSure() {
+        List<Object> parametres = new ArrayList<>();
+        assertEquals("NOT (l.disponible <=> TRUE)", FiltreLivre.disponible(false).versSql(parametres));
+        assertEquals(0, parametres.size());
+    }
+}
@@ -0,0 +1,65 @@
+package service;
+
+import model.Facette;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Traduction SQL des facettes, utilisée quand le catalogue est parcouru en base
+ */
+class IndexFacettesTest {
+
+    @Test
+    void conditionEtParametresDansLOrdreDesFacettes() {
+        Map<Facette, Set<String>> filtres = new EnumMap<>(Facette.class);
+        filtres.put(Facette.DISPONIBILITE, Collections.singleton(IndexFacettes.DISPONIBLE));
+        filtres.put(Facette.CATEGORIE, new LinkedHashSet<>(Arrays.asList("Roman", IndexFacettes.SANS_CATEGORIE)));
+        filtres.put(Facette.LANGUE, Collections.emptySet());
+
+        List<Object> parametres = new ArrayList<>();
+        String sql = IndexFacettes.conditionSql(filtres, null, parametres);
+
+        assertEquals("COALESCE(c.nom, ?) IN (?, ?) AND CASE WHEN l.disponible THEN ? ELSE ? END IN (?)", sql);
+        assertEquals(Arrays.asList(IndexFacettes.SANS_CATEGORIE, "Roman", IndexFacettes.SANS_CATEGORIE,
+                IndexFacettes.DISPONIBLE, IndexFacettes.INDISPONIBLE, IndexFacettes.DISPONIBLE), parametres);
+    }
+
+    @Test
+    void laFacetteCompteeNeFiltrePas() {
+        Map<Facette, Set<String>> filtres = new EnumMap<>(Facette.class);
+        filtres.put(Facette.TYPE, Collections.singleton("GRATUIT"));
+
+        List<Object> parametres = new ArrayList<>();
+        assertEquals("TRUE", IndexFacettes.conditionSql(filtres, Facette.TYPE, parametres));
+        assertEquals(0, parametres.size());
+        assertEquals("TRUE", IndexFacettes.conditionSql(null, null, parametres));
+    }
+
+    @Test
+    void comptesLusEnBaseTriesCommeEnMemoire() {
+        Map<String, Integer> comptes = new LinkedHashMap<>();
+        comptes.put("Poésie", 2);
+        comptes.put("Roman", 5);
+        comptes.put("Essai", 2);
+        comptes.put("Vide", 0);
+        assertEquals(Arrays.asList("Roman", "Essai", "Poésie"),
+                new ArrayList<>(IndexFacettes.trier(Facette.CATEGORIE, comptes).keySet()));
+
+        Map<String, Integer> decennies = new LinkedHashMap<>();
+        decennies.put("1990s", 7);
+        decennies.put("1850s", 1);
+        assertEquals(Arrays.asList("1850s", "1990s"),
+                new ArrayList<>(IndexFacettes.trier(Facette.DECENNIE, decennies).keySet()));
+    }
+}
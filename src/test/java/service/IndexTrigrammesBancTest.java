@@ -0,0 +1,128 @@
+package service;
+
+import model.Livre;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Banc de la correction orthographique : construction du vocabulaire et temps
+ * d'une recherche de mot proche, pour 10 000, 100 000 et 1 000 000 de mots.
+ * Chaque mot cherché est un mot du vocabulaire avec une lettre remplacée : il
+ * doit recevoir une correction à une faute près, comme dans CatalogueCache.corriger.
+ * Ce n'est pas toujours le mot d'origine, car d'autres mots du vocabulaire peuvent
+ * être aussi proches de la faute ; leur part croît avec la taille du vocabulaire.
+ *
+ * Long et gourmand en mémoire, donc lancé explicitement :
+ *   mvn test -Dtest=IndexTrigrammesBancTest -Dbibliotheque.banc=true
+ */
+@EnabledIfSystemProperty(named = "bibliotheque.banc", matches = "true")
+class IndexTrigrammesBancTest {
+
+    private static final int[] TAILLES = {10_000, 100_000, 1_000_000};
+    private static final int REQUETES = 2_000;
+    private static final String LETTRES = "abcdefghijklmnopqrstuvwxyz";
+
+    @Test
+    void correctionSelonLaTailleDuVocabulaire() {
+        Random aleatoire = new Random(42);
+        List<String> echauffement = vocabulaire(TAILLES[0], aleatoire);
+        corriger(IndexTrigrammes.construire(livres(echauffement)), echauffement, aleatoire); // JIT
+
+        for (int taille : TAILLES) {
+            List<String> mots = vocabulaire(taille, aleatoire);
+            List<Livre> livres = livres(mots);
+
+            long debut = System.nanoTime();
+            IndexTrigrammes index = IndexTrigrammes.construire(livres);
+            double construction = (System.nanoTime() - debut) / 1_000_000.0;
+
+            Resultat resultat = corriger(index, mots, aleatoire);
+            System.out.printf("%,9d mots : construction %7.0f ms, %7.1f µs par requête, "
+                            + "%d/%d corrigées dont %d vers le mot d'origine%n",
+                    taille, construction, resultat.micros, resultat.corrigees, REQUETES, resultat.origine);
+            assertTrue(resultat.corrigees == REQUETES,
+                    "Fautes non corrigées : " + (REQUETES - resultat.corrigees) + "/" + REQUETES);
+        }
+    }
+
+    private static Resultat corriger(IndexTrigrammes index, List<String> mots, Random aleatoire) {
+        List<String> attendus = new ArrayList<>(REQUETES);
+        List<String> fautes = new ArrayList<>(REQUETES);
+        for (int i = 0; i < REQUETES; i++) {
+            String mot = mots.get(aleatoire.nextInt(mots.size()));
+            attendus.add(mot);
+            fautes.add(avecUneFaute(mot, aleatoire));
+        }
+
+        Resultat resultat = new Resultat();
+        List<List<String>> proposees = new ArrayList<>(REQUETES);
+        long debut = System.nanoTime();
+        for (int i = 0; i < REQUETES; i++) {
+            proposees.add(index.proches(fautes.get(i), 1));
+        }
+        resultat.micros = (System.nanoTime() - debut) / 1_000.0 / REQUETES;
+
+        for (int i = 0; i < REQUETES; i++) {
+            List<String> proches = proposees.get(i);
+            if (!proches.isEmpty() && IndexTrigrammes.distance(fautes.get(i), proches.get(0), 1) <= 1) {
+                resultat.corrigees++;
+                if (proches.get(0).equals(attendus.get(i))) {
+                    resultat.origine++;
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Mots distincts de 5 à 10 lettres
+     */
+    private static List<String> vocabulaire(int taille, Random aleatoire) {
+        Set<String> mots = new HashSet<>(taille * 2);
+        while (mots.size() < taille) {
+            int longueur = 5 + aleatoire.nextInt(6);
+            StringBuilder mot = new StringBuilder(longueur);
+            for (int i = 0; i < longueur; i++) {
+                mot.append(LETTRES.charAt(aleatoire.nextInt(LETTRES.length())));
+            }
+            mots.add(mot.toString());
+        }
+        return new ArrayList<>(mots);
+    }
+
+    /**
+     * Un livre par mot, le mot pour titre
+     */
+    private static List<Livre> livres(List<String> mots) {
+        List<Livre> livres = new ArrayList<>(mots.size());
+        for (String mot : mots) {
+            Livre livre = new Livre();
+            livre.setTitre(mot);
+            livres.add(livre);
+        }
+        return livres;
+    }
+
+    private static String avecUneFaute(String mot, Random aleatoire) {
+        int position = aleatoire.nextInt(mot.length());
+        char lettre;
+        do {
+            lettre = LETTRES.charAt(aleatoire.nextInt(LETTRES.length()));
+        } while (lettre == mot.charAt(position));
+        return mot.substring(0, position) + lettre + mot.substring(position + 1);
+    }
+
+    private static final class Resultat {
+        int corrigees;
+        int origine;
+        double micros;
+    }
+}
@@ -0,0 +1,240 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mise à jour d'une liste par clé : contenu final, nombre de changements rendu,
+ * éléments gardés et ordre de libération
+ */
+class ListDiffTest {
+
+    @Test
+    void unRafraichissementIdentiqueNeTouchePasLaListe() {
+        ListeComptee<Ligne> cible = new ListeComptee<>(lignes("a", "b", "c"));
+        List<Ligne> avant = new ArrayList<>(cible);
+
+        assertEquals(0, appliquer(cible, lignes("a", "b", "c")));
+        assertEquals(0, cible.modifications);
+        for (int i = 0; i < avant.size(); i++) {
+            assertSame(avant.get(i), cible.get(i));
+        }
+    }
+
+    @Test
+    void unDeplacementNeBougeQuUnElement() {
+        List<Ligne> cible = new ArrayList<>(lignes("a", "b", "c", "d"));
+        Ligne a = cible.get(0);
+
+        assertEquals(1, appliquer(cible, lignes("b", "c", "d", "a")));
+        assertEquals(Arrays.asList("b", "c", "d", "a"), cles(cible));
+        assertSame(a, cible.get(3));
+    }
+
+    @Test
+    void retraitsEtInsertions() {
+        List<Ligne> cible = new ArrayList<>(lignes("a", "b", "c", "d"));
+        assertEquals(2, appliquer(cible, lignes("a", "c")));
+        assertEquals(Arrays.asList("a", "c"), cles(cible));
+
+        assertEquals(3, appliquer(cible, lignes("x", "a", "b", "c", "y")));
+        assertEquals(Arrays.asList("x", "a", "b", "c", "y"), cles(cible));
+
+        assertEquals(5, appliquer(cible, Collections.emptyList()));
+        assertTrue(cible.isEmpty());
+    }
+
+    @Test
+    void unElementModifieEstRemplaceSurPlace() {
+        List<Ligne> cible = new ArrayList<>(lignes("a", "b", "c"));
+        Ligne a = cible.get(0);
+        List<Ligne> nouveaux = lignes("a", "b", "c");
+        nouveaux.set(1, new Ligne("b", "modifié"));
+
+        assertEquals(1, appliquer(cible, nouveaux));
+        assertSame(a, cible.get(0));
+        assertSame(nouveaux.get(1), cible.get(1));
+    }
+
+    @Test
+    void lesClesEnDoubleSontRetireesOuCreees() {
+        List<Ligne> cible = new ArrayList<>(lignes("a", "a", "b"));
+        Ligne premierA = cible.get(0);
+
+        assertEquals(1, appliquer(cible, lignes("a", "b")));
+        assertEquals(Arrays.asList("a", "b"), cles(cible));
+        assertSame(premierA, cible.get(0));
+
+        assertEquals(1, appliquer(cible, lignes("a", "b", "a")));
+        assertEquals(Arrays.asList("a", "b", "a"), cles(cible));
+        assertNotSame(cible.get(0), cible.get(2));
+    }
+
+    @Test
+    void lesRetiresSontLiberesAvantLesCreations() {
+        List<String> cible = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        List<String> journal = new ArrayList<>();
+
+        ListDiff.appliquer(cible, Arrays.asList("a", "x", "y"), s -> s, s -> s,
+                s -> {
+                    journal.add("créé " + s);
+                    return s;
+                },
+                null,
+                s -> journal.add("libéré " + s));
+
+        assertEquals(Arrays.asList("a", "x", "y"), cible);
+        assertEquals(Arrays.asList("libéré c", "libéré b", "créé x", "créé y"), journal);
+    }
+
+    @Test
+    void listesAleatoires() {
+        Random aleatoire = new Random(7);
+        for (int essai = 0; essai < 500; essai++) {
+            List<String> anciennes = clesAleatoires(aleatoire);
+            List<String> nouvelles = clesAleatoires(aleatoire);
+            ListeComptee<Ligne> cible = new ListeComptee<>(lignes(anciennes.toArray(new String[0])));
+
+            int changements = appliquer(cible, lignes(nouvelles.toArray(new String[0])));
+
+            assertEquals(nouvelles, cles(cible), "Essai " + essai);
+            assertEquals(changementsAttendus(anciennes, nouvelles), changements, "Essai " + essai);
+            if (anciennes.equals(nouvelles)) {
+                assertEquals(0, cible.modifications);
+            }
+        }
+    }
+
+    private static int appliquer(List<Ligne> cible, List<Ligne> nouveaux) {
+        return ListDiff.appliquer(cible, nouveaux, Ligne::getCle,
+                (ancienne, nouvelle) -> Objects.equals(ancienne.texte, nouvelle.texte));
+    }
+
+    /**
+     * Retirés + créés + déplacés : les éléments gardés hors d'une plus longue sous-suite
+     * croissante de leurs nouveaux rangs (calculée ici naïvement, en n²)
+     */
+    private static int changementsAttendus(List<String> anciennes, List<String> nouvelles) {
+        Map<String, Integer> rangs = new HashMap<>();
+        for (int j = 0; j < nouvelles.size(); j++) {
+            rangs.put(nouvelles.get(j), j);
+        }
+        List<Integer> gardes = new ArrayList<>();
+        for (String cle : anciennes) {
+            if (rangs.containsKey(cle)) {
+                gardes.add(rangs.get(cle));
+            }
+        }
+        int[] longueurs = new int[gardes.size()];
+        int plusLongue = 0;
+        for (int i = 0; i < gardes.size(); i++) {
+            longueurs[i] = 1;
+            for (int k = 0; k < i; k++) {
+                if (gardes.get(k) < gardes.get(i)) {
+                    longueurs[i] = Math.max(longueurs[i], longueurs[k] + 1);
+                }
+            }
+            plusLongue = Math.max(plusLongue, longueurs[i]);
+        }
+        int retires = anciennes.size() - gardes.size();
+        int crees = nouvelles.size() - gardes.size();
+        int deplaces = gardes.size() - plusLongue;
+        return retires + crees + deplaces;
+    }
+
+    /**
+     * Clés distinctes tirées parmi 20, dans un ordre aléatoire
+     */
+    private static List<String> clesAleatoires(Random aleatoire) {
+        List<String> cles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cles.add("k" + i);
+        }
+        Collections.shuffle(cles, aleatoire);
+        return new ArrayList<>(cles.subList(0, aleatoire.nextInt(cles.size() + 1)));
+    }
+
+    private static List<Ligne> lignes(String... cles) {
+        List<Ligne> lignes = new ArrayList<>();
+        for (String cle : cles) {
+            lignes.add(new Ligne(cle, "texte " + cle));
+        }
+        return lignes;
+    }
+
+    private static List<String> cles(List<Ligne> lignes) {
+        List<String> cles = new ArrayList<>();
+        for (Ligne ligne : lignes) {
+            cles.add(ligne.cle);
+        }
+        return cles;
+    }
+
+    private static final class Ligne {
+        final String cle;
+        final String texte;
+
+        Ligne(String cle, String texte) {
+            this.cle = cle;
+            this.texte = texte;
+        }
+
+        String getCle() {
+            return cle;
+        }
+    }
+
+    /**
+     * Liste qui compte les écritures, comme une ObservableList compterait ses événements
+     */
+    private static final class ListeComptee<T> extends AbstractList<T> {
+        private final List<T> elements;
+        int modifications;
+
+        ListeComptee(List<T> elements) {
+            this.elements = new ArrayList<>(elements);
+        }
+
+        @Override
+        public T get(int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public T set(int index, T element) {
+            modifications++;
+            return elements.set(index, element);
+        }
+
+        @Override
+        public void add(int index, T element) {
+            modifications++;
+            elements.add(index, element);
+        }
+
+        @Override
+        public T remove(int index) {
+            modifications++;
+            return elements.remove(index);
+        }
+    }
+}